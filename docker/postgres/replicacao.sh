@@ -0,0 +1,5 @@
+#!/bin/bash
+# Executado pela imagem do postgres apenas na criação do volume: libera conexões de replicação
+# para o serviço postgres-replica. Em um volume já existente, acrescente a mesma linha ao
+# pg_hba.conf e execute SELECT pg_reload_conf().
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,105 @@
+package br.com.loja.pedidos.benchmarks;
+
+import br.com.loja.pedidos.PedidosApplication;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de {@link DomainServices} contra um PostgreSQL embarcado, com o contexto Spring
+ * completo (JPA, Flyway, cache e índice de IDs). As consultas nativas do repositório são
+ * específicas do PostgreSQL, por isso o banco embarcado é um PostgreSQL real e não o H2.
+ *
+ * A aplicação sobe sem servidor web nem gRPC; a conexão com o RabbitMQ não é necessária.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DomainServicesBenchmark {
+
+    private static final int PEDIDOS_INICIAIS = 10_000;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext contexto;
+    private DomainServices domainServices;
+    private long menorId;
+    private long maiorId;
+    private long idAlternado;
+    private boolean pago;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        contexto = new SpringApplicationBuilder(PedidosApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.show-sql=false",
+                        "grpc.server.port=-1",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.amqp=OFF")
+                .run();
+        domainServices = contexto.getBean(DomainServices.class);
+
+        List<PedidoEntity> pedidos = new ArrayList<>(PEDIDOS_INICIAIS);
+        for (int i = 0; i < PEDIDOS_INICIAIS; i++) {
+            pedidos.add(new PedidoEntity());
+        }
+        List<Long> ids = domainServices.criarPedidosEmLote(pedidos);
+        menorId = ids.get(0);
+        maiorId = ids.get(ids.size() - 1);
+        idAlternado = menorId;
+        domainServices.atualizarStatus(idAlternado, "PAGO");
+        pago = true;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        contexto.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public PedidoEntity buscaPedidoPorId() {
+        return domainServices.buscaPedidoPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public boolean existePedido() {
+        return domainServices.existePedido(idAleatorio());
+    }
+
+    @Benchmark
+    public PaginaPedidosDTO listarPrimeiraPagina() {
+        return domainServices.listarPedidos(FiltroPedidosDTO.builder().build(), null, 20);
+    }
+
+    @Benchmark
+    public PedidoEntity criarPedido() {
+        return domainServices.criarPedido(new PedidoEntity());
+    }
+
+    /** Alterna o mesmo pedido entre PAGO e RECUSADO, transição permitida nos dois sentidos. */
+    @Benchmark
+    public PedidoEntity atualizarStatus() {
+        pago = !pago;
+        return domainServices.atualizarStatus(idAlternado, pago ? "PAGO" : "RECUSADO");
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(menorId, maiorId + 1);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.loja.pedidos.benchmarks;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desserialização de {@link EventoPagamentoDTO} pelo {@link Jackson2JsonMessageConverter},
+ * o mesmo conversor registrado em {@code RabbitConfig} e usado pelo {@code PagamentoListener}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventoPagamentoBenchmark {
+
+    private Jackson2JsonMessageConverter conversor;
+    private Message mensagem;
+
+    @Setup
+    public void preparar() {
+        conversor = new Jackson2JsonMessageConverter();
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        propriedades.setInferredArgumentType(EventoPagamentoDTO.class);
+        byte[] corpo = "{\"idPedido\":123456,\"status\":\"PAGO\"}".getBytes(StandardCharsets.UTF_8);
+        mensagem = new Message(corpo, propriedades);
+    }
+
+    @Benchmark
+    public Object desserializar() {
+        return conversor.fromMessage(mensagem);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.loja.pedidos.benchmarks;
+
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.infra.proto.PedidoProtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de {@link PedidoEntity} como nas respostas de {@code GET /api/pedidos/{id}}
+ * e {@code GET /api/pedidos}, comparada à representação protobuf servida com
+ * {@code Accept: application/x-protobuf}.
+ *
+ * O {@link ObjectMapper} vem de um contexto com {@link JacksonAutoConfiguration}, o mesmo que o
+ * Spring Boot registra para o MVC. O pedido único fica em um estado sem {@code tamanhoPagina},
+ * para não ser medido uma vez por tamanho de página.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PedidoJsonBenchmark {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @State(Scope.Benchmark)
+    public static class Mapeador {
+
+        ObjectMapper objectMapper;
+
+        @Setup
+        public void preparar() {
+            try (AnnotationConfigApplicationContext contexto =
+                         new AnnotationConfigApplicationContext(JacksonAutoConfiguration.class)) {
+                objectMapper = contexto.getBean(ObjectMapper.class);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pedido {
+
+        PedidoEntity pedido;
+
+        @Setup
+        public void preparar() {
+            pedido = new PedidoEntity(1L, "CRIADO", AGORA, 0L, null);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pagina {
+
+        @Param({"20", "100"})
+        int tamanhoPagina;
+
+        PaginaPedidosDTO pagina;
+
+        @Setup
+        public void preparar() {
+            List<PedidoEntity> itens = new ArrayList<>(tamanhoPagina);
+            for (int i = 0; i < tamanhoPagina; i++) {
+                itens.add(new PedidoEntity((long) i, "PAGO", AGORA.plusSeconds(i), 1L, AGORA.plusSeconds(i + 60)));
+            }
+            pagina = new PaginaPedidosDTO(itens, "MjAyNS0wMS0wMVQxMjowMHwx");
+        }
+    }
+
+    @Benchmark
+    public byte[] pedidoUnico(Mapeador mapeador, Pedido estado) throws Exception {
+        return mapeador.objectMapper.writeValueAsBytes(estado.pedido);
+    }
+
+    @Benchmark
+    public byte[] paginaDePedidos(Mapeador mapeador, Pagina estado) throws Exception {
+        return mapeador.objectMapper.writeValueAsBytes(estado.pagina);
+    }
+
+    @Benchmark
+    public byte[] pedidoUnicoProtobuf(Pedido estado) {
+        return PedidoProtoMapper.paraProto(estado.pedido).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] paginaDePedidosProtobuf(Pagina estado) {
+        return PedidoProtoMapper.paraProto(estado.pagina).toByteArray();
+    }
+}
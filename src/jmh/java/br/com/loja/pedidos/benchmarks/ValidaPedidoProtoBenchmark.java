@@ -0,0 +1,35 @@
+package br.com.loja.pedidos.benchmarks;
+
+import br.com.loja.grpc.ValidaPedidoResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e decodificação protobuf de {@link ValidaPedidoResponse}, a resposta de
+ * {@code retornaTrueSeExiste}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidaPedidoProtoBenchmark {
+
+    private byte[] codificada;
+    private boolean sucesso;
+
+    @Setup
+    public void preparar() {
+        sucesso = true;
+        codificada = ValidaPedidoResponse.newBuilder().setSuccess(true).build().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] codificar() {
+        return ValidaPedidoResponse.newBuilder().setSuccess(sucesso).build().toByteArray();
+    }
+
+    @Benchmark
+    public ValidaPedidoResponse decodificar() throws Exception {
+        return ValidaPedidoResponse.parseFrom(codificada);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.loja.pedidos.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Novo status de um pedido em {@code PUT /api/pedidos/status}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AlteracaoStatusDTO {
+	private Long id;
+	private String status;
+}
@@ -0,0 +1,22 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Corpo de {@code PUT /api/pedidos/status}. Informa {@code itens}, com o novo status de cada
+ * pedido, ou {@code filtro} e {@code status}, para levar todos os pedidos do filtro ao mesmo status.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AtualizacaoStatusEmMassaDTO {
+	private List<AlteracaoStatusDTO> itens;
+	private FiltroPedidosDTO filtro;
+	private String status;
+}
@@ -0,0 +1,21 @@
+package br.com.loja.pedidos.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quantidade de pedidos realizados no período {@code [inicio, fim)} em {@code GET /api/pedidos/contagem}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ContagemPedidosDTO {
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+	private long total;
+}
@@ -0,0 +1,48 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posição de uma página na listagem por keyset, ordenada por
+ * {@code (dataHoraRealizacaoPedido, id)}.
+ *
+ * Para o cliente o cursor é um texto opaco: a chave do último pedido da página codificada em Base64 URL-safe.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPedidoDTO {
+	private LocalDateTime dataHoraRealizacaoPedido;
+	private Long id;
+
+	public String codificar() {
+		String chave = dataHoraRealizacaoPedido + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param cursor Texto gerado por {@link #codificar()}.
+	 * @return O cursor decodificado, ou {@code null} se {@code cursor} for vazio.
+	 * @throws IllegalArgumentException Caso o texto não seja um cursor válido.
+	 */
+	public static CursorPedidoDTO decodificar(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separador = chave.lastIndexOf('|');
+			return new CursorPedidoDTO(LocalDateTime.parse(chave.substring(0, separador)),
+					Long.valueOf(chave.substring(separador + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Cursor de paginação inválido: " + cursor);
+		}
+	}
+}
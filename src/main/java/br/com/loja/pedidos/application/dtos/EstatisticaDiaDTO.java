@@ -0,0 +1,23 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem, por status atual, dos pedidos realizados em um dia.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EstatisticaDiaDTO {
+	private LocalDate dia;
+	private long total;
+	private Map<StatusPedido, Long> porStatus;
+}
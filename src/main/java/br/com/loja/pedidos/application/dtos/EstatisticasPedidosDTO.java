@@ -0,0 +1,24 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem de pedidos por status atual, no total e por dia de realização.
+ * {@code porDia} traz apenas os dias do período consultado que têm pedidos, em ordem crescente.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EstatisticasPedidosDTO {
+	private long total;
+	private Map<StatusPedido, Long> porStatus;
+	private List<EstatisticaDiaDTO> porDia;
+}
@@ -1,12 +1,19 @@
 package br.com.loja.pedidos.application.dtos;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Evento recebido do serviço de pagamentos na {@code fila_pagamento}.
+ * {@code idEvento} identifica o evento em todas as suas entregas e {@code ocorridoEm} é o instante
+ * em que o pagamento mudou de situação no serviço de origem. Eventos sem esses campos, de
+ * publicadores antigos, são aplicados sem deduplicação.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,4 +22,10 @@ public class EventoPagamentoDTO implements Serializable {
 	private static final long serialVersionUID = 1L;
 	private Long idPedido;
 	private String status;
+	private String idEvento;
+	private Instant ocorridoEm;
+
+	public EventoPagamentoDTO(Long idPedido, String status) {
+		this(idPedido, status, null, null);
+	}
 }
@@ -0,0 +1,27 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento publicado na exchange de pedidos quando um pedido é criado ou muda de status.
+ * {@code statusAnterior} só é preenchido em mudanças de status e {@code dataHoraRealizacaoPedido}
+ * só na criação.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EventoPedidoDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private Long idPedido;
+	private String status;
+	private String statusAnterior;
+	private LocalDateTime dataHoraRealizacaoPedido;
+	private LocalDateTime ocorridoEm;
+}
@@ -0,0 +1,23 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.time.LocalDateTime;
+
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionais da listagem e da exportação de pedidos.
+ * O intervalo de datas é fechado no início e aberto no fim.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FiltroPedidosDTO {
+	private StatusPedido status;
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+}
@@ -0,0 +1,23 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item de pedido lido por projeção, sem passar pelo contexto de persistência.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemPedidoDTO {
+	private Long pedidoId;
+	private Long id;
+	private String produto;
+	private Integer quantidade;
+	private BigDecimal precoUnitario;
+}
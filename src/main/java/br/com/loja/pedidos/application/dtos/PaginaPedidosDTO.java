@@ -0,0 +1,21 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.util.List;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página da listagem de pedidos. {@code proximoCursor} é nulo na última página.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaPedidosDTO {
+	private List<PedidoEntity> itens;
+	private String proximoCursor;
+}
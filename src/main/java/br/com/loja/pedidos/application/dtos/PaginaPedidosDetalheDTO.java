@@ -0,0 +1,20 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página da listagem de pedidos com os seus itens. {@code proximoCursor} é nulo na última página.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaPedidosDetalheDTO {
+	private List<PedidoDetalheDTO> itens;
+	private String proximoCursor;
+}
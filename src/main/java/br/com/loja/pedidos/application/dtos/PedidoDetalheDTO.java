@@ -0,0 +1,38 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido com os seus itens, para as visões de detalhe. {@code valorTotal} é a soma de
+ * quantidade × preço unitário dos itens.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PedidoDetalheDTO {
+	private Long id;
+	private String status;
+	private LocalDateTime dataHoraRealizacaoPedido;
+	private Long versao;
+	private LocalDateTime atualizadoEm;
+	private List<ItemPedidoDTO> itens;
+	private BigDecimal valorTotal;
+
+	public static PedidoDetalheDTO de(PedidoEntity pedido, List<ItemPedidoDTO> itens) {
+		BigDecimal valorTotal = BigDecimal.ZERO;
+		for (ItemPedidoDTO item : itens) {
+			valorTotal = valorTotal.add(item.getPrecoUnitario().multiply(BigDecimal.valueOf(item.getQuantidade())));
+		}
+		return new PedidoDetalheDTO(pedido.getId(), pedido.getStatus(), pedido.getDataHoraRealizacaoPedido(),
+				pedido.getVersao(), pedido.getAtualizadoEm(), itens, valorTotal);
+	}
+}
@@ -0,0 +1,23 @@
+package br.com.loja.pedidos.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da alteração de status de um pedido em {@code PUT /api/pedidos/status}.
+ * {@code resultado} vale {@code ATUALIZADO}, {@code REJEITADO} (transição não permitida a partir
+ * de {@code statusAnterior}) ou {@code NAO_ENCONTRADO}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResultadoStatusDTO {
+	private Long id;
+	private String resultado;
+	private String statusAnterior;
+	private String status;
+	private Long versao;
+}
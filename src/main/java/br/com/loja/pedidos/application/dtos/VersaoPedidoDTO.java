@@ -0,0 +1,26 @@
+package br.com.loja.pedidos.application.dtos;
+
+import java.time.LocalDateTime;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versão de um pedido e instante da sua última modificação, usados nas requisições condicionais.
+ * Sem alterações desde a criação, o instante é a data de realização do pedido.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersaoPedidoDTO {
+	private Long versao;
+	private LocalDateTime modificadoEm;
+
+	public static VersaoPedidoDTO de(PedidoEntity pedido) {
+		LocalDateTime atualizadoEm = pedido.getAtualizadoEm();
+		return new VersaoPedidoDTO(pedido.getVersao(),
+				atualizadoEm != null ? atualizadoEm : pedido.getDataHoraRealizacaoPedido());
+	}
+}
@@ -1,88 +1,491 @@
 package br.com.loja.pedidos.domain;
 
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.EstatisticasPedidosDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.ItemPedidoDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDetalheDTO;
+import br.com.loja.pedidos.application.dtos.PedidoDetalheDTO;
+import br.com.loja.pedidos.application.dtos.VersaoPedidoDTO;
+import br.com.loja.pedidos.domain.entities.ItemPedidoEntity;
 import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.cache.CachePedidos;
+import br.com.loja.pedidos.infra.cache.EstatisticasPedidos;
+import br.com.loja.pedidos.infra.cache.IndicePedidos;
+import br.com.loja.pedidos.infra.repositories.CarregadorPedidos;
+import br.com.loja.pedidos.infra.repositories.ItemPedidoRepository;
+import br.com.loja.pedidos.infra.repositories.PedidoExportacaoRepository;
 import br.com.loja.pedidos.infra.repositories.PedidoRepository;
+import br.com.loja.pedidos.infra.repositories.PedidoSpecifications;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Serviço responsável por conter as regras de negócio relacionadas aos pedidos.
  * Atua como camada intermediária entre os controladores e o repositório de dados.
  * 
  * Esta classe fornece funcionalidades para:
- * - Criar novos pedidos
- * - Listar todos os pedidos
- * - Buscar pedidos por ID
- * - Atualizar o status de pedidos existentes
+ * - Criar novos pedidos, com seus itens, individualmente ou em blocos
+ * - Listar pedidos em páginas por keyset, com ou sem os itens, e exportá-los em streaming
+ * - Consultar a contagem de pedidos por status e por dia
+ * - Buscar pedidos por ID, com ou sem os itens, e verificar a existência de vários pedidos de uma vez
+ * - Atualizar o status de pedidos existentes, individualmente ou em lote
  * 
- * Exceções são lançadas para sinalizar situações onde o pedido não é encontrado.
+ * Exceções são lançadas para sinalizar situações onde o pedido não é encontrado
+ * ou onde a transição de status não é permitida pela {@link StatusPedido}.
+ *
+ * Alterações relevantes são publicadas como eventos de aplicação (pacote {@code domain.events}),
+ * para que índices, caches e integrações reajam sem acoplar-se a este serviço.
+ *
+ * Cada método público é medido pelo timer {@code pedidos.dominio}, com as tags {@code method}
+ * e {@code exception}.
  */
 @Service
+@Timed(value = "pedidos.dominio", description = "Tempo de execução das operações de DomainServices")
 public class DomainServices {
 
+    /** Transições permitidas, pareadas por posição, no formato esperado pelo UPDATE em lote. */
+    private static final String[] ORIGENS_TRANSICOES;
+    private static final String[] DESTINOS_TRANSICOES;
+
+    static {
+        List<String> origens = new ArrayList<>();
+        List<String> destinos = new ArrayList<>();
+        for (StatusPedido origem : StatusPedido.values()) {
+            for (StatusPedido destino : origem.destinosPermitidos()) {
+                origens.add(origem.name());
+                destinos.add(destino.name());
+            }
+        }
+        ORIGENS_TRANSICOES = origens.toArray(new String[0]);
+        DESTINOS_TRANSICOES = destinos.toArray(new String[0]);
+    }
+
     private final PedidoRepository pedidoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final PedidoExportacaoRepository pedidoExportacaoRepository;
+    private final IndicePedidos indicePedidos;
+    private final CachePedidos cachePedidos;
+    private final CarregadorPedidos carregadorPedidos;
+    private final EstatisticasPedidos estatisticasPedidos;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Construtor que injeta o repositório de pedidos.
+     * Construtor que injeta os repositórios de pedidos.
      *
-     * @param pedidoRepository Instância do repositório que acessa a base de dados.
+     * @param pedidoRepository           Instância do repositório que acessa a base de dados.
+     * @param itemPedidoRepository       Repositório das consultas de itens de pedidos.
+     * @param pedidoExportacaoRepository Repositório de leitura por cursor usado nas exportações.
+     * @param indicePedidos              Índice em memória dos IDs existentes.
+     * @param cachePedidos               Cache de leitura de pedidos por ID.
+     * @param carregadorPedidos          Carga dos pedidos ausentes do cache, em lotes por ID.
+     * @param estatisticasPedidos        Contadores em memória de pedidos por status e por dia.
+     * @param eventPublisher             Publicador dos eventos de domínio.
      */
     @Autowired
-    public DomainServices(PedidoRepository pedidoRepository) {
+    public DomainServices(PedidoRepository pedidoRepository,
+                          ItemPedidoRepository itemPedidoRepository,
+                          PedidoExportacaoRepository pedidoExportacaoRepository,
+                          IndicePedidos indicePedidos,
+                          CachePedidos cachePedidos,
+                          CarregadorPedidos carregadorPedidos,
+                          EstatisticasPedidos estatisticasPedidos,
+                          ApplicationEventPublisher eventPublisher) {
         this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.pedidoExportacaoRepository = pedidoExportacaoRepository;
+        this.indicePedidos = indicePedidos;
+        this.cachePedidos = cachePedidos;
+        this.carregadorPedidos = carregadorPedidos;
+        this.estatisticasPedidos = estatisticasPedidos;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Cria e persiste um novo pedido no banco de dados.
+     * Pedidos sem status são criados como {@link StatusPedido#CRIADO} e pedidos sem data de
+     * realização recebem o instante atual. ID e versão informados pelo cliente são ignorados.
+     * Os itens são gravados em cascata, em lotes JDBC de {@code hibernate.jdbc.batch_size}.
      *
      * @param pedido Objeto {@link PedidoEntity} contendo as informações do pedido a ser salvo.
      * @return O objeto {@link PedidoEntity} persistido com ID gerado.
+     * @throws IllegalArgumentException Caso o status informado não seja um {@link StatusPedido} válido
+     *                                  ou algum item não tenha produto, quantidade positiva e preço.
      */
+    @Transactional
     public PedidoEntity criarPedido(PedidoEntity pedido) {
-        return pedidoRepository.save(pedido);
+        prepararNovoPedido(pedido);
+        PedidoEntity salvo = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(new PedidoCriadoEvent(salvo));
+        return salvo;
+    }
+
+    /**
+     * Cria e persiste um bloco de pedidos em uma única transação.
+     *
+     * Os status são validados antes de qualquer gravação, então um bloco com status inválido é
+     * rejeitado por inteiro. Status, data, itens, ID e versão seguem {@link #criarPedido(PedidoEntity)}.
+     * Os IDs vêm das sequências {@code pedido_seq} e {@code item_pedido_seq} em blocos
+     * pré-alocados, o que permite ao Hibernate enviar os INSERTs em lotes JDBC.
+     *
+     * @param pedidos Pedidos a serem criados.
+     * @return IDs gerados, na mesma ordem dos pedidos recebidos.
+     * @throws IllegalArgumentException Caso algum status ou item informado seja inválido.
+     */
+    @Transactional
+    public List<Long> criarPedidosEmLote(List<PedidoEntity> pedidos) {
+        for (PedidoEntity pedido : pedidos) {
+            prepararNovoPedido(pedido);
+        }
+        List<PedidoEntity> salvos = pedidoRepository.saveAll(pedidos);
+
+        List<Long> ids = new ArrayList<>(salvos.size());
+        for (PedidoEntity salvo : salvos) {
+            eventPublisher.publishEvent(new PedidoCriadoEvent(salvo));
+            ids.add(salvo.getId());
+        }
+        return ids;
     }
 
     /**
-     * Retorna a lista de todos os pedidos cadastrados no banco.
+     * Retorna uma página de pedidos ordenada por {@code (dataHoraRealizacaoPedido, id)}.
      *
-     * @return Lista de {@link PedidoEntity} contendo todos os pedidos encontrados.
+     * A paginação é por keyset: a página seguinte começa logo após a chave do último pedido
+     * retornado, então o custo de cada página não depende de quantas já foram lidas. Com apenas o
+     * período informado, a página vem de {@link PedidoRepository#buscarPorPeriodo}, que lê só as
+     * partições mensais do intervalo.
+     *
+     * @param filtro  Filtros de status e período.
+     * @param cursor  Posição após a qual a página começa; {@code null} para a primeira página.
+     * @param tamanho Quantidade máxima de pedidos na página.
+     * @return {@link PaginaPedidosDTO} com os pedidos e o cursor da próxima página, se houver.
      */
-    public List<PedidoEntity> listarPedidos() {
-        return pedidoRepository.findAll();
+    @Transactional(readOnly = true)
+    public PaginaPedidosDTO listarPedidos(FiltroPedidosDTO filtro, CursorPedidoDTO cursor, int tamanho) {
+        List<PedidoEntity> pedidos = isSoPeriodo(filtro)
+                ? pedidoRepository.buscarPorPeriodo(filtro.getInicio(), filtro.getFim(),
+                        cursor != null ? cursor.getDataHoraRealizacaoPedido() : filtro.getInicio(),
+                        cursor != null ? cursor.getId() : Long.MIN_VALUE, Limit.of(tamanho + 1))
+                : pedidoRepository.findBy(
+                        PedidoSpecifications.filtrarAposCursor(filtro, cursor),
+                        consulta -> consulta.sortBy(PedidoSpecifications.ORDEM_KEYSET).limit(tamanho + 1).all());
+
+        String proximoCursor = null;
+        if (pedidos.size() > tamanho) {
+            pedidos = pedidos.subList(0, tamanho);
+            PedidoEntity ultimo = pedidos.get(tamanho - 1);
+            proximoCursor = new CursorPedidoDTO(ultimo.getDataHoraRealizacaoPedido(), ultimo.getId()).codificar();
+        }
+        return new PaginaPedidosDTO(pedidos, proximoCursor);
     }
 
     /**
-     * Busca um pedido específico com base no seu ID.
+     * Conta os pedidos realizados em {@code [inicio, fim)}. Só as partições mensais do intervalo
+     * são lidas.
+     *
+     * @param inicio Início do período (inclusivo).
+     * @param fim    Fim do período (exclusivo).
+     * @return Quantidade de pedidos no período.
+     */
+    @Transactional(readOnly = true)
+    public long contarPedidos(LocalDateTime inicio, LocalDateTime fim) {
+        return pedidoRepository.contarPorPeriodo(inicio, fim);
+    }
+
+    private static boolean isSoPeriodo(FiltroPedidosDTO filtro) {
+        return filtro.getStatus() == null && filtro.getInicio() != null && filtro.getFim() != null;
+    }
+
+    /**
+     * Retorna uma página de pedidos como {@link #listarPedidos}, com os itens de cada pedido.
+     *
+     * Os itens de todos os pedidos da página são lidos com uma única consulta de projeção, então a
+     * página inteira custa duas consultas, qualquer que seja o seu tamanho.
+     *
+     * @param filtro  Filtros de status e período.
+     * @param cursor  Posição após a qual a página começa; {@code null} para a primeira página.
+     * @param tamanho Quantidade máxima de pedidos na página.
+     * @return {@link PaginaPedidosDetalheDTO} com os pedidos e o cursor da próxima página, se houver.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPedidosDetalheDTO listarDetalhesPedidos(FiltroPedidosDTO filtro, CursorPedidoDTO cursor, int tamanho) {
+        PaginaPedidosDTO pagina = listarPedidos(filtro, cursor, tamanho);
+        List<PedidoEntity> pedidos = pagina.getItens();
+
+        Map<Long, List<ItemPedidoDTO>> itensPorPedido = new HashMap<>();
+        if (!pedidos.isEmpty()) {
+            List<Long> ids = pedidos.stream().map(PedidoEntity::getId).toList();
+            for (ItemPedidoDTO item : itemPedidoRepository.buscarItens(ids)) {
+                itensPorPedido.computeIfAbsent(item.getPedidoId(), id -> new ArrayList<>()).add(item);
+            }
+        }
+        List<PedidoDetalheDTO> detalhes = new ArrayList<>(pedidos.size());
+        for (PedidoEntity pedido : pedidos) {
+            detalhes.add(PedidoDetalheDTO.de(pedido, itensPorPedido.getOrDefault(pedido.getId(), List.of())));
+        }
+        return new PaginaPedidosDetalheDTO(detalhes, pagina.getProximoCursor());
+    }
+
+    /**
+     * Percorre todos os pedidos que atendem ao filtro, na ordem da listagem, entregando-os um a um.
+     * A leitura usa um cursor JDBC e não acumula os pedidos em memória.
+     *
+     * @param filtro     Filtros de status e período.
+     * @param consumidor Função chamada para cada pedido lido.
+     */
+    @Transactional(readOnly = true)
+    public void exportarPedidos(FiltroPedidosDTO filtro, Consumer<PedidoEntity> consumidor) {
+        pedidoExportacaoRepository.percorrer(filtro, consumidor);
+    }
+
+    /**
+     * Retorna a contagem de pedidos por status atual, no total e por dia de realização em
+     * {@code [inicio, fim)}. A resposta vem dos contadores de {@link EstatisticasPedidos}, sem
+     * consultar o banco.
+     *
+     * @param inicio Primeiro dia do período (inclusivo).
+     * @param fim    Último dia do período (exclusivo).
+     * @return Vazio enquanto as estatísticas ainda não foram carregadas do banco.
+     */
+    public Optional<EstatisticasPedidosDTO> obterEstatisticas(LocalDate inicio, LocalDate fim) {
+        if (!estatisticasPedidos.isCarregado()) {
+            return Optional.empty();
+        }
+        return Optional.of(estatisticasPedidos.consultar(inicio, fim));
+    }
+
+    /**
+     * Busca um pedido específico com base no seu ID, passando pelo {@link CachePedidos}.
+     * Buscas simultâneas do mesmo ID fazem uma só leitura, e as de IDs diferentes que faltam no cache
+     * são juntadas pelo {@link CarregadorPedidos} em uma consulta.
+     * O pedido retornado pode ser compartilhado com outras leituras e não deve ser alterado.
      *
      * @param id Identificador único do pedido.
      * @return Objeto {@link PedidoEntity} correspondente ao ID informado.
      * @throws EntityNotFoundException Caso o pedido não seja encontrado no banco.
      */
     public PedidoEntity buscaPedidoPorId(Long id) {
-        return pedidoRepository.findById(id)
+        return cachePedidos.buscar(id, carregadorPedidos::buscar)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado com ID: " + id));
     }
 
+    /**
+     * Busca um pedido com os seus itens. O pedido vem de {@link #buscaPedidoPorId(Long)} e os itens
+     * de uma consulta de projeção.
+     *
+     * @param id Identificador único do pedido.
+     * @return {@link PedidoDetalheDTO} do pedido.
+     * @throws EntityNotFoundException Caso o pedido não seja encontrado no banco.
+     */
+    @Transactional(readOnly = true)
+    public PedidoDetalheDTO buscarDetalhePedido(Long id) {
+        PedidoEntity pedido = buscaPedidoPorId(id);
+        return PedidoDetalheDTO.de(pedido, itemPedidoRepository.buscarItens(List.of(id)));
+    }
+
+    /**
+     * Retorna a versão atual de um pedido sem carregar a entidade: do {@link CachePedidos}, se o
+     * pedido estiver nele, ou de uma consulta que lê apenas a versão e a data de modificação.
+     *
+     * @param id Identificador único do pedido.
+     * @return Vazio se o pedido não existir.
+     */
+    public Optional<VersaoPedidoDTO> buscarVersaoPedido(Long id) {
+        Optional<PedidoEntity> emCache = cachePedidos.buscarSePresente(id);
+        if (emCache.isPresent()) {
+            return emCache.map(VersaoPedidoDTO::de);
+        }
+        return pedidoRepository.buscarVersao(id);
+    }
+
+    /**
+     * Verifica se existe um pedido com o ID informado.
+     * A resposta vem do {@link IndicePedidos}; o banco só é consultado enquanto o índice não está
+     * carregado ou quando ele não é autoritativo para ausências.
+     *
+     * @param id Identificador do pedido.
+     * @return {@code true} se o pedido existir.
+     */
+    public boolean existePedido(Long id) {
+        return switch (indicePedidos.consultar(id)) {
+            case PRESENTE -> true;
+            case AUSENTE -> false;
+            case DESCONHECIDO -> confirmarNoBanco(List.of(id)).contains(id);
+        };
+    }
+
+    /**
+     * Verifica quais dos IDs informados correspondem a pedidos cadastrados.
+     * Os IDs que o {@link IndicePedidos} não sabe responder são resolvidos com uma única consulta
+     * ao banco, sem carregar as entidades.
+     *
+     * @param ids IDs a verificar; repetições são aceitas.
+     * @return Conjunto com os IDs que existem.
+     */
+    public Set<Long> buscarIdsExistentes(Collection<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        List<Long> desconhecidos = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            switch (indicePedidos.consultar(id)) {
+                case PRESENTE -> existentes.add(id);
+                case DESCONHECIDO -> desconhecidos.add(id);
+                case AUSENTE -> { }
+            }
+        }
+        if (!desconhecidos.isEmpty()) {
+            existentes.addAll(confirmarNoBanco(desconhecidos));
+        }
+        return existentes;
+    }
+
+    private List<Long> confirmarNoBanco(List<Long> ids) {
+        List<Long> encontrados = pedidoRepository.buscarIdsExistentes(ids.toArray(new Long[0]));
+        encontrados.forEach(indicePedidos::adicionar);
+        return encontrados;
+    }
+
     /**
      * Atualiza o status de um pedido previamente cadastrado.
      *
+     * A transição é feita com um único UPDATE condicional: o pedido só é alterado se o status
+     * atual for uma origem permitida para {@code novoStatus}. Atualizações concorrentes no mesmo
+     * pedido não se sobrescrevem, pois cada uma é reavaliada contra o status já gravado.
+     *
      * @param idPedido   Identificador único do pedido a ser atualizado.
      * @param novoStatus Novo status que será atribuído ao pedido (ex: "APROVADO", "CANCELADO", etc.).
      * @return Objeto {@link PedidoEntity} com o status atualizado.
-     * @throws RuntimeException Caso o pedido com o ID informado não seja encontrado.
+     * @throws IllegalArgumentException         Caso {@code novoStatus} não seja um {@link StatusPedido} válido.
+     * @throws TransicaoStatusInvalidaException Caso o status atual não permita a transição.
+     * @throws EntityNotFoundException          Caso o pedido com o ID informado não seja encontrado.
      */
+    @Transactional
     public PedidoEntity atualizarStatus(Long idPedido, String novoStatus) {
-        Optional<PedidoEntity> pedidoOptional = pedidoRepository.findById(idPedido);
-        if (pedidoOptional.isPresent()) {
-            PedidoEntity pedido = pedidoOptional.get();
-            pedido.setStatus(novoStatus);
-            return pedidoRepository.save(pedido);
-        } else {
-            throw new RuntimeException("Pedido com ID " + idPedido + " não encontrado.");
+        StatusPedido destino = StatusPedido.de(novoStatus);
+        TransicaoStatusProjecao transicao = transicionarStatus(idPedido, destino)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido com ID " + idPedido + " não encontrado."));
+
+        if (!transicao.isAtualizado()) {
+            throw new TransicaoStatusInvalidaException(idPedido, transicao.getStatusAnterior(), destino);
+        }
+
+        return PedidoEntity.builder()
+                .id(transicao.getId())
+                .status(destino.name())
+                .dataHoraRealizacaoPedido(transicao.getDataHoraRealizacaoPedido())
+                .versao(transicao.getVersao())
+                .atualizadoEm(transicao.getAtualizadoEm())
+                .build();
+    }
+
+    /**
+     * Aplica a transição de {@link #atualizarStatus(Long, String)}, mas informa uma transição não
+     * permitida no resultado em vez de lançar exceção. Assim o chamador pode confirmar o que gravou
+     * na mesma transação mesmo quando o pedido não muda, como no consumo em lotes.
+     *
+     * @param idPedido Identificador do pedido.
+     * @param destino  Novo status.
+     * @return A transição, com {@code resultado} {@code ATUALIZADO} ou {@code REJEITADO}; vazio se o
+     *         pedido não existe.
+     */
+    @Transactional
+    public Optional<TransicaoStatusProjecao> transicionarStatus(Long idPedido, StatusPedido destino) {
+        Optional<TransicaoStatusProjecao> transicao =
+                pedidoRepository.transicionarStatus(idPedido, destino.name(), nomes(destino.origensPermitidas()));
+        transicao.filter(TransicaoStatusProjecao::isAtualizado).ifPresent(aplicada -> eventPublisher.publishEvent(
+                new StatusPedidoAlteradoEvent(idPedido, aplicada.getStatusAnterior(), destino,
+                        aplicada.getDataHoraRealizacaoPedido())));
+        return transicao;
+    }
+
+    /**
+     * Transiciona o status de vários pedidos com um único comando SQL, dentro de uma transação.
+     * Cada pedido segue as mesmas regras de {@link #atualizarStatus(Long, String)}; pedidos
+     * inexistentes ou com transição não permitida são apenas reportados no resultado.
+     *
+     * @param statusPorPedido Mapa de ID do pedido para o novo status.
+     * @return Uma {@link TransicaoStatusProjecao} por pedido recebido.
+     */
+    @Transactional
+    public List<TransicaoStatusProjecao> atualizarStatusEmLote(Map<Long, StatusPedido> statusPorPedido) {
+        if (statusPorPedido.isEmpty()) {
+            return List.of();
+        }
+        Long[] ids = statusPorPedido.keySet().toArray(new Long[0]);
+        String[] status = nomes(statusPorPedido.values());
+        List<TransicaoStatusProjecao> resultados =
+                pedidoRepository.transicionarStatusEmLote(ids, status, ORIGENS_TRANSICOES, DESTINOS_TRANSICOES);
+
+        for (TransicaoStatusProjecao resultado : resultados) {
+            if (resultado.isAtualizado()) {
+                eventPublisher.publishEvent(new StatusPedidoAlteradoEvent(
+                        resultado.getId(), resultado.getStatusAnterior(), StatusPedido.de(resultado.getStatusNovo()),
+                        resultado.getDataHoraRealizacaoPedido()));
+            }
         }
+        return resultados;
+    }
+
+    /**
+     * ID e versão vêm do banco. A data é a chave de partição da tabela {@code pedido} e não pode
+     * ser nula.
+     */
+    private static void prepararNovoPedido(PedidoEntity pedido) {
+        if (pedido.getItens() == null) {
+            pedido.setItens(new ArrayList<>());
+        }
+        for (ItemPedidoEntity item : pedido.getItens()) {
+            validarItem(item);
+            item.setId(null);
+            item.setPedidoId(null);
+        }
+        pedido.setId(null);
+        pedido.setVersao(null);
+        pedido.setAtualizadoEm(null);
+        pedido.setStatus(pedido.getStatus() == null
+                ? StatusPedido.CRIADO.name()
+                : StatusPedido.de(pedido.getStatus()).name());
+        if (pedido.getDataHoraRealizacaoPedido() == null) {
+            pedido.setDataHoraRealizacaoPedido(LocalDateTime.now());
+        }
+    }
+
+    private static void validarItem(ItemPedidoEntity item) {
+        if (item == null || item.getProduto() == null || item.getProduto().isBlank()) {
+            throw new IllegalArgumentException("Item de pedido sem produto");
+        }
+        if (item.getQuantidade() == null || item.getQuantidade() <= 0) {
+            throw new IllegalArgumentException("Quantidade inválida para o produto " + item.getProduto());
+        }
+        if (item.getPrecoUnitario() == null || item.getPrecoUnitario().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Preço unitário inválido para o produto " + item.getProduto());
+        }
+    }
+
+    private static String[] nomes(Collection<StatusPedido> status) {
+        return status.stream().map(StatusPedido::name).toArray(String[]::new);
     }
 }
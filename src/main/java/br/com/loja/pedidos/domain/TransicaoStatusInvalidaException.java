@@ -0,0 +1,23 @@
+package br.com.loja.pedidos.domain;
+
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import lombok.Getter;
+
+/**
+ * Lançada quando o status atual do pedido não permite a transição solicitada.
+ */
+@Getter
+public class TransicaoStatusInvalidaException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Long idPedido;
+    private final String statusAtual;
+    private final StatusPedido statusSolicitado;
+
+    public TransicaoStatusInvalidaException(Long idPedido, String statusAtual, StatusPedido statusSolicitado) {
+        super("Pedido com ID " + idPedido + " não pode passar de " + statusAtual + " para " + statusSolicitado + ".");
+        this.idPedido = idPedido;
+        this.statusAtual = statusAtual;
+        this.statusSolicitado = statusSolicitado;
+    }
+}
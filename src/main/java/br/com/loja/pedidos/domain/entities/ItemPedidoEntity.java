@@ -0,0 +1,44 @@
+package br.com.loja.pedidos.domain.entities;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item de um pedido. Pertence ao agregado {@link PedidoEntity}: é gravado e removido junto com o
+ * pedido, pela coleção {@link PedidoEntity#getItens()}.
+ */
+@Entity
+@Table(name = "item_pedido")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemPedidoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_pedido_seq")
+    @SequenceGenerator(name = "item_pedido_seq", sequenceName = "item_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    /** Preenchido pelo pedido na gravação; exposto apenas para consultas. */
+    @Column(name = "pedido_id", insertable = false, updatable = false)
+    private Long pedidoId;
+
+    private String produto;
+
+    private Integer quantidade;
+
+    private BigDecimal precoUnitario;
+}
@@ -1,21 +1,32 @@
 package br.com.loja.pedidos.domain.entities;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "pedido")
@@ -26,10 +37,45 @@ import lombok.NoArgsConstructor;
 public class PedidoEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     private Long id;
 
     private String status;
     
+    @Builder.Default
     private LocalDateTime dataHoraRealizacaoPedido = LocalDateTime.now();
+
+    /**
+     * Incrementada a cada alteração de status, inclusive pelos UPDATEs nativos do
+     * {@code PedidoRepository}. Identifica a representação do pedido nos ETags.
+     */
+    @Version
+    private Long versao;
+
+    /** Instante da última alteração; nulo enquanto o pedido não foi alterado desde a criação. */
+    private LocalDateTime atualizadoEm;
+
+    /**
+     * Itens do pedido, gravados em cascata com ele. A coleção é carregada sob demanda e, dentro de
+     * uma transação, as coleções de até 50 pedidos do contexto são lidas com uma única consulta.
+     *
+     * Os itens são aceitos na criação, mas não fazem parte da representação do pedido (JSON,
+     * protobuf, cache, eventos): a leitura é feita pelas projeções de {@code DomainServices}, sem
+     * carregar a coleção.
+     */
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false, updatable = false)
+    @OrderBy("id")
+    @BatchSize(size = 50)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private List<ItemPedidoEntity> itens = new ArrayList<>();
+
+    public PedidoEntity(Long id, String status, LocalDateTime dataHoraRealizacaoPedido, Long versao,
+                        LocalDateTime atualizadoEm) {
+        this(id, status, dataHoraRealizacaoPedido, versao, atualizadoEm, new ArrayList<>());
+    }
 }
@@ -0,0 +1,83 @@
+package br.com.loja.pedidos.domain.entities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Máquina de estados do pedido.
+ *
+ * Cada status conhece os status para os quais pode transicionar. A tabela de transições é usada
+ * pelo {@code DomainServices} para montar o UPDATE condicional que só altera o pedido quando o
+ * status atual é uma origem permitida para o status de destino.
+ *
+ * Pedidos gravados antes da máquina de estados, sem status, são tratados como {@link #CRIADO}.
+ */
+public enum StatusPedido {
+    CRIADO,
+    PAGO,
+    APROVADO,
+    RECUSADO,
+    CANCELADO,
+    ENVIADO,
+    ENTREGUE;
+
+    private static final Map<StatusPedido, Set<StatusPedido>> DESTINOS = new EnumMap<>(StatusPedido.class);
+    private static final Map<StatusPedido, Set<StatusPedido>> ORIGENS = new EnumMap<>(StatusPedido.class);
+
+    static {
+        DESTINOS.put(CRIADO, EnumSet.of(PAGO, APROVADO, RECUSADO, CANCELADO));
+        DESTINOS.put(PAGO, EnumSet.of(APROVADO, RECUSADO, CANCELADO, ENVIADO));
+        DESTINOS.put(APROVADO, EnumSet.of(ENVIADO, CANCELADO));
+        DESTINOS.put(RECUSADO, EnumSet.of(PAGO, APROVADO, CANCELADO));
+        DESTINOS.put(CANCELADO, EnumSet.noneOf(StatusPedido.class));
+        DESTINOS.put(ENVIADO, EnumSet.of(ENTREGUE));
+        DESTINOS.put(ENTREGUE, EnumSet.noneOf(StatusPedido.class));
+
+        for (StatusPedido status : values()) {
+            ORIGENS.put(status, EnumSet.noneOf(StatusPedido.class));
+        }
+        DESTINOS.forEach((origem, destinos) -> destinos.forEach(destino -> ORIGENS.get(destino).add(origem)));
+    }
+
+    /**
+     * @return Status para os quais um pedido neste status pode ir.
+     */
+    public Set<StatusPedido> destinosPermitidos() {
+        return Collections.unmodifiableSet(DESTINOS.get(this));
+    }
+
+    /**
+     * @return Status a partir dos quais um pedido pode chegar a este status.
+     */
+    public Set<StatusPedido> origensPermitidas() {
+        return Collections.unmodifiableSet(ORIGENS.get(this));
+    }
+
+    public boolean podeTransicionarPara(StatusPedido destino) {
+        return DESTINOS.get(this).contains(destino);
+    }
+
+    /**
+     * Converte o texto recebido pela API ou pela fila em um status, ignorando caixa e espaços.
+     *
+     * @param valor Nome do status.
+     * @return O {@link StatusPedido} correspondente.
+     * @throws IllegalArgumentException Caso o valor seja nulo ou não corresponda a nenhum status.
+     */
+    public static StatusPedido de(String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Status do pedido não informado.");
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status de pedido inválido: " + valor
+                    + ". Valores aceitos: " + Arrays.toString(values()));
+        }
+    }
+}
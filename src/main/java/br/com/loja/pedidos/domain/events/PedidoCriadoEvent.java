@@ -0,0 +1,14 @@
+package br.com.loja.pedidos.domain.events;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import lombok.Value;
+
+/**
+ * Publicado pelo {@code DomainServices} quando um pedido é criado.
+ * Ouvintes interessados apenas no que foi efetivado devem usar
+ * {@code @TransactionalEventListener}, que entrega o evento após o commit.
+ */
+@Value
+public class PedidoCriadoEvent {
+    PedidoEntity pedido;
+}
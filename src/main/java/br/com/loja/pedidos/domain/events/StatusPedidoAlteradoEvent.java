@@ -0,0 +1,18 @@
+package br.com.loja.pedidos.domain.events;
+
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado pelo {@code DomainServices}, dentro da transação, para cada pedido cujo status foi alterado.
+ * {@code statusAnterior} pode ser nulo para pedidos gravados antes da máquina de estados.
+ */
+@Value
+public class StatusPedidoAlteradoEvent {
+    Long idPedido;
+    String statusAnterior;
+    StatusPedido statusNovo;
+    LocalDateTime dataHoraRealizacaoPedido;
+}
@@ -0,0 +1,78 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Registra um container de consumo por partição da fila de pagamentos, todos chamando o
+ * {@link PagamentoListener}.
+ *
+ * Faz o papel do {@code @RabbitListener}, que cria um único container para todas as filas
+ * informadas: com um consumidor ele processaria as partições em série, e com vários perderia a
+ * ordem por pedido. Aqui cada partição tem o próprio container, com um consumidor, e a
+ * quantidade de partições vem de {@code pedidos.pagamento.particoes.quantidade}.
+ *
+ * Com {@code pedidos.pagamento.lote.habilitado=true} as partições são consumidas em lotes por
+ * {@link PagamentoListener#receberLote(List)}; caso contrário, mensagem a mensagem por
+ * {@link PagamentoListener#receberPedido(EventoPagamentoDTO, Date)}.
+ */
+@Component
+public class ConsumidoresPagamento implements RabbitListenerConfigurer {
+
+    private final PagamentoListener listener;
+    private final SimpleRabbitListenerContainerFactory particaoFactory;
+    private final SimpleRabbitListenerContainerFactory loteFactory;
+    private final BeanFactory beanFactory;
+    private final int quantidade;
+    private final boolean lote;
+
+    public ConsumidoresPagamento(PagamentoListener listener,
+                                 @Qualifier(RabbitConfig.PARTICAO_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory particaoFactory,
+                                 @Qualifier(RabbitConfig.LOTE_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory loteFactory,
+                                 BeanFactory beanFactory,
+                                 @Value("${pedidos.pagamento.particoes.quantidade:8}") int quantidade,
+                                 @Value("${pedidos.pagamento.lote.habilitado:false}") boolean lote) {
+        this.listener = listener;
+        this.particaoFactory = particaoFactory;
+        this.loteFactory = loteFactory;
+        this.beanFactory = beanFactory;
+        this.quantidade = quantidade;
+        this.lote = lote;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory fabricaMetodos = new DefaultMessageHandlerMethodFactory();
+        fabricaMetodos.setBeanFactory(beanFactory);
+        fabricaMetodos.afterPropertiesSet();
+        Method metodo = lote
+                ? ReflectionUtils.findMethod(PagamentoListener.class, "receberLote", List.class)
+                : ReflectionUtils.findMethod(PagamentoListener.class, "receberPedido", EventoPagamentoDTO.class, Date.class);
+
+        for (int particao = 0; particao < quantidade; particao++) {
+            MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+            endpoint.setId("pagamento-particao-" + particao);
+            endpoint.setQueueNames(RabbitConfig.nomeFilaParticao(particao));
+            endpoint.setBean(listener);
+            endpoint.setMethod(metodo);
+            endpoint.setMessageHandlerMethodFactory(fabricaMetodos);
+            endpoint.setBatchListener(lote);
+            endpoint.setBeanFactory(beanFactory);
+            registrar.registerEndpoint(endpoint, lote ? loteFactory : particaoFactory);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import br.com.loja.pedidos.infra.repositories.UltimoEventoPagamentoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Descarta eventos de pagamento repetidos ou antigos antes que cheguem ao banco.
+ *
+ * Cada pedido tem no máximo um "último evento aplicado". Os eventos são ordenados por
+ * {@code (ocorridoEm, idEvento)}, e um evento é descartado se não vier depois do último aplicado
+ * nessa ordem; na prática, reentregas do RabbitMQ, publicações duplicadas e eventos que chegam
+ * fora de ordem. O ID desempata eventos do mesmo instante, de modo que, entre dois eventos
+ * distintos, sempre exatamente um é o posterior e a reentrega do outro é descartada. A verificação é feita primeiro em
+ * uma janela em memória, limitada por tamanho e por tempo, e depois na tabela
+ * {@code ultimo_evento_pagamento}, que vale para todas as instâncias e sobrevive a reinícios.
+ *
+ * A cada {@code pedidos.pagamento.deduplicacao.expurgo-ms}, os registros com eventos ocorridos há
+ * mais de {@code retencao} são apagados da tabela. A retenção deve ser maior que o tempo máximo em
+ * que um evento ainda pode ser reentregue: um evento mais antigo que ela volta a ser aceito.
+ *
+ * Os descartes são contados em {@code pedidos.pagamento.descartados}, com a tag {@code origem}
+ * indicando se foram detectados na memória ou no banco.
+ */
+@Slf4j
+@Component
+public class DeduplicadorEventosPagamento {
+
+    private static final int TAMANHO_BLOCO_EXPURGO = 10_000;
+
+    private final UltimoEventoPagamentoRepository ultimoEventoPagamentoRepository;
+    private final Cache<Long, EventoPagamentoDTO> janela;
+    private final Counter descartadosMemoria;
+    private final Counter descartadosBanco;
+    private final Duration retencao;
+
+    public DeduplicadorEventosPagamento(UltimoEventoPagamentoRepository ultimoEventoPagamentoRepository,
+                                        @Value("${pedidos.pagamento.deduplicacao.tamanho-maximo:100000}") long tamanhoMaximo,
+                                        @Value("${pedidos.pagamento.deduplicacao.janela:PT1H}") Duration duracaoJanela,
+                                        @Value("${pedidos.pagamento.deduplicacao.retencao:P7D}") Duration retencao,
+                                        MeterRegistry meterRegistry) {
+        this.ultimoEventoPagamentoRepository = ultimoEventoPagamentoRepository;
+        this.retencao = retencao;
+        this.janela = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(duracaoJanela)
+                .build();
+        this.descartadosMemoria = contador(meterRegistry, "memoria");
+        this.descartadosBanco = contador(meterRegistry, "banco");
+    }
+
+    /**
+     * @return {@code true} se o evento traz ID e instante, e portanto pode ser deduplicado.
+     */
+    public static boolean isRastreavel(EventoPagamentoDTO evento) {
+        return evento.getIdEvento() != null && evento.getOcorridoEm() != null;
+    }
+
+    /**
+     * Consulta apenas a janela em memória.
+     *
+     * @return {@code true} se o evento já foi superado pelo último aplicado ao pedido.
+     */
+    public boolean isDescartavel(EventoPagamentoDTO evento) {
+        if (!isRastreavel(evento)) {
+            return false;
+        }
+        EventoPagamentoDTO ultimo = janela.getIfPresent(evento.getIdPedido());
+        if (ultimo != null && !isPosterior(evento, ultimo)) {
+            descartadosMemoria.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registra os eventos no banco, na transação corrente, como últimos aplicados aos seus pedidos.
+     * Deve haver no máximo um evento por pedido.
+     *
+     * @return IDs dos pedidos cujos eventos devem ser aplicados; eventos sem ID ou instante são
+     *         sempre aceitos.
+     */
+    public Set<Long> registrar(Collection<EventoPagamentoDTO> eventos) {
+        List<EventoPagamentoDTO> rastreaveis = eventos.stream()
+                .filter(DeduplicadorEventosPagamento::isRastreavel)
+                .toList();
+        Set<Long> aceitos = new HashSet<>();
+        if (!rastreaveis.isEmpty()) {
+            aceitos.addAll(ultimoEventoPagamentoRepository.registrar(rastreaveis));
+        }
+        descartadosBanco.increment(rastreaveis.size() - aceitos.size());
+        for (EventoPagamentoDTO evento : eventos) {
+            if (!isRastreavel(evento)) {
+                aceitos.add(evento.getIdPedido());
+            }
+        }
+        return aceitos;
+    }
+
+    /**
+     * Guarda o evento na janela em memória, se for mais recente que o já guardado para o pedido.
+     * Deve ser chamado depois do commit que aplicou o evento.
+     */
+    public void lembrar(EventoPagamentoDTO evento) {
+        if (isRastreavel(evento)) {
+            janela.asMap().merge(evento.getIdPedido(), evento,
+                    (atual, novo) -> isPosterior(novo, atual) ? novo : atual);
+        }
+    }
+
+    /**
+     * Apaga os registros de eventos mais antigos que a retenção, em blocos.
+     */
+    @Scheduled(initialDelayString = "${pedidos.pagamento.deduplicacao.expurgo-ms:3600000}",
+            fixedDelayString = "${pedidos.pagamento.deduplicacao.expurgo-ms:3600000}")
+    public void expurgar() {
+        Instant limite = Instant.now().minus(retencao);
+        try {
+            int removidos = 0;
+            int bloco;
+            do {
+                bloco = ultimoEventoPagamentoRepository.removerAnteriores(limite, TAMANHO_BLOCO_EXPURGO);
+                removidos += bloco;
+            } while (bloco == TAMANHO_BLOCO_EXPURGO);
+            log.info("Expurgo de eventos de pagamento anteriores a {}: {} registros removidos.", limite, removidos);
+        } catch (DataAccessException e) {
+            log.warn("Falha no expurgo de eventos de pagamento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mesma ordem do UPDATE em {@link UltimoEventoPagamentoRepository#registrar(Collection)}:
+     * {@code (ocorridoEm, idEvento)} comparados em sequência.
+     */
+    static boolean isPosterior(EventoPagamentoDTO evento, EventoPagamentoDTO ultimo) {
+        int comparacao = evento.getOcorridoEm().compareTo(ultimo.getOcorridoEm());
+        return comparacao > 0 || (comparacao == 0 && evento.getIdEvento().compareTo(ultimo.getIdEvento()) > 0);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String origem) {
+        return Counter.builder("pedidos.pagamento.descartados")
+                .description("Eventos de pagamento descartados por serem repetidos ou antigos")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+}
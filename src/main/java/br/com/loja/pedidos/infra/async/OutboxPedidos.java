@@ -0,0 +1,98 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.application.dtos.EventoPedidoDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import br.com.loja.pedidos.infra.repositories.OutboxRepository;
+import br.com.loja.pedidos.infra.repositories.RegistroOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava os eventos de pedido na tabela {@code outbox_pedido}, na mesma transação da alteração.
+ *
+ * Os eventos de domínio são recebidos dentro da transação e acumulados; a gravação é feita em um
+ * único lote JDBC logo antes do commit, de modo que criar mil pedidos em lote gera um INSERT em
+ * lote no outbox, não mil. Se a transação for desfeita, os eventos somem com ela. A publicação no
+ * RabbitMQ fica a cargo do {@link RelayOutboxPedidos}.
+ */
+@Component
+public class OutboxPedidos {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectWriter eventoWriter;
+
+    public OutboxPedidos(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.eventoWriter = objectMapper.writerFor(EventoPedidoDTO.class);
+    }
+
+    @EventListener
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        PedidoEntity pedido = evento.getPedido();
+        registrar(RabbitConfig.ROUTING_KEY_PEDIDO_CRIADO, EventoPedidoDTO.builder()
+                .idPedido(pedido.getId())
+                .status(pedido.getStatus())
+                .dataHoraRealizacaoPedido(pedido.getDataHoraRealizacaoPedido())
+                .ocorridoEm(LocalDateTime.now())
+                .build());
+    }
+
+    @EventListener
+    public void aoAlterarStatus(StatusPedidoAlteradoEvent evento) {
+        registrar(RabbitConfig.ROUTING_KEY_STATUS_ALTERADO, EventoPedidoDTO.builder()
+                .idPedido(evento.getIdPedido())
+                .status(evento.getStatusNovo().name())
+                .statusAnterior(evento.getStatusAnterior())
+                .ocorridoEm(LocalDateTime.now())
+                .build());
+    }
+
+    private void registrar(String routingKey, EventoPedidoDTO evento) {
+        RegistroOutbox registro;
+        try {
+            registro = new RegistroOutbox(null, routingKey, eventoWriter.writeValueAsString(evento), null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento do pedido " + evento.getIdPedido(), e);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.inserir(List.of(registro));
+            return;
+        }
+        pendentesDaTransacao().add(registro);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RegistroOutbox> pendentesDaTransacao() {
+        List<RegistroOutbox> pendentes = (List<RegistroOutbox>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes != null) {
+            return pendentes;
+        }
+        List<RegistroOutbox> novos = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, novos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                outboxRepository.inserir(novos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxPedidos.this);
+            }
+        });
+        return novos;
+    }
+}
@@ -1,12 +1,31 @@
 package br.com.loja.pedidos.infra.async;
 
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
 import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
+import br.com.loja.pedidos.infra.configurations.Correlacao;
 import br.com.loja.pedidos.infra.configurations.RabbitConfig;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 
 /**
  * Componente responsável por escutar mensagens da fila RabbitMQ relacionadas a pagamentos.
@@ -14,25 +33,172 @@ import lombok.AllArgsConstructor;
  * Ao receber uma mensagem com os dados do pagamento, o listener atualiza o status do pedido
  * correspondente utilizando o serviço de domínio {@link DomainServices}.
  * 
- * A fila escutada é definida pela constante {@code QUEUE_NAME} da classe {@link RabbitConfig}.
+ * A fila {@code QUEUE_NAME} da classe {@link RabbitConfig} é repartida por pedido pelo
+ * {@link RoteadorPagamentos}, e o {@link ConsumidoresPagamento} liga cada partição a este listener
+ * com um único consumidor: eventos do mesmo pedido chegam aqui um de cada vez e na ordem da fila.
+ * Com {@code pedidos.pagamento.lote.habilitado=true} as partições passam a ser consumidas em lotes
+ * por {@link #receberLote(List)} e o consumo mensagem a mensagem fica desligado.
+ *
+ * O tempo de processamento de cada entrega é medido pelo próprio container
+ * ({@code spring.rabbitmq.listener}). Este listener mede o atraso de ponta a ponta
+ * ({@code pedidos.pagamento.atraso}), entre a publicação da mensagem, informada pelo publicador
+ * na propriedade {@code timestamp}, e o fim do seu processamento. Mensagens sem {@code timestamp}
+ * não entram na medição.
+ *
+ * Eventos com {@code idEvento} e {@code ocorridoEm} passam pelo {@link DeduplicadorEventosPagamento}:
+ * repetidos ou mais antigos que o último aplicado ao pedido são descartados, na maioria das vezes
+ * sem consultar o banco. O registro do evento e a alteração de status são gravados na mesma
+ * transação, que é confirmada também quando o pedido não existe ou a transição é recusada: nos dois
+ * modos de consumo, um evento recusado não é reavaliado ao ser reentregue.
  */
+@Slf4j
 @Component
-@AllArgsConstructor
 public class PagamentoListener {
 
     /** Serviço de domínio usado para manipulação de pedidos. */
 	private final DomainServices domainServices;
 
+    private final DeduplicadorEventosPagamento deduplicador;
+    private final TransactionTemplate transacao;
+    private final Timer atraso;
+
+    /**
+     * @param domainServices     Serviço de domínio usado para manipulação de pedidos.
+     * @param deduplicador       Filtro de eventos repetidos ou antigos.
+     * @param transactionManager Gerenciador da transação que registra e aplica os eventos.
+     * @param meterRegistry      Registro onde o atraso de ponta a ponta é publicado.
+     */
+    public PagamentoListener(DomainServices domainServices, DeduplicadorEventosPagamento deduplicador,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.domainServices = domainServices;
+        this.deduplicador = deduplicador;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.atraso = Timer.builder("pedidos.pagamento.atraso")
+                .description("Tempo entre a publicação do evento de pagamento e o fim do seu processamento")
+                .tag("fila", RabbitConfig.QUEUE_NAME)
+                .register(meterRegistry);
+    }
+
     /**
-     * Método que escuta a fila de pagamentos no RabbitMQ.
+     * Método que escuta uma partição da fila de pagamentos no RabbitMQ.
      * Ao receber uma mensagem contendo o ID do pedido e o novo status, 
      * o método atualiza o status do pedido correspondente.
+     * Eventos com status inválido, de pedido inexistente ou com transição não permitida são
+     * registrados e descartados, já que reprocessá-los não mudaria o resultado e, com um único
+     * consumidor por partição, a reentrega travaria os demais pedidos da partição, como no consumo
+     * em lotes. Eventos repetidos ou antigos são descartados
+     * sem alterar o pedido. O {@code idEvento}, quando válido, é o ID de {@link Correlacao} dos logs
+     * do processamento.
+     *
+     * @param mensagem    Objeto {@link EventoPagamentoDTO} recebido da fila contendo o ID do pedido e seu novo status.
+     * @param publicadoEm Momento da publicação, quando informado pelo publicador.
+     */
+    public void receberPedido(EventoPagamentoDTO mensagem,
+                              @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date publicadoEm) {
+        try (MDC.MDCCloseable escopo = Correlacao.usar(Correlacao.normalizar(mensagem.getIdEvento()))) {
+            aplicar(mensagem);
+        }
+        registrarAtraso(publicadoEm, Instant.now());
+    }
+
+    private void aplicar(EventoPagamentoDTO mensagem) {
+        log.debug("Evento de pagamento recebido: {}", mensagem);
+        StatusPedido destino;
+        try {
+            destino = StatusPedido.de(mensagem.getStatus());
+        } catch (IllegalArgumentException e) {
+            log.warn("Evento de pagamento descartado para o pedido ID {}: {}", mensagem.getIdPedido(), e.getMessage());
+            deduplicador.lembrar(mensagem);
+            return;
+        }
+        if (deduplicador.isDescartavel(mensagem)) {
+            log.debug("Evento de pagamento repetido ou antigo descartado: {}", mensagem);
+            return;
+        }
+        transacao.executeWithoutResult(status -> {
+            if (deduplicador.registrar(List.of(mensagem)).isEmpty()) {
+                log.debug("Evento de pagamento repetido ou antigo descartado: {}", mensagem);
+                return;
+            }
+            Optional<TransicaoStatusProjecao> transicao =
+                    domainServices.transicionarStatus(mensagem.getIdPedido(), destino);
+            if (transicao.isEmpty()) {
+                log.warn("Evento de pagamento descartado: pedido ID {} não encontrado.", mensagem.getIdPedido());
+            } else if (!transicao.get().isAtualizado()) {
+                log.warn("Evento de pagamento descartado para o pedido ID {}: transição de {} para {} não permitida.",
+                        mensagem.getIdPedido(), transicao.get().getStatusAnterior(), destino);
+            }
+        });
+        deduplicador.lembrar(mensagem);
+    }
+
+    /**
+     * Consome uma partição da fila de pagamentos em lotes.
+     * Mensagens do mesmo pedido são agrupadas mantendo apenas o evento mais recente (pelo
+     * {@code ocorridoEm}, ou pela ordem de entrega quando ausente), e o lote inteiro é deduplicado
+     * e gravado em uma única transação. Os acks são enviados pelo container somente
+     * após o retorno deste método, ou seja, depois do commit.
      *
-     * @param mensagem Objeto {@link EventoPagamentoDTO} recebido da fila contendo o ID do pedido e seu novo status.
+     * @param mensagens Lote de {@link EventoPagamentoDTO}, com os cabeçalhos AMQP, na ordem em que
+     *                  foram entregues pela fila.
      */
-    @RabbitListener(queues = RabbitConfig.QUEUE_NAME)
-    public void receberPedido(EventoPagamentoDTO mensagem) {
-        System.out.println("Mensagem recebida no tópico 'topico-pedidos': " + mensagem);
-        domainServices.atualizarStatus(mensagem.getIdPedido(), mensagem.getStatus());
+    public void receberLote(List<Message<EventoPagamentoDTO>> mensagens) {
+        Map<Long, EventoPagamentoDTO> ultimoEventoPorPedido = new LinkedHashMap<>();
+        for (Message<EventoPagamentoDTO> entrega : mensagens) {
+            EventoPagamentoDTO mensagem = entrega.getPayload();
+            if (mensagem.getIdPedido() == null) {
+                log.warn("Mensagem de pagamento sem ID de pedido descartada: {}", mensagem);
+                continue;
+            }
+            try {
+                StatusPedido.de(mensagem.getStatus());
+            } catch (IllegalArgumentException e) {
+                log.warn("Evento de pagamento descartado para o pedido ID {}: {}", mensagem.getIdPedido(), e.getMessage());
+                continue;
+            }
+            if (!deduplicador.isDescartavel(mensagem)) {
+                ultimoEventoPorPedido.merge(mensagem.getIdPedido(), mensagem, PagamentoListener::maisRecente);
+            }
+        }
+
+        List<TransicaoStatusProjecao> resultados = ultimoEventoPorPedido.isEmpty() ? List.of() : transacao.execute(status -> {
+            Set<Long> aceitos = deduplicador.registrar(ultimoEventoPorPedido.values());
+            Map<Long, StatusPedido> statusPorPedido = new LinkedHashMap<>();
+            ultimoEventoPorPedido.forEach((idPedido, evento) -> {
+                if (aceitos.contains(idPedido)) {
+                    statusPorPedido.put(idPedido, StatusPedido.de(evento.getStatus()));
+                }
+            });
+            return domainServices.atualizarStatusEmLote(statusPorPedido);
+        });
+        ultimoEventoPorPedido.values().forEach(deduplicador::lembrar);
+
+        long atualizados = resultados.stream().filter(TransicaoStatusProjecao::isAtualizado).count();
+        log.info("Lote de {} mensagens de pagamento processado: {} pedidos distintos, {} atualizados.",
+                mensagens.size(), ultimoEventoPorPedido.size(), atualizados);
+
+        Instant processadoEm = Instant.now();
+        for (Message<EventoPagamentoDTO> entrega : mensagens) {
+            registrarAtraso(entrega.getHeaders().get(AmqpHeaders.TIMESTAMP, Date.class), processadoEm);
+        }
+    }
+
+    /** Entre dois eventos do mesmo pedido no lote, prefere o mais recente ou, sem instante, o último entregue. */
+    private static EventoPagamentoDTO maisRecente(EventoPagamentoDTO anterior, EventoPagamentoDTO novo) {
+        if (DeduplicadorEventosPagamento.isRastreavel(anterior) && DeduplicadorEventosPagamento.isRastreavel(novo)
+                && !DeduplicadorEventosPagamento.isPosterior(novo, anterior)) {
+            return anterior;
+        }
+        return novo;
+    }
+
+    private void registrarAtraso(Date publicadoEm, Instant processadoEm) {
+        if (publicadoEm == null) {
+            return;
+        }
+        Duration decorrido = Duration.between(publicadoEm.toInstant(), processadoEm);
+        if (!decorrido.isNegative()) {
+            atraso.record(decorrido);
+        }
     }
 }
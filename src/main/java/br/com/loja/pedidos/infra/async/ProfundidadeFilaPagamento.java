@@ -0,0 +1,80 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publica a profundidade da fila de pagamentos e de cada uma das suas partições como gauges
+ * ({@code pedidos.fila.mensagens} e {@code pedidos.fila.consumidores}, com a tag {@code fila}).
+ *
+ * As filas são consultadas no broker a cada {@code pedidos.metricas.fila-intervalo-ms}, e não a
+ * cada coleta de métricas, para que a coleta não dependa do RabbitMQ. Enquanto o broker não
+ * responde os gauges ficam sem valor (NaN). Uma partição com muito mais mensagens que as outras
+ * indica pedidos com volume de eventos desproporcional.
+ */
+@Slf4j
+@Component
+public class ProfundidadeFilaPagamento {
+
+    private final AmqpAdmin amqpAdmin;
+    private final List<Fila> filas = new ArrayList<>();
+
+    public ProfundidadeFilaPagamento(AmqpAdmin amqpAdmin, MeterRegistry meterRegistry,
+                                     @Value("${pedidos.pagamento.particoes.quantidade:8}") int particoes) {
+        this.amqpAdmin = amqpAdmin;
+        filas.add(new Fila(RabbitConfig.QUEUE_NAME));
+        for (int particao = 0; particao < particoes; particao++) {
+            filas.add(new Fila(RabbitConfig.nomeFilaParticao(particao)));
+        }
+        for (Fila fila : filas) {
+            Gauge.builder("pedidos.fila.mensagens", fila, f -> f.mensagens)
+                    .description("Mensagens prontas para entrega na fila")
+                    .tag("fila", fila.nome)
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.fila.consumidores", fila, f -> f.consumidores)
+                    .description("Consumidores conectados à fila")
+                    .tag("fila", fila.nome)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pedidos.metricas.fila-intervalo-ms:15000}")
+    public void atualizar() {
+        try {
+            for (Fila fila : filas) {
+                QueueInformation informacao = amqpAdmin.getQueueInfo(fila.nome);
+                fila.mensagens = informacao == null ? Double.NaN : informacao.getMessageCount();
+                fila.consumidores = informacao == null ? Double.NaN : informacao.getConsumerCount();
+            }
+        } catch (AmqpException e) {
+            // Broker indisponível: não adianta tentar as filas restantes neste ciclo.
+            log.debug("Não foi possível consultar as filas de pagamento: {}", e.getMessage());
+            for (Fila fila : filas) {
+                fila.mensagens = Double.NaN;
+                fila.consumidores = Double.NaN;
+            }
+        }
+    }
+
+    private static final class Fila {
+
+        private final String nome;
+        private volatile double mensagens = Double.NaN;
+        private volatile double consumidores = Double.NaN;
+
+        Fila(String nome) {
+            this.nome = nome;
+        }
+    }
+}
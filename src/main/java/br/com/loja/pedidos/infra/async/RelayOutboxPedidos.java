@@ -0,0 +1,109 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import br.com.loja.pedidos.infra.repositories.OutboxRepository;
+import br.com.loja.pedidos.infra.repositories.RegistroOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Publica os eventos do {@code outbox_pedido} na exchange {@link RabbitConfig#PEDIDOS_EXCHANGE_NAME}.
+ *
+ * A cada ciclo, em uma transação, bloqueia até {@code tamanho-bloco} registros
+ * ({@code FOR UPDATE SKIP LOCKED}, para que várias instâncias não publiquem os mesmos), envia todos
+ * pelo mesmo canal sem esperar confirmação um a um e só então aguarda as confirmações do broker.
+ * Confirmado o bloco, os registros são removidos; se alguma confirmação falhar ou não chegar a tempo,
+ * a transação é desfeita e o bloco inteiro é reenviado no próximo ciclo.
+ *
+ * A entrega é pelo menos uma vez: consumidores devem tolerar duplicatas, identificáveis pelo
+ * {@code message-id}, que é o ID do registro no outbox.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.relay.habilitado", havingValue = "true", matchIfMissing = true)
+public class RelayOutboxPedidos {
+
+    private final OutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoBloco;
+    private final long esperaConfirmacaoMs;
+    private final Counter publicados;
+    private final Counter falhas;
+
+    public RelayOutboxPedidos(OutboxRepository outboxRepository,
+                              RabbitTemplate rabbitTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${pedidos.outbox.relay.tamanho-bloco:500}") int tamanhoBloco,
+                              @Value("${pedidos.outbox.relay.espera-confirmacao-ms:5000}") long esperaConfirmacaoMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = tamanhoBloco;
+        this.esperaConfirmacaoMs = esperaConfirmacaoMs;
+        this.publicados = Counter.builder("pedidos.outbox.publicados")
+                .description("Eventos do outbox publicados e confirmados pelo broker")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("pedidos.outbox.falhas")
+                .description("Blocos do outbox cuja publicação falhou e será repetida")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica blocos enquanto houver blocos cheios pendentes.
+     */
+    @Scheduled(fixedDelayString = "${pedidos.outbox.relay.intervalo-ms:200}")
+    public void drenar() {
+        try {
+            Integer publicadosNoBloco;
+            do {
+                publicadosNoBloco = transactionTemplate.execute(status -> publicarBloco());
+            } while (publicadosNoBloco != null && publicadosNoBloco == tamanhoBloco);
+        } catch (AmqpException e) {
+            falhas.increment();
+            log.warn("Falha ao publicar eventos do outbox; nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    int publicarBloco() {
+        List<RegistroOutbox> registros = outboxRepository.bloquearPendentes(tamanhoBloco);
+        if (registros.isEmpty()) {
+            return 0;
+        }
+        rabbitTemplate.invoke(operacoes -> {
+            for (RegistroOutbox registro : registros) {
+                operacoes.send(RabbitConfig.PEDIDOS_EXCHANGE_NAME, registro.getRoutingKey(), mensagem(registro));
+            }
+            operacoes.waitForConfirmsOrDie(esperaConfirmacaoMs);
+            return null;
+        });
+        outboxRepository.remover(registros.stream().map(RegistroOutbox::getId).toList());
+        publicados.increment(registros.size());
+        return registros.size();
+    }
+
+    private static Message mensagem(RegistroOutbox registro) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        propriedades.setContentEncoding(StandardCharsets.UTF_8.name());
+        propriedades.setMessageId(String.valueOf(registro.getId()));
+        propriedades.setTimestamp(Timestamp.valueOf(registro.getCriadoEm()));
+        return new Message(registro.getPayload().getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Distribui a fila de pagamentos entre as partições {@code fila_pagamento.N}.
+ *
+ * Os publicadores continuam enviando para {@link RabbitConfig#QUEUE_NAME}. Um único consumidor,
+ * exclusivo, lê a fila em blocos e republica cada mensagem, sem alterá-la, na partição do pedido
+ * ({@link #particao(long, int)}). Todos os eventos de um pedido caem na mesma partição e chegam
+ * nela na ordem da fila de entrada; cada partição tem um único consumidor, então eventos do mesmo
+ * pedido nunca são processados em paralelo, enquanto partições diferentes avançam em paralelo.
+ *
+ * O bloco só é confirmado na fila de entrada depois que o broker confirma todas as publicações. Se
+ * alguma falhar, o bloco volta para a fila e é republicado inteiro: as partições podem receber
+ * duplicatas, descartadas pelo {@link DeduplicadorEventosPagamento}.
+ *
+ * {@code pedidos.pagamento.particoes.quantidade} deve ser o mesmo em todas as instâncias. Ao
+ * alterá-lo, pedidos com eventos ainda nas partições antigas podem ter esses eventos processados
+ * fora de ordem; faça a troca com as partições vazias.
+ */
+@Slf4j
+@Component
+public class RoteadorPagamentos {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectReader leitor;
+    private final int quantidade;
+    private final long esperaConfirmacaoMs;
+
+    public RoteadorPagamentos(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+                              @Value("${pedidos.pagamento.particoes.quantidade:8}") int quantidade,
+                              @Value("${pedidos.pagamento.particoes.roteamento.espera-confirmacao-ms:5000}") long esperaConfirmacaoMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.leitor = objectMapper.reader();
+        this.quantidade = quantidade;
+        this.esperaConfirmacaoMs = esperaConfirmacaoMs;
+    }
+
+    /**
+     * Republica um bloco da fila de entrada nas partições e aguarda as confirmações. Uma exceção
+     * aqui devolve o bloco inteiro à fila.
+     *
+     * O consumidor é exclusivo: com várias instâncias, só uma roteia por vez, na ordem da fila; as
+     * outras tentam assumir a cada intervalo de recuperação do container.
+     *
+     * @param mensagens Mensagens na ordem em que foram entregues.
+     */
+    @RabbitListener(queues = RabbitConfig.QUEUE_NAME, containerFactory = RabbitConfig.ROTEADOR_CONTAINER_FACTORY,
+            exclusive = true)
+    public void rotear(List<Message> mensagens) {
+        rabbitTemplate.invoke(operacoes -> {
+            for (Message mensagem : mensagens) {
+                // Mensagens recebidas não trazem o modo de entrega; sem isso a cópia não seria persistente.
+                mensagem.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                operacoes.send(RabbitConfig.PARTICOES_EXCHANGE_NAME, String.valueOf(particao(mensagem)), mensagem);
+            }
+            operacoes.waitForConfirmsOrDie(esperaConfirmacaoMs);
+            return null;
+        });
+        log.debug("{} mensagens de pagamento distribuídas entre {} partições", mensagens.size(), quantidade);
+    }
+
+    /**
+     * Partição do pedido da mensagem. Mensagens sem {@code idPedido} legível vão para a partição 0,
+     * onde o listener as registra e descarta.
+     */
+    int particao(Message mensagem) {
+        try {
+            JsonNode idPedido = leitor.readTree(mensagem.getBody()).path("idPedido");
+            if (!idPedido.isMissingNode() && !idPedido.isNull()) {
+                return particao(idPedido.asLong(), quantidade);
+            }
+        } catch (IOException e) {
+            log.debug("Corpo de mensagem de pagamento ilegível: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    static int particao(long idPedido, int quantidade) {
+        return Math.floorMod(Long.hashCode(idPedido), quantidade);
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.configurations.ContextoLeitura;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura de pedidos por ID, limitado por tamanho e por tempo desde a carga.
+ *
+ * A política de remoção é a W-TinyLFU do Caffeine. Quando uma alteração de status é publicada, o
+ * pedido é removido do cache e passa a ser lido direto do banco até a transação terminar; ao fim
+ * dela o pedido é removido de novo. Assim, nenhuma leitura nesta instância recebe um status mais
+ * antigo que o último commit feito por ela. Alterações feitas por outras instâncias são vistas
+ * após o {@code ttl}.
+ *
+ * Com réplicas de leitura, um pedido alterado há menos de {@code pedidos.banco.leitura-propria} é
+ * recarregado do primário, para que o cache não guarde a versão anterior lida de uma réplica
+ * atrasada.
+ *
+ * Cada carga fica no cache como um resultado pendente: buscas simultâneas do mesmo ID aguardam a
+ * carga em andamento em vez de repeti-la, e ela é feita sem travar outras chaves, o que permite ao
+ * carregador juntar IDs diferentes em uma consulta.
+ *
+ * Os pedidos devolvidos são compartilhados entre as threads e não devem ser alterados.
+ * As estatísticas de acerto, falha e remoção são expostas com o prefixo {@code cache.*},
+ * tag {@code cache=pedidos}.
+ */
+@Component
+public class CachePedidos {
+
+    private final AsyncCache<Long, PedidoEntity> cache;
+    private final ConcurrentHashMap<Long, Integer> emAlteracao = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> alteradosRecentemente;
+
+    public CachePedidos(@Value("${pedidos.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                        @Value("${pedidos.cache.ttl:PT5M}") Duration ttl,
+                        @Value("${pedidos.banco.leitura-propria:PT5S}") Duration leituraPropria,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pedidos");
+        this.alteradosRecentemente = Caffeine.newBuilder()
+                .expireAfterWrite(leituraPropria)
+                .build();
+    }
+
+    /**
+     * Retorna o pedido do cache ou, se ausente, carrega-o com {@code carregador}.
+     * Carregamentos simultâneos do mesmo ID são feitos uma única vez, pela thread que encontrou o
+     * pedido ausente. Pedidos não encontrados não são guardados.
+     */
+    public Optional<PedidoEntity> buscar(Long id, Function<Long, Optional<PedidoEntity>> carregador) {
+        if (emAlteracao.containsKey(id)) {
+            return carregador.apply(id);
+        }
+        CompletableFuture<PedidoEntity> carga = new CompletableFuture<>();
+        CompletableFuture<PedidoEntity> pedido = cache.get(id, (chave, executor) -> carga);
+        if (pedido == carga) {
+            try {
+                carga.complete(carregar(id, carregador).orElse(null));
+            } catch (RuntimeException e) {
+                carga.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return Optional.ofNullable(aguardar(pedido));
+    }
+
+    private static PedidoEntity aguardar(CompletableFuture<PedidoEntity> pedido) {
+        try {
+            return pedido.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Optional<PedidoEntity> carregar(Long id, Function<Long, Optional<PedidoEntity>> carregador) {
+        if (alteradosRecentemente.getIfPresent(id) != null) {
+            return ContextoLeitura.noPrimario(() -> carregador.apply(id));
+        }
+        return carregador.apply(id);
+    }
+
+    /**
+     * Retorna o pedido apenas se já estiver no cache, sem carregá-lo nem aguardar uma carga em andamento.
+     */
+    public Optional<PedidoEntity> buscarSePresente(Long id) {
+        if (emAlteracao.containsKey(id)) {
+            return Optional.empty();
+        }
+        CompletableFuture<PedidoEntity> pedido = cache.getIfPresent(id);
+        if (pedido == null || !pedido.isDone() || pedido.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pedido.join());
+    }
+
+    @EventListener
+    public void aoAlterarStatus(StatusPedidoAlteradoEvent evento) {
+        invalidarAteFimDaTransacao(evento.getIdPedido());
+    }
+
+    /**
+     * Remove o pedido e desvia as leituras dele para o banco até a transação corrente terminar.
+     * Sem transação ativa, apenas remove.
+     */
+    public void invalidarAteFimDaTransacao(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alteradosRecentemente.put(id, Boolean.TRUE);
+            cache.synchronous().invalidate(id);
+            return;
+        }
+        emAlteracao.merge(id, 1, Integer::sum);
+        cache.synchronous().invalidate(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                alteradosRecentemente.put(id, Boolean.TRUE);
+                cache.synchronous().invalidate(id);
+                emAlteracao.computeIfPresent(id, (chave, contador) -> contador == 1 ? null : contador - 1);
+            }
+        });
+    }
+}
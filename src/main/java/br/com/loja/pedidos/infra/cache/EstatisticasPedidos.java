@@ -0,0 +1,219 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.application.dtos.EstatisticaDiaDTO;
+import br.com.loja.pedidos.application.dtos.EstatisticasPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.repositories.ContagemPedidosProjecao;
+import br.com.loja.pedidos.infra.repositories.PedidoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem de pedidos por status atual, no total e por dia de realização, mantida em memória.
+ *
+ * Os contadores são {@link LongAdder}, que distribuem as atualizações concorrentes entre células
+ * para não disputarem a mesma variável. Cada pedido criado e cada transição de status confirmados
+ * por esta instância atualizam os contadores após o commit; a consulta apenas soma as células, sem
+ * acessar o banco.
+ *
+ * Os contadores são reconstruídos do banco logo após a subida e a cada
+ * {@code pedidos.estatisticas.recarga-ms}, o que também incorpora as alterações feitas por outras
+ * instâncias. Durante a reconstrução as atualizações vão para a contagem atual e para a nova, que
+ * substitui a atual ao fim da carga.
+ *
+ * A troca não é exata: uma transação confirmada antes do instantâneo lido pela carga, mas cujo
+ * listener de pós-commit só roda depois de {@code proxima} ser publicada, é contada duas vezes na
+ * nova contagem (pelo banco e pelo evento). A diferença fica limitada às transações que estavam
+ * sendo confirmadas no início da carga e é corrigida pela recarga seguinte.
+ */
+@Slf4j
+@Component
+public class EstatisticasPedidos {
+
+    private static final StatusPedido[] STATUS = StatusPedido.values();
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final Timer tempoCarga;
+
+    private volatile Contagem contagem = new Contagem();
+    private volatile Contagem proxima;
+    private volatile boolean carregado;
+
+    public EstatisticasPedidos(PedidoRepository pedidoRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.pedidoRepository = pedidoRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.tempoCarga = Timer.builder("pedidos.estatisticas.carga")
+                .description("Tempo de reconstrução das estatísticas de pedidos a partir do banco")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${pedidos.estatisticas.recarga-ms:3600000}")
+    public void carregar() {
+        long inicio = System.nanoTime();
+        Contagem nova = new Contagem();
+        proxima = nova;
+        try {
+            List<ContagemPedidosProjecao> linhas = transacaoLeitura.execute(status -> pedidoRepository.contarPorDiaEStatus());
+            for (ContagemPedidosProjecao linha : linhas) {
+                StatusPedido status = statusOuNulo(linha.getStatus());
+                if (status != null) {
+                    nova.somar(linha.getDia(), status, linha.getQuantidade());
+                }
+            }
+            contagem = nova;
+            carregado = true;
+        } finally {
+            proxima = null;
+        }
+
+        long duracao = System.nanoTime() - inicio;
+        tempoCarga.record(duracao, TimeUnit.NANOSECONDS);
+        log.info("Estatísticas de pedidos carregadas: {} pedidos, {} dias, {} ms.",
+                nova.total(), nova.porDia.size(), TimeUnit.NANOSECONDS.toMillis(duracao));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        PedidoEntity pedido = evento.getPedido();
+        StatusPedido status = statusOuNulo(pedido.getStatus());
+        if (status != null) {
+            aplicar(dia(pedido.getDataHoraRealizacaoPedido()), status, 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(StatusPedidoAlteradoEvent evento) {
+        LocalDate dia = dia(evento.getDataHoraRealizacaoPedido());
+        StatusPedido anterior = statusOuNulo(evento.getStatusAnterior());
+        if (anterior != null) {
+            aplicar(dia, anterior, -1);
+        }
+        aplicar(dia, evento.getStatusNovo(), 1);
+    }
+
+    /**
+     * @return {@code false} enquanto a primeira carga a partir do banco não terminou.
+     */
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Retorna os totais por status e a contagem dos dias em {@code [inicio, fim)}.
+     */
+    public EstatisticasPedidosDTO consultar(LocalDate inicio, LocalDate fim) {
+        Contagem atual = contagem;
+        Map<StatusPedido, Long> porStatus = somar(atual.porStatus);
+
+        List<EstatisticaDiaDTO> porDia = new ArrayList<>();
+        for (Map.Entry<LocalDate, LongAdder[]> entrada : atual.porDia.subMap(inicio, fim).entrySet()) {
+            Map<StatusPedido, Long> doDia = somar(entrada.getValue());
+            long totalDia = total(doDia);
+            if (totalDia != 0) {
+                porDia.add(new EstatisticaDiaDTO(entrada.getKey(), totalDia, doDia));
+            }
+        }
+        return new EstatisticasPedidosDTO(total(porStatus), porStatus, porDia);
+    }
+
+    /**
+     * Aplica a atualização à contagem atual e, durante uma carga, também à que vai substituí-la.
+     * {@code proxima} é lida antes de {@code contagem}, na ordem inversa em que a carga as publica,
+     * para que uma atualização aplicada durante a troca chegue à contagem que fica valendo. Ver a
+     * documentação da classe sobre a diferença que pode restar até a próxima recarga.
+     */
+    private void aplicar(LocalDate dia, StatusPedido status, long quantidade) {
+        Contagem seguinte = proxima;
+        Contagem atual = contagem;
+        atual.somar(dia, status, quantidade);
+        if (seguinte != null && seguinte != atual) {
+            seguinte.somar(dia, status, quantidade);
+        }
+    }
+
+    private static Map<StatusPedido, Long> somar(LongAdder[] contadores) {
+        Map<StatusPedido, Long> soma = new EnumMap<>(StatusPedido.class);
+        for (StatusPedido status : STATUS) {
+            soma.put(status, contadores[status.ordinal()].sum());
+        }
+        return soma;
+    }
+
+    private static long total(Map<StatusPedido, Long> porStatus) {
+        return porStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static LocalDate dia(LocalDateTime dataHora) {
+        return dataHora == null ? null : dataHora.toLocalDate();
+    }
+
+    /** Status nulo conta como CRIADO, como nas transições; valores desconhecidos são ignorados. */
+    private static StatusPedido statusOuNulo(String status) {
+        if (status == null) {
+            return StatusPedido.CRIADO;
+        }
+        try {
+            return StatusPedido.de(status);
+        } catch (IllegalArgumentException e) {
+            log.debug("Status desconhecido ignorado nas estatísticas: {}", status);
+            return null;
+        }
+    }
+
+    private static LongAdder[] novosContadores() {
+        LongAdder[] contadores = new LongAdder[STATUS.length];
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+        return contadores;
+    }
+
+    /** Uma geração dos contadores. Pedidos sem data entram apenas nos totais por status. */
+    private static final class Contagem {
+
+        final LongAdder[] porStatus = novosContadores();
+        final ConcurrentSkipListMap<LocalDate, LongAdder[]> porDia = new ConcurrentSkipListMap<>();
+
+        void somar(LocalDate dia, StatusPedido status, long quantidade) {
+            porStatus[status.ordinal()].add(quantidade);
+            if (dia != null) {
+                LongAdder[] doDia = porDia.get(dia);
+                if (doDia == null) {
+                    doDia = porDia.computeIfAbsent(dia, chave -> novosContadores());
+                }
+                doDia[status.ordinal()].add(quantidade);
+            }
+        }
+
+        long total() {
+            long total = 0;
+            for (LongAdder contador : porStatus) {
+                total += contador.sum();
+            }
+            return total;
+        }
+    }
+}
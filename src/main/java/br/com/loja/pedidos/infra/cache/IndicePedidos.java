@@ -0,0 +1,167 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.infra.repositories.PedidoExportacaoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos IDs de pedidos existentes, usado nas verificações de existência.
+ *
+ * Os IDs ficam em um {@link Roaring64Bitmap}, que para IDs de sequência ocupa poucos bytes por pedido.
+ * O índice é carregado da tabela {@code pedido} logo após a subida e recarregado a cada
+ * {@code pedidos.indice.recarga-ms}; entre as cargas recebe, após o commit, os pedidos criados por esta instância.
+ * Cada recarga substitui o conteúdo anterior pelo que está no banco, de modo que pedidos movidos
+ * para o schema de arquivo deixam de constar do índice.
+ *
+ * Pedidos criados por outras instâncias só aparecem na próxima recarga. Quando há mais de uma
+ * instância gravando pedidos, {@code pedidos.indice.confirmar-ausencia=true} faz com que as
+ * ausências sejam confirmadas no banco, mantendo em memória apenas as respostas positivas.
+ */
+@Slf4j
+@Component
+public class IndicePedidos {
+
+    /** Resposta do índice para um ID. {@code DESCONHECIDO} significa que o chamador deve consultar o banco. */
+    public enum Presenca {
+        PRESENTE, AUSENTE, DESCONHECIDO
+    }
+
+    private final PedidoExportacaoRepository pedidoExportacaoRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final boolean confirmarAusencia;
+    private final Timer tempoCarga;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Roaring64Bitmap ids = new Roaring64Bitmap();
+    /** IDs adicionados desde o início da carga em andamento; nulo fora de uma carga. */
+    private Roaring64Bitmap adicionadosNaCarga;
+    private volatile boolean carregado;
+
+    public IndicePedidos(PedidoExportacaoRepository pedidoExportacaoRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${pedidos.indice.confirmar-ausencia:false}") boolean confirmarAusencia) {
+        this.pedidoExportacaoRepository = pedidoExportacaoRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.confirmarAusencia = confirmarAusencia;
+
+        this.tempoCarga = Timer.builder("pedidos.indice.carga")
+                .description("Tempo de carga do índice de IDs de pedidos a partir do banco")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.indice.memoria", this, IndicePedidos::tamanhoEmBytes)
+                .description("Memória ocupada pelo índice de IDs de pedidos")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.indice.ids", this, IndicePedidos::quantidade)
+                .description("Quantidade de IDs de pedidos no índice")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carrega todos os IDs da tabela em um novo bitmap e o troca pelo atual. Dos IDs já em memória,
+     * só são mantidos os adicionados depois do início da carga, que podem não estar na leitura do
+     * banco; os demais valem o que o banco disser. Roda fora da thread de requisição, agendado após
+     * a subida.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${pedidos.indice.recarga-ms:300000}")
+    public void carregar() {
+        long inicio = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            adicionadosNaCarga = new Roaring64Bitmap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Roaring64Bitmap carregados = new Roaring64Bitmap();
+        try {
+            transacaoLeitura.executeWithoutResult(status -> pedidoExportacaoRepository.percorrerIds(carregados::addLong));
+            carregados.runOptimize();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                adicionadosNaCarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            carregados.or(adicionadosNaCarga);
+            adicionadosNaCarga = null;
+            ids = carregados;
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long duracao = System.nanoTime() - inicio;
+        tempoCarga.record(duracao, TimeUnit.NANOSECONDS);
+        log.info("Índice de pedidos carregado: {} IDs, {} bytes, {} ms.",
+                quantidade(), tamanhoEmBytes(), TimeUnit.NANOSECONDS.toMillis(duracao));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        adicionar(evento.getPedido().getId());
+    }
+
+    public void adicionar(long id) {
+        lock.writeLock().lock();
+        try {
+            ids.addLong(id);
+            if (adicionadosNaCarga != null) {
+                adicionadosNaCarga.addLong(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Presenca consultar(long id) {
+        lock.readLock().lock();
+        try {
+            if (ids.contains(id)) {
+                return Presenca.PRESENTE;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return carregado && !confirmarAusencia ? Presenca.AUSENTE : Presenca.DESCONHECIDO;
+    }
+
+    long quantidade() {
+        lock.readLock().lock();
+        try {
+            return ids.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long tamanhoEmBytes() {
+        lock.readLock().lock();
+        try {
+            return ids.getLongSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca a thread corrente para que as leituras, mesmo em transações somente leitura, sejam feitas no
+ * banco primário em vez das réplicas. Usado para ler as próprias escritas enquanto as réplicas
+ * ainda podem não tê-las recebido. Sem réplicas configuradas a marcação não tem efeito.
+ */
+public final class ContextoLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private ContextoLeitura() {
+    }
+
+    public static boolean isPrimario() {
+        return PRIMARIO.get();
+    }
+
+    /**
+     * Direciona as leituras ao primário até o {@link Escopo} ser fechado, restaurando então o
+     * estado anterior. Escopos podem ser aninhados.
+     */
+    public static Escopo usarPrimario() {
+        boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(Boolean.TRUE);
+        return () -> PRIMARIO.set(anterior);
+    }
+
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        try (Escopo escopo = usarPrimario()) {
+            return leitura.get();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Escopo extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ID de correlação das requisições, guardado no MDC em {@link #CHAVE_MDC} e impresso em cada
+ * linha de log pelo padrão {@code logging.pattern.correlation}.
+ *
+ * O ID vem do cabeçalho {@link #CABECALHO} (REST) ou da chave de metadados de mesmo nome (gRPC) e é
+ * devolvido na resposta. Sem ID válido no pedido, um novo é gerado.
+ */
+public final class Correlacao {
+
+    public static final String CHAVE_MDC = "correlacao";
+    public static final String CABECALHO = "X-Correlation-Id";
+
+    private static final int TAMANHO_MAXIMO = 64;
+
+    private Correlacao() {
+    }
+
+    /**
+     * Retorna o ID recebido, se tiver até 64 caracteres entre letras, dígitos, {@code .}, {@code _}
+     * e {@code -}; caso contrário, um novo ID. Valores fora disso não vão para o log, onde
+     * poderiam forjar linhas.
+     */
+    public static String normalizar(String recebido) {
+        return valido(recebido) ? recebido : gerar();
+    }
+
+    public static String gerar() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    /** Coloca o ID no MDC até o escopo ser fechado. */
+    public static MDC.MDCCloseable usar(String id) {
+        return MDC.putCloseable(CHAVE_MDC, id);
+    }
+
+    private static boolean valido(String id) {
+        if (id == null || id.isEmpty() || id.length() > TAMANHO_MAXIMO) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
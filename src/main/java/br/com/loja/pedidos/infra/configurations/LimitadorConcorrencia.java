@@ -0,0 +1,149 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite adaptativo de requisições simultâneas, no estilo do algoritmo Gradient2.
+ *
+ * Cada requisição concluída informa a sua latência. O limitador mantém uma média longa (a latência
+ * de referência, sem fila) e compara a latência recente com ela: enquanto as duas são próximas o
+ * limite cresce aos poucos, e quando a recente sobe — sinal de fila no banco ou no pool de
+ * conexões — o limite cai na mesma proporção. Requisições que falham por sobrecarga reduzem o
+ * limite diretamente. O limite só cresce quando está sendo usado, para não inflar em períodos
+ * ociosos.
+ *
+ * Acima do limite a requisição é recusada na hora, sem esperar: quem chama responde 429 ou
+ * {@code RESOURCE_EXHAUSTED} enquanto as requisições aceitas mantêm a latência.
+ */
+public class LimitadorConcorrencia {
+
+    /** Quantidade de amostras na média longa. */
+    private static final int JANELA_LONGA = 600;
+    /** Peso de cada novo limite calculado sobre o anterior. */
+    private static final double SUAVIZACAO = 0.2;
+    /** Redução do limite a cada requisição descartada por sobrecarga. */
+    private static final double RECUO = 0.9;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final LongSupplier relogio;
+    private final AtomicInteger emUso = new AtomicInteger();
+
+    private volatile double limite;
+    private double latenciaLonga;
+
+    /**
+     * @param limiteInicial Limite antes das primeiras amostras.
+     * @param limiteMinimo  Limite mínimo, mesmo com latência alta.
+     * @param limiteMaximo  Limite máximo, mesmo com latência estável.
+     * @param tolerancia    Quanto a latência recente pode exceder a de referência sem reduzir o
+     *                      limite (1.5 = 50% acima).
+     * @param relogio       Fonte de tempo em nanossegundos.
+     */
+    public LimitadorConcorrencia(int limiteInicial, int limiteMinimo, int limiteMaximo, double tolerancia,
+                                 LongSupplier relogio) {
+        if (limiteMinimo < 1 || limiteMaximo < limiteMinimo) {
+            throw new IllegalArgumentException("Limites inválidos: mínimo " + limiteMinimo + ", máximo " + limiteMaximo);
+        }
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.relogio = relogio;
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+    }
+
+    /**
+     * Reserva uma vaga se houver. A {@link Permissao} devolvida deve ser encerrada exatamente uma
+     * vez, por {@link Permissao#sucesso()}, {@link Permissao#descartar()} ou {@link Permissao#ignorar()}.
+     *
+     * @return Vazio se o limite já foi atingido.
+     */
+    public Optional<Permissao> tentarAdquirir() {
+        while (true) {
+            int atual = emUso.get();
+            if (atual >= (int) limite) {
+                return Optional.empty();
+            }
+            if (emUso.compareAndSet(atual, atual + 1)) {
+                return Optional.of(new Permissao(atual + 1, relogio.getAsLong()));
+            }
+        }
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmUso() {
+        return emUso.get();
+    }
+
+    private synchronized void registrar(long latenciaNanos, int emUsoNaAquisicao) {
+        double latencia = Math.max(latenciaNanos, 1);
+        latenciaLonga = latenciaLonga == 0
+                ? latencia
+                : latenciaLonga + (latencia - latenciaLonga) / JANELA_LONGA;
+        if (latenciaLonga / latencia > 2) {
+            // Latência de referência inflada por um período lento que já passou.
+            latenciaLonga *= 0.95;
+        }
+        if (emUsoNaAquisicao < limite / 2) {
+            return;
+        }
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * latenciaLonga / latencia));
+        double novoLimite = limite * gradiente + Math.sqrt(limite);
+        atualizarLimite(limite * (1 - SUAVIZACAO) + novoLimite * SUAVIZACAO);
+    }
+
+    private synchronized void recuar() {
+        atualizarLimite(limite * RECUO);
+    }
+
+    private void atualizarLimite(double novoLimite) {
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, novoLimite));
+    }
+
+    /** Vaga ocupada por uma requisição em andamento. */
+    public final class Permissao {
+
+        private final int emUsoNaAquisicao;
+        private final long inicio;
+        private final AtomicBoolean encerrada = new AtomicBoolean();
+
+        private Permissao(int emUsoNaAquisicao, long inicio) {
+            this.emUsoNaAquisicao = emUsoNaAquisicao;
+            this.inicio = inicio;
+        }
+
+        /** Requisição concluída; a latência entra no cálculo do limite. */
+        public void sucesso() {
+            if (liberar()) {
+                registrar(relogio.getAsLong() - inicio, emUsoNaAquisicao);
+            }
+        }
+
+        /** Requisição perdida por sobrecarga (timeout, falta de conexão); o limite é reduzido. */
+        public void descartar() {
+            if (liberar()) {
+                recuar();
+            }
+        }
+
+        /** Requisição encerrada sem latência representativa (cancelada pelo cliente, streaming). */
+        public void ignorar() {
+            liberar();
+        }
+
+        private boolean liberar() {
+            if (!encerrada.compareAndSet(false, true)) {
+                return false;
+            }
+            emUso.decrementAndGet();
+            return true;
+        }
+    }
+}
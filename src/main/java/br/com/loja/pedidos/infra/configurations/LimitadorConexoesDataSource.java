@@ -0,0 +1,106 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DataSource} que limita quantas conexões podem estar em uso ao mesmo tempo.
+ *
+ * Com threads virtuais não há mais um pool de threads limitando a concorrência: milhares de
+ * requisições podem pedir conexão ao Hikari de uma vez. Este limitador deixa passar no máximo
+ * {@code permissoes} conexões abertas; as demais esperam em fila justa por até {@code esperaMaxima}
+ * e então falham com {@link SQLTransientConnectionException}, em vez de se acumularem no pool.
+ * A permissão é devolvida quando a conexão é fechada.
+ *
+ * Fechar o limitador fecha o DataSource real, quando ele é {@link AutoCloseable} (o pool Hikari).
+ */
+public class LimitadorConexoesDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permissoes;
+    private final long esperaMaximaNanos;
+
+    /**
+     * @param alvo         DataSource real, normalmente o pool Hikari.
+     * @param permissoes   Quantidade máxima de conexões em uso ao mesmo tempo.
+     * @param esperaMaxima Tempo máximo de espera por uma permissão.
+     */
+    public LimitadorConexoesDataSource(DataSource alvo, int permissoes, Duration esperaMaxima) {
+        super(alvo);
+        this.permissoes = new Semaphore(permissoes, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable alvo) {
+            alvo.close();
+        }
+    }
+
+    /** Quantidade de threads aguardando uma permissão. */
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Limite de conexões simultâneas com o banco atingido; espera máxima esgotada.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão com o banco.", e);
+        }
+    }
+
+    private Connection liberarAoFechar(AberturaConexao abertura) throws SQLException {
+        Connection conexao;
+        try {
+            conexao = abertura.abrir();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (metodo.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                            permissoes.release();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface AberturaConexao {
+        Connection abrir() throws SQLException;
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita, por logger, os eventos de log por segundo, descartando o excedente antes de qualquer
+ * formatação. Configurado no {@code logback-spring.xml} do perfil {@code producao}.
+ *
+ * Vale para os loggers que começam com um dos {@code prefixos} (separados por vírgula) e para os
+ * níveis até {@code nivelMaximo}; eventos acima dele, como os de ERROR por padrão, sempre passam.
+ * Consultas como {@code isDebugEnabled()} não consomem a cota. Os descartes são contados em
+ * {@code pedidos.log.descartados}, no registro global do Micrometer.
+ */
+public class LimiteTaxaLogFilter extends TurboFilter {
+
+    private final LongSupplier relogio;
+    private final ConcurrentHashMap<String, Janela> janelas = new ConcurrentHashMap<>();
+    private final Counter descartados = Metrics.counter("pedidos.log.descartados");
+    private int eventosPorSegundo = 50;
+    private Level nivelMaximo = Level.WARN;
+    private String[] prefixos = {"br.com.loja.pedidos"};
+
+    public LimiteTaxaLogFilter() {
+        this(System::nanoTime);
+    }
+
+    LimiteTaxaLogFilter(LongSupplier relogio) {
+        this.relogio = relogio;
+    }
+
+    public void setEventosPorSegundo(int eventosPorSegundo) {
+        this.eventosPorSegundo = eventosPorSegundo;
+    }
+
+    public void setNivelMaximo(String nivelMaximo) {
+        this.nivelMaximo = Level.toLevel(nivelMaximo, Level.WARN);
+    }
+
+    public void setPrefixos(String prefixos) {
+        this.prefixos = prefixos.trim().split("\\s*,\\s*");
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.toInt() > nivelMaximo.toInt()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !limitado(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        long segundo = TimeUnit.NANOSECONDS.toSeconds(relogio.getAsLong());
+        if (janelas.computeIfAbsent(logger.getName(), nome -> new Janela()).admitir(segundo, eventosPorSegundo)) {
+            return FilterReply.NEUTRAL;
+        }
+        descartados.increment();
+        return FilterReply.DENY;
+    }
+
+    private boolean limitado(String logger) {
+        for (String prefixo : prefixos) {
+            if (logger.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Contagem de eventos de um logger no segundo corrente. */
+    private static final class Janela {
+        private final AtomicLong segundo = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong eventos = new AtomicLong();
+
+        boolean admitir(long agora, int limite) {
+            long atual = segundo.get();
+            if (atual != agora && segundo.compareAndSet(atual, agora)) {
+                eventos.set(0);
+            }
+            return eventos.incrementAndGet() <= limite;
+        }
+    }
+}
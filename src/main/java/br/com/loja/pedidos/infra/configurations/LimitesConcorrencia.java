@@ -0,0 +1,105 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Um {@link LimitadorConcorrencia} por classe de endpoint, compartilhado entre REST e gRPC.
+ *
+ * As classes têm orçamentos independentes: listagens e operações em lote lentas reduzem o próprio
+ * limite sem tomar as vagas das consultas pontuais e das verificações de existência. Os limites de
+ * cada classe vêm de {@code pedidos.concorrencia.<classe>.limite-inicial}, {@code limite-minimo} e
+ * {@code limite-maximo} (classe em minúsculas, ex.: {@code existencia}).
+ *
+ * Métricas, com a tag {@code classe}: {@code pedidos.concorrencia.limite},
+ * {@code pedidos.concorrencia.em.uso} e {@code pedidos.concorrencia.rejeitadas}.
+ */
+@Component
+@ConditionalOnProperty(name = LimitesConcorrencia.PROPRIEDADE_HABILITADO, havingValue = "true", matchIfMissing = true)
+public class LimitesConcorrencia {
+
+    public static final String PROPRIEDADE_HABILITADO = "pedidos.concorrencia.habilitado";
+
+    /** Classes de endpoint, com os limites padrão (inicial, mínimo, máximo). */
+    public enum Classe {
+        /** Verificação de existência de um pedido (gRPC), respondida pelo índice em memória. */
+        EXISTENCIA(100, 10, 2000),
+        /** Leitura de um pedido ou das estatísticas. */
+        CONSULTA(50, 5, 1000),
+        /** Listagens paginadas e exportação. */
+        LISTAGEM(10, 2, 100),
+        /** Criação e alteração de status de um pedido. */
+        ESCRITA(20, 2, 200),
+        /** Criação, alteração de status e verificação de existência em lote. */
+        LOTE(4, 1, 16);
+
+        private final int limiteInicial;
+        private final int limiteMinimo;
+        private final int limiteMaximo;
+
+        Classe(int limiteInicial, int limiteMinimo, int limiteMaximo) {
+            this.limiteInicial = limiteInicial;
+            this.limiteMinimo = limiteMinimo;
+            this.limiteMaximo = limiteMaximo;
+        }
+    }
+
+    private final Map<Classe, LimitadorConcorrencia> limitadores = new EnumMap<>(Classe.class);
+    private final Map<Classe, Counter> rejeitadas = new EnumMap<>(Classe.class);
+
+    public LimitesConcorrencia(Environment environment, MeterRegistry meterRegistry) {
+        double tolerancia = environment.getProperty("pedidos.concorrencia.tolerancia", Double.class, 1.5);
+        for (Classe classe : Classe.values()) {
+            String prefixo = "pedidos.concorrencia." + nome(classe) + ".";
+            LimitadorConcorrencia limitador = new LimitadorConcorrencia(
+                    environment.getProperty(prefixo + "limite-inicial", Integer.class, classe.limiteInicial),
+                    environment.getProperty(prefixo + "limite-minimo", Integer.class, classe.limiteMinimo),
+                    environment.getProperty(prefixo + "limite-maximo", Integer.class, classe.limiteMaximo),
+                    tolerancia, System::nanoTime);
+            limitadores.put(classe, limitador);
+
+            Gauge.builder("pedidos.concorrencia.limite", limitador, LimitadorConcorrencia::getLimite)
+                    .description("Limite atual de requisições simultâneas")
+                    .tag("classe", nome(classe))
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.concorrencia.em.uso", limitador, LimitadorConcorrencia::getEmUso)
+                    .description("Requisições em andamento")
+                    .tag("classe", nome(classe))
+                    .register(meterRegistry);
+            rejeitadas.put(classe, Counter.builder("pedidos.concorrencia.rejeitadas")
+                    .description("Requisições recusadas por exceder o limite de concorrência")
+                    .tag("classe", nome(classe))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Reserva uma vaga na classe, contando a recusa quando não há.
+     *
+     * @return Vazio se a classe está no limite; a requisição deve ser recusada.
+     */
+    public Optional<LimitadorConcorrencia.Permissao> tentarAdquirir(Classe classe) {
+        Optional<LimitadorConcorrencia.Permissao> permissao = limitadores.get(classe).tentarAdquirir();
+        if (permissao.isEmpty()) {
+            rejeitadas.get(classe).increment();
+        }
+        return permissao;
+    }
+
+    public LimitadorConcorrencia limitador(Classe classe) {
+        return limitadores.get(classe);
+    }
+
+    private static String nome(Classe classe) {
+        return classe.name().toLowerCase(Locale.ROOT);
+    }
+}
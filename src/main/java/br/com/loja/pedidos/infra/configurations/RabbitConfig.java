@@ -1,27 +1,99 @@
 package br.com.loja.pedidos.infra.configurations;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitConfig {
 
     public static final String TOPIC_EXCHANGE_NAME = "ex_topico_pagamento";
     public static final String QUEUE_NAME = "fila_pagamento";
     public static final String ROUTING_KEY = "topico-pagamento";
+    public static final String LOTE_CONTAINER_FACTORY = "pagamentoLoteContainerFactory";
+
+    /**
+     * Exchange das partições da fila de pagamentos. O {@code RoteadorPagamentos} republica cada
+     * mensagem da {@link #QUEUE_NAME} com o número da partição do pedido como routing key.
+     */
+    public static final String PARTICOES_EXCHANGE_NAME = "ex_pagamento_particoes";
+    public static final String PARTICAO_CONTAINER_FACTORY = "pagamentoParticaoContainerFactory";
+    public static final String ROTEADOR_CONTAINER_FACTORY = "roteadorPagamentoContainerFactory";
+
+    /** Exchange onde o relay do outbox publica os eventos de pedidos. */
+    public static final String PEDIDOS_EXCHANGE_NAME = "ex_topico_pedidos";
+    public static final String ROUTING_KEY_PEDIDO_CRIADO = "pedido.criado";
+    public static final String ROUTING_KEY_STATUS_ALTERADO = "pedido.status-alterado";
 
     @Bean
     Queue queue() {
         return new Queue(QUEUE_NAME, true); // fila durável
     }
 
+    /** Nome da fila de uma partição: {@code fila_pagamento.0}, {@code fila_pagamento.1}, ... */
+    public static String nomeFilaParticao(int particao) {
+        return QUEUE_NAME + "." + particao;
+    }
+
     @Bean
     TopicExchange exchange() {
         return new TopicExchange(TOPIC_EXCHANGE_NAME);
     }
     
+    /**
+     * Exchange de saída com os eventos de pedidos. Cada consumidor declara e vincula a própria
+     * fila, por exemplo com {@code pedido.#} para receber todos os eventos.
+     */
+    @Bean
+    TopicExchange pedidosExchange() {
+        return new TopicExchange(PEDIDOS_EXCHANGE_NAME);
+    }
+
+    /**
+     * Fila temporária desta instância com as mudanças de status publicadas pelo relay do outbox,
+     * consumida pelo {@code FeedStatusPedidos}. Exclusiva e removida quando a conexão cai: cada
+     * instância recebe todas as mudanças, de qualquer instância, enquanto está no ar.
+     */
+    @Bean
+    AnonymousQueue filaFeedStatus() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("pedidos.feed-status."));
+    }
+
+    @Bean
+    Binding bindingFeedStatus(AnonymousQueue filaFeedStatus, TopicExchange pedidosExchange) {
+        return BindingBuilder.bind(filaFeedStatus).to(pedidosExchange).with(ROUTING_KEY_STATUS_ALTERADO);
+    }
+
+    @Bean
+    DirectExchange particoesExchange() {
+        return new DirectExchange(PARTICOES_EXCHANGE_NAME);
+    }
+
+    /**
+     * Filas das partições, vinculadas à {@link #PARTICOES_EXCHANGE_NAME} pelo próprio número.
+     * São filas de consumidor único ativo ({@code x-single-active-consumer}): com várias instâncias,
+     * só uma consome cada partição por vez e as demais ficam de reserva, o que mantém a ordem.
+     */
+    @Bean
+    Declarables particoesPagamento(DirectExchange particoesExchange,
+                                   @Value("${pedidos.pagamento.particoes.quantidade:8}") int quantidade) {
+        List<Declarable> declaraveis = new ArrayList<>();
+        for (int particao = 0; particao < quantidade; particao++) {
+            Queue fila = QueueBuilder.durable(nomeFilaParticao(particao)).singleActiveConsumer().build();
+            declaraveis.add(fila);
+            declaraveis.add(BindingBuilder.bind(fila).to(particoesExchange).with(String.valueOf(particao)));
+        }
+        return new Declarables(declaraveis);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -32,4 +104,67 @@ public class RabbitConfig {
         // Associa a fila com a exchange pelo routing key "topico-pedidos"
         return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
     }
+
+    /**
+     * Fábrica de containers para consumo em lote da fila de pagamentos.
+     * O container entrega ao listener até {@code tamanho} mensagens por vez, ou o que chegou
+     * dentro de {@code janela-ms}, e só envia os acks depois que o listener retorna.
+     */
+    @Bean(LOTE_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory pagamentoLoteContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${pedidos.pagamento.lote.tamanho:500}") int tamanho,
+            @Value("${pedidos.pagamento.lote.janela-ms:200}") long janelaMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanho);
+        factory.setBatchReceiveTimeout(janelaMs);
+        factory.setPrefetchCount(tamanho);
+        // Um consumidor por partição: mais de um processaria eventos do mesmo pedido em paralelo.
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        return factory;
+    }
+
+    /**
+     * Fábrica de containers para o consumo mensagem a mensagem de uma partição, com um único
+     * consumidor e até {@code prefetch} mensagens em trânsito.
+     */
+    @Bean(PARTICAO_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory pagamentoParticaoContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${pedidos.pagamento.particoes.prefetch:50}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        return factory;
+    }
+
+    /**
+     * Fábrica do container que lê a {@link #QUEUE_NAME} em blocos e a distribui entre as partições,
+     * com um único consumidor.
+     */
+    @Bean(ROTEADOR_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory roteadorPagamentoContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${pedidos.pagamento.particoes.roteamento.tamanho-bloco:250}") int tamanhoBloco,
+            @Value("${pedidos.pagamento.particoes.roteamento.janela-ms:20}") long janelaMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanhoBloco);
+        factory.setBatchReceiveTimeout(janelaMs);
+        factory.setPrefetchCount(tamanhoBloco);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        return factory;
+    }
 }
@@ -0,0 +1,77 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Leitura em réplicas, ativada ao configurar {@code pedidos.banco.replicas}.
+ *
+ * Substitui o {@link DataSource} do Spring Boot por um {@link RoteamentoLeituraDataSource}:
+ * o primário continua configurado em {@code spring.datasource} (inclusive {@code hikari}) e cada
+ * réplica é uma lista de propriedades do Hikari ({@code jdbc-url}, {@code username},
+ * {@code password}, {@code maximum-pool-size}...). Os pools das réplicas são somente leitura e só
+ * conectam quando o atraso é medido pela primeira vez, então uma réplica fora do ar não impede a
+ * subida da aplicação.
+ *
+ * Com threads virtuais, o limite de conexões simultâneas é aplicado pelo roteador a cada pool,
+ * e não pelo {@link ThreadsVirtuaisConfig}, que só envolve o pool Hikari do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = RoteamentoLeituraConfig.PROPRIEDADE_REPLICAS)
+public class RoteamentoLeituraConfig {
+
+    /** Presente apenas quando há ao menos uma réplica configurada. */
+    public static final String PROPRIEDADE_REPLICAS = "pedidos.banco.replicas[0].jdbc-url";
+
+    @Bean
+    @Primary
+    RoteamentoLeituraDataSource dataSource(DataSourceProperties propriedades, Environment environment,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${pedidos.banco.atraso-maximo:PT5S}") Duration atrasoMaximo,
+                                           @Value("${pedidos.banco.verificacao-atraso:PT2S}") Duration intervaloVerificacao,
+                                           @Value("${pedidos.banco.espera-maxima:PT2S}") Duration esperaMaximaConexao) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        if (primario.getPoolName() == null) {
+            primario.setPoolName("primario");
+        }
+        primario.setMetricRegistry(meterRegistry);
+
+        List<HikariConfig> configuracoes = binder.bind("pedidos.banco.replicas", Bindable.listOf(HikariConfig.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < configuracoes.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            configuracoes.get(i).copyStateTo(replica);
+            replica.setReadOnly(true);
+            if (replica.getPoolName() == null) {
+                replica.setPoolName("replica-" + i);
+            }
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        Function<HikariDataSource, DataSource> limitador = Threading.VIRTUAL.isActive(environment)
+                ? pool -> new LimitadorConexoesDataSource(pool, pool.getMaximumPoolSize(), esperaMaximaConexao)
+                : pool -> pool;
+        return new RoteamentoLeituraDataSource(primario, replicas, atrasoMaximo, intervaloVerificacao, limitador, meterRegistry);
+    }
+}
@@ -0,0 +1,213 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link DataSource} que envia as transações somente leitura para réplicas do PostgreSQL e todo o
+ * resto para o primário.
+ *
+ * A conexão física só é obtida no primeiro comando, quando o Spring já marcou a conexão como
+ * somente leitura ({@code @Transactional(readOnly = true)} ou os métodos de leitura dos
+ * repositórios Spring Data); é isso que permite escolher o banco pela transação. As réplicas são
+ * usadas em rodízio, cada uma com o próprio pool Hikari.
+ *
+ * O atraso de replicação de cada réplica é medido a cada {@code intervaloVerificacao}. Uma réplica
+ * atrasada mais que {@code atrasoMaximo}, inacessível ou ainda não verificada fica fora do rodízio,
+ * e sem réplicas disponíveis a leitura vai para o primário. As leituras também vão para o primário
+ * enquanto a thread estiver marcada pelo {@link ContextoLeitura}.
+ *
+ * Com threads virtuais, cada pool recebe o próprio {@link LimitadorConexoesDataSource}, dimensionado
+ * pelo seu tamanho máximo. Como o limitador fica atrás do proxy preguiçoso, a permissão só é tomada
+ * quando a conexão física é obtida, e leituras nas réplicas não disputam as permissões do primário.
+ *
+ * Métricas: {@code pedidos.banco.leituras} (tag {@code destino}, com o nome do pool) e
+ * {@code pedidos.banco.replica.atraso}, em segundos, NaN para réplicas indisponíveis.
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final String CONSULTA_ATRASO = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long atrasoMaximoNanos;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Counter leiturasPrimario;
+    private final ScheduledExecutorService verificador;
+
+    /**
+     * @param primario             Pool do banco primário.
+     * @param replicas             Pools das réplicas.
+     * @param atrasoMaximo         Atraso de replicação tolerado para ler de uma réplica.
+     * @param intervaloVerificacao Intervalo entre as medições de atraso.
+     * @param limitador            Aplicado a cada pool, primário e réplicas; ex.: o {@link LimitadorConexoesDataSource}.
+     */
+    public RoteamentoLeituraDataSource(HikariDataSource primario, List<HikariDataSource> replicas,
+                                       Duration atrasoMaximo, Duration intervaloVerificacao,
+                                       Function<HikariDataSource, DataSource> limitador, MeterRegistry meterRegistry) {
+        this(limitador.apply(primario), nomes(primario, replicas), replicas.stream().map(limitador).toList(),
+                atrasoMaximo, meterRegistry,
+                Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("atraso-replicas").daemon().factory()));
+        verificador.scheduleWithFixedDelay(this::verificarAtrasos, 0, intervaloVerificacao.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    RoteamentoLeituraDataSource(DataSource primario, List<String> nomes, List<? extends DataSource> replicas,
+                                Duration atrasoMaximo, MeterRegistry meterRegistry, ScheduledExecutorService verificador) {
+        super(primario);
+        this.primario = primario;
+        this.atrasoMaximoNanos = atrasoMaximo.toNanos();
+        this.verificador = verificador;
+        this.leiturasPrimario = contadorLeituras(meterRegistry, nomes.get(0));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica(nomes.get(i + 1), replicas.get(i), contadorLeituras(meterRegistry, nomes.get(i + 1)));
+            Gauge.builder("pedidos.banco.replica.atraso", replica, r -> r.atrasoNanos < 0 ? Double.NaN : r.atrasoNanos / 1e9)
+                    .description("Atraso de replicação medido na réplica")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        }
+        setReadOnlyDataSource(new Leitura());
+    }
+
+    /**
+     * Mede o atraso de cada réplica. Réplicas que falham na medição ficam indisponíveis até a
+     * próxima medição bem-sucedida.
+     */
+    void verificarAtrasos() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection();
+                 Statement comando = conexao.createStatement();
+                 ResultSet resultado = comando.executeQuery(CONSULTA_ATRASO)) {
+                resultado.next();
+                long atraso = (long) (resultado.getDouble(1) * 1e9);
+                if (atraso > atrasoMaximoNanos && replica.atrasoNanos <= atrasoMaximoNanos) {
+                    log.warn("Réplica {} atrasada {} ms; leituras desviadas", replica.nome, atraso / 1_000_000);
+                }
+                replica.atrasoNanos = Math.max(atraso, 0);
+            } catch (SQLException | RuntimeException e) {
+                if (replica.atrasoNanos >= 0) {
+                    log.warn("Réplica {} indisponível; leituras desviadas: {}", replica.nome, e.getMessage());
+                }
+                replica.atrasoNanos = -1;
+            }
+        }
+    }
+
+    /** Indica se a réplica está no rodízio de leitura. */
+    boolean isDisponivel(int indice) {
+        return replicas.get(indice).isDisponivel();
+    }
+
+    @Override
+    public void close() {
+        if (verificador != null) {
+            verificador.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            fechar(replica.dataSource);
+        }
+        fechar(primario);
+    }
+
+    private static void fechar(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable fechavel) {
+            try {
+                fechavel.close();
+            } catch (Exception e) {
+                log.warn("Falha ao fechar pool de conexões: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Counter contadorLeituras(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("pedidos.banco.leituras")
+                .description("Conexões de transações somente leitura, por banco de destino")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    private static List<String> nomes(HikariDataSource primario, List<HikariDataSource> replicas) {
+        List<String> nomes = new ArrayList<>();
+        nomes.add(primario.getPoolName());
+        replicas.forEach(replica -> nomes.add(replica.getPoolName()));
+        return nomes;
+    }
+
+    /** DataSource das conexões somente leitura: uma réplica disponível ou, sem nenhuma, o primário. */
+    private final class Leitura extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!ContextoLeitura.isPrimario() && !replicas.isEmpty()) {
+                int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get((inicio + i) % replicas.size());
+                    if (!replica.isDisponivel()) {
+                        continue;
+                    }
+                    try {
+                        Connection conexao = replica.dataSource.getConnection();
+                        replica.leituras.increment();
+                        return conexao;
+                    } catch (SQLException e) {
+                        log.warn("Falha ao conectar na réplica {}; tentando a próxima: {}", replica.nome, e.getMessage());
+                        replica.atrasoNanos = -1;
+                    }
+                }
+            }
+            leiturasPrimario.increment();
+            return primario.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Credenciais vêm da configuração de cada pool");
+        }
+    }
+
+    private final class Replica {
+
+        private final String nome;
+        private final DataSource dataSource;
+        private final Counter leituras;
+        /** Último atraso medido; negativo enquanto não verificada ou inacessível. */
+        private volatile long atrasoNanos = -1;
+
+        Replica(String nome, DataSource dataSource, Counter leituras) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.leituras = leituras;
+        }
+
+        boolean isDisponivel() {
+            long atraso = atrasoNanos;
+            return atraso >= 0 && atraso <= atrasoMaximoNanos;
+        }
+    }
+}
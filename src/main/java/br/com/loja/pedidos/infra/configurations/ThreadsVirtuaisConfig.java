@@ -0,0 +1,57 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de execução em threads virtuais, ativado por {@code spring.threads.virtual.enabled=true}.
+ *
+ * Com a propriedade ligada o Spring Boot já executa as requisições do Tomcat, os containers do
+ * RabbitMQ (inclusive o de lote) e as tarefas agendadas em threads virtuais. Esta configuração
+ * completa o modo com o executor do servidor gRPC e protege o pool de conexões com o
+ * {@link LimitadorConexoesDataSource}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    private static final String BEAN_DATASOURCE = "dataSource";
+
+    /**
+     * Executa as chamadas gRPC em uma thread virtual por chamada, no lugar do pool fixo padrão.
+     */
+    @Bean
+    GrpcServerConfigurer executorVirtualGrpc() {
+        return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Envolve o pool Hikari da aplicação (o bean {@value #BEAN_DATASOURCE} do Spring Boot) no
+     * {@link LimitadorConexoesDataSource}, com tantas permissões quanto o tamanho máximo do pool.
+     * Outros DataSources não são alterados; o limitador fecha o pool no encerramento do contexto.
+     * Com réplicas, o bean é o {@link RoteamentoLeituraDataSource}, que limita cada pool por conta própria.
+     */
+    @Bean
+    static BeanPostProcessor limitadorConexoesPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!BEAN_DATASOURCE.equals(beanName) || !(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                Duration esperaMaxima = environment.getProperty("pedidos.banco.espera-maxima", Duration.class,
+                        Duration.ofSeconds(2));
+                return new LimitadorConexoesDataSource(pool, pool.getMaximumPoolSize(), esperaMaxima);
+            }
+        };
+    }
+}
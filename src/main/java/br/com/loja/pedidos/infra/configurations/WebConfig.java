@@ -0,0 +1,21 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import br.com.loja.pedidos.infra.webapi.PedidoProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Adiciona o conversor protobuf ao final da lista: a ordem dos conversores define o tipo
+     * preferido quando o cliente aceita qualquer tipo, e ele deve continuar sendo JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PedidoProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,233 @@
+package br.com.loja.pedidos.infra.grpc;
+
+import br.com.loja.grpc.BuscaPedidoRequest;
+import br.com.loja.grpc.ConsultaPedidoServiceGrpc;
+import br.com.loja.grpc.ListaPedidosRequest;
+import br.com.loja.grpc.Pedido;
+import br.com.loja.grpc.PedidoListado;
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.configurations.LimitadorConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia.Classe;
+import br.com.loja.pedidos.infra.proto.PedidoProtoMapper;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Leitura de pedidos por gRPC, para serviços internos que antes usavam a API REST.
+ *
+ * {@code BuscaPedido} passa pelo cache e pelo carregamento em lote de
+ * {@link DomainServices#buscaPedidoPorId(Long)}. {@code ListaPedidos} percorre a listagem por keyset
+ * de {@link DomainServices#listarPedidos} em páginas de {@code pedidos.grpc.lista.tamanho-pagina},
+ * cada uma em sua própria transação curta, e envia um pedido por mensagem.
+ *
+ * O {@link LimiteConcorrenciaInterceptor} limita apenas as chamadas unárias. Como um stream de
+ * {@code ListaPedidos} pode ficar aberto por muito tempo, aqui a vaga da classe
+ * {@link Classe#LISTAGEM} é reservada a cada página lida do banco e liberada logo após a leitura,
+ * como em uma requisição de {@code GET /api/pedidos}; sem vaga, o stream é encerrado com
+ * {@code RESOURCE_EXHAUSTED} e o cliente retoma com o cursor do último pedido recebido.
+ */
+@Slf4j
+@GrpcService
+public class ConsultaPedidoServiceImpl extends ConsultaPedidoServiceGrpc.ConsultaPedidoServiceImplBase {
+
+    private final DomainServices domainServices;
+    private final int tamanhoPagina;
+    private final String compressao;
+    /** Nulo com {@code pedidos.concorrencia.habilitado=false}. */
+    private final LimitesConcorrencia limites;
+
+    public ConsultaPedidoServiceImpl(DomainServices domainServices,
+                                     @Value("${pedidos.grpc.lista.tamanho-pagina:500}") int tamanhoPagina,
+                                     @Value("${pedidos.grpc.lista.compressao:gzip}") String compressao,
+                                     @Nullable LimitesConcorrencia limites) {
+        this.domainServices = domainServices;
+        this.tamanhoPagina = tamanhoPagina;
+        this.compressao = compressao;
+        this.limites = limites;
+    }
+
+    /**
+     * Retorna o pedido com o ID informado, ou {@code NOT_FOUND}. Falhas de acesso ao banco são
+     * respondidas com {@code UNAVAILABLE}, como na listagem, para que o cliente possa repetir.
+     */
+    @Override
+    public void buscaPedido(BuscaPedidoRequest request, StreamObserver<Pedido> responseObserver) {
+        log.debug("Buscando pedido com ID {} via gRPC", request.getId());
+        Pedido pedido;
+        try {
+            pedido = PedidoProtoMapper.paraProto(domainServices.buscaPedidoPorId(request.getId()));
+        } catch (EntityNotFoundException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Busca gRPC do pedido {} falhou no banco: {}", request.getId(), e.getMessage());
+            responseObserver.onError(Status.UNAVAILABLE.withDescription("Falha ao ler o pedido; tente novamente")
+                    .asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(pedido);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Envia os pedidos do filtro, um por mensagem, respeitando o controle de fluxo: só envia
+     * enquanto o transporte está pronto e só lê a próxima página do banco quando a anterior foi
+     * toda enviada. Um cliente lento faz a listagem esperar, sem acumular pedidos em memória.
+     *
+     * As mensagens são comprimidas com {@code pedidos.grpc.lista.compressao} se o cliente aceitar
+     * esse algoritmo; caso contrário, vão sem compressão. Filtros ou cursor inválidos são recusados
+     * com {@code INVALID_ARGUMENT}, e falhas de acesso ao banco encerram o stream com
+     * {@code UNAVAILABLE}, e a falta de vaga de listagem com {@code RESOURCE_EXHAUSTED}; em ambos os
+     * casos o cliente retoma com o cursor do último pedido recebido.
+     */
+    @Override
+    public void listaPedidos(ListaPedidosRequest request, StreamObserver<PedidoListado> responseObserver) {
+        ServerCallStreamObserver<PedidoListado> serverObserver = (ServerCallStreamObserver<PedidoListado>) responseObserver;
+        Listagem listagem;
+        try {
+            if (request.getLimite() < 0) {
+                throw new IllegalArgumentException("Limite negativo: " + request.getLimite());
+            }
+            listagem = new Listagem(serverObserver, filtro(request), CursorPedidoDTO.decodificar(request.getCursor()),
+                    request.getLimite() == 0 ? Long.MAX_VALUE : request.getLimite());
+        } catch (IllegalArgumentException e) {
+            log.warn("Parâmetros de listagem gRPC inválidos: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        log.debug("Listando pedidos via gRPC. filtro={}, cursor={}, limite={}", listagem.filtro, request.getCursor(),
+                request.getLimite());
+        serverObserver.setCompression(compressao);
+        serverObserver.setOnCancelHandler(listagem::cancelar);
+        serverObserver.setOnReadyHandler(listagem);
+    }
+
+    private static FiltroPedidosDTO filtro(ListaPedidosRequest request) {
+        return FiltroPedidosDTO.builder()
+                .status(request.getStatus().isEmpty() ? null : StatusPedido.de(request.getStatus()))
+                .inicio(request.hasInicio() ? PedidoProtoMapper.deTimestamp(request.getInicio()) : null)
+                .fim(request.hasFim() ? PedidoProtoMapper.deTimestamp(request.getFim()) : null)
+                .build();
+    }
+
+    /**
+     * Estado de uma chamada de {@code ListaPedidos}. Roda no executor serializado da chamada, a cada
+     * sinal de prontidão do transporte, por isso não precisa de sincronização.
+     */
+    private final class Listagem implements Runnable {
+        private final ServerCallStreamObserver<PedidoListado> observer;
+        private final FiltroPedidosDTO filtro;
+        private CursorPedidoDTO cursor;
+        private long restantes;
+        private Iterator<PedidoEntity> pagina = Collections.emptyIterator();
+        private boolean ultimaPagina;
+        private boolean encerrada;
+
+        private Listagem(ServerCallStreamObserver<PedidoListado> observer, FiltroPedidosDTO filtro,
+                         CursorPedidoDTO cursor, long restantes) {
+            this.observer = observer;
+            this.filtro = filtro;
+            this.cursor = cursor;
+            this.restantes = restantes;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!encerrada && observer.isReady()) {
+                    if (!pagina.hasNext()) {
+                        if (ultimaPagina || restantes == 0) {
+                            encerrada = true;
+                            observer.onCompleted();
+                            return;
+                        }
+                        if (!carregarPagina()) {
+                            encerrar(Status.RESOURCE_EXHAUSTED.withDescription(
+                                    "Limite de concorrência de " + Classe.LISTAGEM + " atingido; retome a partir do último cursor"));
+                            return;
+                        }
+                        continue;
+                    }
+                    PedidoEntity pedido = pagina.next();
+                    cursor = new CursorPedidoDTO(pedido.getDataHoraRealizacaoPedido(), pedido.getId());
+                    observer.onNext(PedidoListado.newBuilder()
+                            .setPedido(PedidoProtoMapper.paraProto(pedido))
+                            .setCursor(cursor.codificar())
+                            .build());
+                    restantes--;
+                }
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Listagem gRPC interrompida por falha no banco: {}", e.getMessage());
+                encerrar(Status.UNAVAILABLE.withDescription("Falha ao ler pedidos; retome a partir do último cursor"));
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado na listagem gRPC de pedidos", e);
+                encerrar(Status.INTERNAL.withDescription("Erro ao listar pedidos"));
+            }
+        }
+
+        /**
+         * Lê a próxima página, sem passar do limite de pedidos da chamada, com uma vaga de listagem
+         * reservada só durante a leitura.
+         *
+         * @return {@code false} se não havia vaga; nada foi lido.
+         */
+        private boolean carregarPagina() {
+            if (limites == null) {
+                ler();
+                return true;
+            }
+            Optional<LimitadorConcorrencia.Permissao> reserva = limites.tentarAdquirir(Classe.LISTAGEM);
+            if (reserva.isEmpty()) {
+                return false;
+            }
+            LimitadorConcorrencia.Permissao permissao = reserva.get();
+            try {
+                ler();
+            } catch (DataAccessException | TransactionException e) {
+                permissao.descartar();
+                throw e;
+            } catch (RuntimeException e) {
+                permissao.ignorar();
+                throw e;
+            }
+            permissao.sucesso();
+            return true;
+        }
+
+        private void ler() {
+            int tamanho = (int) Math.min(tamanhoPagina, restantes);
+            PaginaPedidosDTO proxima = domainServices.listarPedidos(filtro, cursor, tamanho);
+            pagina = proxima.getItens().iterator();
+            ultimaPagina = proxima.getProximoCursor() == null;
+        }
+
+        private void encerrar(Status status) {
+            if (!encerrada) {
+                encerrada = true;
+                observer.onError(status.asRuntimeException());
+            }
+        }
+
+        private void cancelar() {
+            encerrada = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.loja.pedidos.infra.grpc;
+
+import br.com.loja.pedidos.infra.configurations.Correlacao;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Locale;
+
+/**
+ * Associa cada chamada gRPC a um ID de {@link Correlacao}, recebido nos metadados
+ * {@code x-correlation-id} ou gerado, e o devolve nos cabeçalhos da resposta.
+ *
+ * Os callbacks de uma chamada podem rodar em threads diferentes, então o ID é colocado no MDC a
+ * cada callback e removido ao fim dele.
+ */
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacaoInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> CHAVE =
+            Metadata.Key.of(Correlacao.CABECALHO.toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        String id = Correlacao.normalizar(headers.get(CHAVE));
+        ServerCall<Q, R> chamada = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata cabecalhos) {
+                cabecalhos.put(CHAVE, id);
+                super.sendHeaders(cabecalhos);
+            }
+        };
+        ServerCall.Listener<Q> listener;
+        try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+            listener = next.startCall(chamada, headers);
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(Q mensagem) {
+                try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+                    super.onMessage(mensagem);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+                    super.onHalfClose();
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+                    super.onCancel();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+                    super.onComplete();
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+                    super.onReady();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.loja.pedidos.infra.grpc;
+
+import br.com.loja.pedidos.infra.configurations.LimitadorConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia.Classe;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Aplica os {@link LimitesConcorrencia} às chamadas gRPC unárias. Sem vaga na classe do método a
+ * chamada é encerrada com {@code RESOURCE_EXHAUSTED} antes de chegar ao serviço.
+ *
+ * A verificação de existência de um pedido tem a classe {@link Classe#EXISTENCIA}, só dela, e a
+ * de um lote de IDs a classe {@link Classe#LOTE}; outros métodos unários, como {@code BuscaPedido},
+ * contam como {@link Classe#CONSULTA}. Chamadas com stream, como {@code ListaPedidos}, não são
+ * limitadas aqui, pois ficam abertas por tempo indeterminado; {@link ConsultaPedidoServiceImpl}
+ * reserva uma vaga de {@link Classe#LISTAGEM} a cada página que lê do banco.
+ */
+@GrpcGlobalServerInterceptor
+@ConditionalOnProperty(name = LimitesConcorrencia.PROPRIEDADE_HABILITADO, havingValue = "true", matchIfMissing = true)
+public class LimiteConcorrenciaInterceptor implements ServerInterceptor {
+
+    private static final Map<String, Classe> CLASSES = Map.of(
+            "retornaTrueSeExiste", Classe.EXISTENCIA,
+            "retornaExistentes", Classe.LOTE);
+
+    /** Status que indicam sobrecarga do servidor e reduzem o limite. */
+    private static final Set<Status.Code> SOBRECARGA = EnumSet.of(
+            Status.Code.DEADLINE_EXCEEDED, Status.Code.UNAVAILABLE, Status.Code.RESOURCE_EXHAUSTED, Status.Code.INTERNAL);
+
+    private final LimitesConcorrencia limites;
+
+    public LimiteConcorrenciaInterceptor(LimitesConcorrencia limites) {
+        this.limites = limites;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        MethodDescriptor<Q, R> metodo = call.getMethodDescriptor();
+        if (metodo.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.startCall(call, headers);
+        }
+        Classe classe = classificar(metodo.getBareMethodName());
+        Optional<LimitadorConcorrencia.Permissao> reserva = limites.tentarAdquirir(classe);
+        if (reserva.isEmpty()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                    "Limite de concorrência de " + classe + " atingido; tente novamente"), new Metadata());
+            return new ServerCall.Listener<>() { };
+        }
+        LimitadorConcorrencia.Permissao permissao = reserva.get();
+        ServerCall<Q, R> chamada = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (status.isOk()) {
+                    permissao.sucesso();
+                } else if (SOBRECARGA.contains(status.getCode())) {
+                    permissao.descartar();
+                } else {
+                    permissao.ignorar();
+                }
+                super.close(status, trailers);
+            }
+        };
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(chamada, headers)) {
+                @Override
+                public void onCancel() {
+                    permissao.ignorar();
+                    super.onCancel();
+                }
+            };
+        } catch (RuntimeException e) {
+            permissao.descartar();
+            throw e;
+        }
+    }
+
+    static Classe classificar(String metodo) {
+        return CLASSES.getOrDefault(metodo, Classe.CONSULTA);
+    }
+}
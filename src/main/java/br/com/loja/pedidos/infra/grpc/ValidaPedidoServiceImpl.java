@@ -2,45 +2,168 @@ package br.com.loja.pedidos.infra.grpc;
 
 import br.com.loja.grpc.ValidaPedidoRequest;
 import br.com.loja.grpc.ValidaPedidoResponse;
+import br.com.loja.grpc.ValidaPedidosLoteRequest;
+import br.com.loja.grpc.ValidaPedidosLoteResponse;
 import br.com.loja.pedidos.domain.DomainServices;
-import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import br.com.loja.grpc.ValidaPedidoServiceGrpc;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.dao.DataAccessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 @Slf4j
 @GrpcService
 @RequiredArgsConstructor
 public class ValidaPedidoServiceImpl extends ValidaPedidoServiceGrpc.ValidaPedidoServiceImplBase {
 
+    /** Limite de IDs por lote, para que uma única requisição não gere uma consulta gigante. */
+    static final int MAX_IDS_POR_LOTE = 10_000;
+
     private final DomainServices domainServices;
 
     /**
      * Método gRPC que verifica se o pedido com o ID fornecido existe.
      * Retorna true se existir, false caso contrário.
+     * A resposta vem do índice em memória de IDs; pedido inexistente não é tratado como erro.
+     * Falhas de acesso ao banco respondem {@code false} e são registradas sem stack trace.
      */
     @Override
     public void retornaTrueSeExiste(ValidaPedidoRequest request, StreamObserver<ValidaPedidoResponse> responseObserver) {
         long pedidoId = request.getId();
-        log.info("Recebida requisição para validar existência do pedido com ID: {}", pedidoId);
+        log.debug("Recebida requisição para validar existência do pedido com ID: {}", pedidoId);
 
         boolean existe = false;
         try {
-            PedidoEntity pedido = domainServices.buscaPedidoPorId(pedidoId);
-            existe = (pedido != null);
+            existe = domainServices.existePedido(pedidoId);
+        } catch (DataAccessException e) {
+            log.warn("Erro ao buscar pedido com ID {}: {}", pedidoId, e.getMessage());
         } catch (Exception e) {
-            log.error("Erro ao buscar pedido com ID {}: {}", pedidoId, e.getMessage(), e);
+            log.error("Erro inesperado ao buscar pedido com ID {}", pedidoId, e);
         }
 
         ValidaPedidoResponse response = ValidaPedidoResponse.newBuilder()
                 .setSuccess(existe)
                 .build();
 
-        log.info("Resposta para pedido ID {}: {}", pedidoId, existe);
+        log.debug("Resposta para pedido ID {}: {}", pedidoId, existe);
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
 
-}
\ No newline at end of file
+    /**
+     * Método gRPC que verifica a existência de um lote de pedidos com uma única consulta ao banco.
+     * Lotes acima de {@link #MAX_IDS_POR_LOTE} IDs são recusados com {@code INVALID_ARGUMENT}.
+     */
+    @Override
+    public void retornaExistentes(ValidaPedidosLoteRequest request, StreamObserver<ValidaPedidosLoteResponse> responseObserver) {
+        log.debug("Recebida requisição para validar existência de {} pedidos.", request.getIdsCount());
+        if (request.getIdsCount() > MAX_IDS_POR_LOTE) {
+            responseObserver.onError(loteGrande(request));
+            return;
+        }
+        responseObserver.onNext(validarLote(request));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Variante bidirecional de {@link #retornaExistentes}. Cada lote recebido gera uma resposta,
+     * na mesma ordem.
+     *
+     * O controle de fluxo é manual: um novo lote só é pedido ao cliente quando a resposta anterior
+     * pôde ser enviada sem acumular no buffer de saída, de modo que um cliente que não lê as
+     * respostas também deixa de receber pedidos de novos lotes.
+     */
+    @Override
+    public StreamObserver<ValidaPedidosLoteRequest> retornaExistentesStream(
+            StreamObserver<ValidaPedidosLoteResponse> responseObserver) {
+        ServerCallStreamObserver<ValidaPedidosLoteResponse> serverObserver =
+                (ServerCallStreamObserver<ValidaPedidosLoteResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+        ControleDeFluxo controle = new ControleDeFluxo(serverObserver);
+        serverObserver.setOnReadyHandler(controle);
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ValidaPedidosLoteRequest request) {
+                if (request.getIdsCount() > MAX_IDS_POR_LOTE) {
+                    serverObserver.onError(loteGrande(request));
+                    return;
+                }
+                serverObserver.onNext(validarLote(request));
+                controle.pedirProximo();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("Stream de validação de pedidos encerrado pelo cliente: {}", Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    private ValidaPedidosLoteResponse validarLote(ValidaPedidosLoteRequest request) {
+        List<Long> ids = request.getIdsList();
+        Set<Long> existentes = domainServices.buscarIdsExistentes(ids);
+
+        byte[] bitmap = new byte[(ids.size() + 7) / 8];
+        Set<Long> encontrados = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (existentes.contains(ids.get(i))) {
+                bitmap[i / 8] |= (byte) (1 << (i % 8));
+                encontrados.add(ids.get(i));
+            }
+        }
+
+        return ValidaPedidosLoteResponse.newBuilder()
+                .addAllIdsEncontrados(encontrados)
+                .setBitmap(ByteString.copyFrom(bitmap))
+                .build();
+    }
+
+    private static Throwable loteGrande(ValidaPedidosLoteRequest request) {
+        return Status.INVALID_ARGUMENT
+                .withDescription("Lote com " + request.getIdsCount() + " IDs excede o limite de " + MAX_IDS_POR_LOTE + ".")
+                .asRuntimeException();
+    }
+
+    /**
+     * Pede ao cliente um lote por vez, apenas enquanto o transporte de saída estiver pronto.
+     * Roda no executor serializado da chamada, por isso não precisa de sincronização.
+     */
+    private static final class ControleDeFluxo implements Runnable {
+        private final ServerCallStreamObserver<?> serverObserver;
+        private boolean aguardandoProntidao = true;
+
+        private ControleDeFluxo(ServerCallStreamObserver<?> serverObserver) {
+            this.serverObserver = serverObserver;
+        }
+
+        @Override
+        public void run() {
+            if (aguardandoProntidao && serverObserver.isReady()) {
+                aguardandoProntidao = false;
+                serverObserver.request(1);
+            }
+        }
+
+        void pedirProximo() {
+            if (serverObserver.isReady()) {
+                serverObserver.request(1);
+            } else {
+                aguardandoProntidao = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.loja.pedidos.infra.proto;
+
+import br.com.loja.grpc.ItemPedido;
+import br.com.loja.grpc.Pedido;
+import br.com.loja.grpc.PedidoList;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.entities.ItemPedidoEntity;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import com.google.protobuf.Timestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversão entre {@link PedidoEntity} e as mensagens {@link Pedido} e {@link PedidoList}.
+ *
+ * Campos nulos ficam ausentes na mensagem. As datas, sem fuso na entidade, são convertidas para
+ * {@link Timestamp} com o fuso da aplicação, o mesmo usado no {@code Last-Modified}.
+ */
+public final class PedidoProtoMapper {
+
+    private PedidoProtoMapper() {
+    }
+
+    public static Pedido paraProto(PedidoEntity pedido) {
+        Pedido.Builder builder = Pedido.newBuilder();
+        if (pedido.getId() != null) {
+            builder.setId(pedido.getId());
+        }
+        if (pedido.getStatus() != null) {
+            builder.setStatus(pedido.getStatus());
+        }
+        if (pedido.getDataHoraRealizacaoPedido() != null) {
+            builder.setDataHoraRealizacaoPedido(paraTimestamp(pedido.getDataHoraRealizacaoPedido()));
+        }
+        if (pedido.getVersao() != null) {
+            builder.setVersao(pedido.getVersao());
+        }
+        if (pedido.getAtualizadoEm() != null) {
+            builder.setAtualizadoEm(paraTimestamp(pedido.getAtualizadoEm()));
+        }
+        return builder.build();
+    }
+
+    public static PedidoList paraProto(PaginaPedidosDTO pagina) {
+        PedidoList.Builder builder = PedidoList.newBuilder();
+        for (PedidoEntity pedido : pagina.getItens()) {
+            builder.addItens(paraProto(pedido));
+        }
+        if (pagina.getProximoCursor() != null) {
+            builder.setProximoCursor(pagina.getProximoCursor());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converte um pedido recebido pela API. Como no JSON, campos ausentes ficam nulos na entidade e
+     * recebem os valores padrão na criação.
+     *
+     * @throws NumberFormatException se o preço de um item não for um decimal válido.
+     */
+    public static PedidoEntity deProto(Pedido pedido) {
+        List<ItemPedidoEntity> itens = new ArrayList<>(pedido.getItensPedidoCount());
+        for (ItemPedido item : pedido.getItensPedidoList()) {
+            itens.add(ItemPedidoEntity.builder()
+                    .produto(item.getProduto().isEmpty() ? null : item.getProduto())
+                    .quantidade(item.getQuantidade())
+                    .precoUnitario(item.getPrecoUnitario().isEmpty() ? null : new BigDecimal(item.getPrecoUnitario()))
+                    .build());
+        }
+        return PedidoEntity.builder()
+                .id(pedido.getId() == 0 ? null : pedido.getId())
+                .status(pedido.getStatus().isEmpty() ? null : pedido.getStatus())
+                .dataHoraRealizacaoPedido(pedido.hasDataHoraRealizacaoPedido()
+                        ? deTimestamp(pedido.getDataHoraRealizacaoPedido()) : null)
+                .itens(itens)
+                .build();
+    }
+
+    public static Timestamp paraTimestamp(LocalDateTime dataHora) {
+        Instant instante = dataHora.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instante.getEpochSecond())
+                .setNanos(instante.getNano())
+                .build();
+    }
+
+    public static LocalDateTime deTimestamp(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()),
+                ZoneId.systemDefault());
+    }
+}
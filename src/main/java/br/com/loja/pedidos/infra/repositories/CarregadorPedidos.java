@@ -0,0 +1,166 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.infra.configurations.ContextoLeitura;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carrega pedidos por ID juntando as buscas simultâneas em uma única consulta
+ * {@code WHERE id = ANY(?)}.
+ *
+ * A primeira busca que encontra o lote vazio o abre e passa a ser a líder dele; as que chegam
+ * enquanto ele está aberto entram no mesmo lote, e buscas repetidas de um ID dividem o mesmo
+ * resultado. A líder fecha o lote e faz a consulta para todas após {@code pedidos.busca.janela-micros};
+ * quem completa {@code pedidos.busca.tamanho-maximo-lote} IDs fecha e consulta na hora, liberando a
+ * líder. A espera só acontece quando outro lote está sendo consultado: sem concorrência a busca vai
+ * direto ao banco e não ganha latência. A consulta é feita pela thread de uma das buscas, sem executor próprio.
+ *
+ * Buscas feitas com {@link ContextoLeitura#usarPrimario()} formam lotes separados, consultados no
+ * primário. Dentro de uma transação a busca usa {@link PedidoRepository#findById}, para ler na
+ * conexão dela e enxergar as próprias alterações ainda não confirmadas.
+ *
+ * O número de IDs por consulta é exposto em {@code pedidos.busca.lote}.
+ */
+@Component
+public class CarregadorPedidos {
+
+    private static final int REPLICA = 0;
+    private static final int PRIMARIO = 1;
+
+    private final PedidoRepository pedidoRepository;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final DistributionSummary tamanhoLotes;
+    private final AtomicInteger emConsulta = new AtomicInteger();
+    /** Lote aberto por destino ({@link #REPLICA}, {@link #PRIMARIO}); protegido pelo próprio array. */
+    private final Lote[] abertos = new Lote[2];
+
+    public CarregadorPedidos(PedidoRepository pedidoRepository,
+                             @Value("${pedidos.busca.janela-micros:200}") long janelaMicros,
+                             @Value("${pedidos.busca.tamanho-maximo-lote:100}") int tamanhoMaximo,
+                             MeterRegistry meterRegistry) {
+        this.pedidoRepository = pedidoRepository;
+        this.janelaNanos = TimeUnit.MICROSECONDS.toNanos(janelaMicros);
+        this.tamanhoMaximo = Math.max(1, tamanhoMaximo);
+        this.tamanhoLotes = DistributionSummary.builder("pedidos.busca.lote")
+                .description("Pedidos buscados por consulta ao banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Busca o pedido, no lote aberto ou em um novo.
+     *
+     * @return Vazio se o pedido não existir.
+     */
+    public Optional<PedidoEntity> buscar(Long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pedidoRepository.findById(id);
+        }
+        int destino = ContextoLeitura.isPrimario() ? PRIMARIO : REPLICA;
+        Lote lote;
+        CompletableFuture<Optional<PedidoEntity>> resultado;
+        boolean lider = false;
+        boolean cheio = false;
+        synchronized (abertos) {
+            lote = abertos[destino];
+            if (lote == null) {
+                lote = new Lote(Thread.currentThread());
+                abertos[destino] = lote;
+                lider = true;
+            }
+            resultado = lote.pedidos.computeIfAbsent(id, chave -> new CompletableFuture<>());
+            if (lote.pedidos.size() >= tamanhoMaximo) {
+                cheio = fechar(destino, lote);
+            }
+        }
+        if (cheio) {
+            if (!lider) {
+                LockSupport.unpark(lote.lider);
+            }
+            consultar(lote);
+        } else if (lider) {
+            if (janelaNanos > 0 && emConsulta.get() > 0) {
+                LockSupport.parkNanos(janelaNanos);
+            }
+            boolean aberto;
+            synchronized (abertos) {
+                aberto = fechar(destino, lote);
+            }
+            if (aberto) {
+                consultar(lote);
+            }
+        }
+        return aguardar(resultado);
+    }
+
+    /**
+     * Fecha o lote para novas buscas.
+     *
+     * @return {@code false} se outra busca já o fechou e ficou responsável pela consulta.
+     */
+    private boolean fechar(int destino, Lote lote) {
+        if (lote.fechado) {
+            return false;
+        }
+        lote.fechado = true;
+        if (abertos[destino] == lote) {
+            abertos[destino] = null;
+        }
+        return true;
+    }
+
+    private void consultar(Lote lote) {
+        emConsulta.incrementAndGet();
+        try {
+            Long[] ids = lote.pedidos.keySet().toArray(new Long[0]);
+            tamanhoLotes.record(ids.length);
+            List<PedidoEntity> pedidos = ids.length == 1
+                    ? pedidoRepository.findById(ids[0]).stream().toList()
+                    : pedidoRepository.buscarPorIds(ids);
+            Map<Long, PedidoEntity> porId = new HashMap<>();
+            pedidos.forEach(pedido -> porId.put(pedido.getId(), pedido));
+            lote.pedidos.forEach((id, resultado) -> resultado.complete(Optional.ofNullable(porId.get(id))));
+        } catch (RuntimeException e) {
+            lote.pedidos.values().forEach(resultado -> resultado.completeExceptionally(e));
+        } finally {
+            emConsulta.decrementAndGet();
+        }
+    }
+
+    private static Optional<PedidoEntity> aguardar(CompletableFuture<Optional<PedidoEntity>> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /** IDs de um lote e os resultados aguardados; alterado só enquanto aberto, sob a trava. */
+    private static final class Lote {
+        private final Map<Long, CompletableFuture<Optional<PedidoEntity>>> pedidos = new LinkedHashMap<>();
+        private final Thread lider;
+        private boolean fechado;
+
+        private Lote(Thread lider) {
+            this.lider = lider;
+        }
+    }
+}
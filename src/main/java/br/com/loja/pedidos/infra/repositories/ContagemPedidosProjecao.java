@@ -0,0 +1,15 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Quantidade de pedidos de um status realizados em um dia. {@code dia} é nulo para pedidos sem data.
+ */
+public interface ContagemPedidosProjecao {
+
+    LocalDate getDia();
+
+    String getStatus();
+
+    long getQuantidade();
+}
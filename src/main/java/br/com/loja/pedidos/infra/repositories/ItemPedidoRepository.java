@@ -0,0 +1,31 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.ItemPedidoDTO;
+import br.com.loja.pedidos.domain.entities.ItemPedidoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemPedidoRepository extends JpaRepository<ItemPedidoEntity, Long> {
+
+    /**
+     * Retorna os itens de vários pedidos com uma única consulta, ordenados por pedido e item.
+     * A projeção não cria entidades gerenciadas, então não há snapshot nem verificação de
+     * alterações no flush. Somente leitura, pode ser atendida por uma réplica.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new br.com.loja.pedidos.application.dtos.ItemPedidoDTO(
+                       i.pedidoId, i.id, i.produto, i.quantidade, i.precoUnitario)
+              FROM ItemPedidoEntity i
+             WHERE i.pedidoId IN :pedidoIds
+             ORDER BY i.pedidoId, i.id
+            """)
+    List<ItemPedidoDTO> buscarItens(@Param("pedidoIds") Collection<Long> pedidoIds);
+}
@@ -0,0 +1,77 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Mantém as partições mensais da tabela {@code pedido}.
+ *
+ * Na subida e a cada {@code pedidos.particoes.intervalo-ms}, cria as partições do mês atual e dos
+ * {@code meses-a-frente} seguintes, para que pedidos novos não caiam na partição padrão. Pedidos
+ * com data além desses meses, informada pelo cliente, ficam na padrão até a partição do mês ser
+ * criada, quando são movidos para ela ({@link ParticoesPedidoRepository#criar}). Com
+ * {@code retencao-meses} maior que zero, desanexa as partições de meses anteriores à janela de
+ * retenção e as move, com os itens dos seus pedidos, para o schema de arquivo; com zero, nenhuma
+ * partição é desanexada.
+ *
+ * Com várias instâncias, duas podem tentar a mesma operação ao mesmo tempo; a que falhar apenas
+ * registra o erro, e o ciclo seguinte parte do estado já corrigido pela outra.
+ */
+@Slf4j
+@Component
+public class ManutencaoParticoesPedido {
+
+    private final ParticoesPedidoRepository particoesPedidoRepository;
+    private final int mesesAFrente;
+    private final int retencaoMeses;
+
+    public ManutencaoParticoesPedido(ParticoesPedidoRepository particoesPedidoRepository,
+                                     @Value("${pedidos.particoes.meses-a-frente:3}") int mesesAFrente,
+                                     @Value("${pedidos.particoes.retencao-meses:0}") int retencaoMeses) {
+        this.particoesPedidoRepository = particoesPedidoRepository;
+        this.mesesAFrente = mesesAFrente;
+        this.retencaoMeses = retencaoMeses;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${pedidos.particoes.intervalo-ms:21600000}")
+    public void manter() {
+        manter(LocalDate.now());
+    }
+
+    void manter(LocalDate hoje) {
+        YearMonth atual = YearMonth.from(hoje);
+        List<YearMonth> existentes = particoesPedidoRepository.listarMeses();
+
+        for (int i = 0; i <= mesesAFrente; i++) {
+            YearMonth mes = atual.plusMonths(i);
+            if (!existentes.contains(mes)) {
+                executar("criar", mes, () -> particoesPedidoRepository.criar(mes));
+            }
+        }
+
+        if (retencaoMeses > 0) {
+            YearMonth limite = atual.minusMonths(retencaoMeses);
+            for (YearMonth mes : existentes) {
+                if (mes.isBefore(limite)) {
+                    executar("desanexar", mes, () -> particoesPedidoRepository.desanexar(mes));
+                }
+            }
+        }
+    }
+
+    private void executar(String operacao, YearMonth mes, Runnable comando) {
+        try {
+            comando.run();
+            log.info("Partição de pedidos {}: operação '{}' concluída.", mes, operacao);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao {} a partição de pedidos {}: {}", operacao, mes, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acesso à tabela {@code outbox_pedido} via JDBC.
+ *
+ * Usa o mesmo {@link DataSource} do JPA, então dentro de uma transação do Spring as gravações
+ * acontecem na mesma conexão e são confirmadas junto com a alteração do pedido.
+ */
+@Repository
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Grava os registros com um único lote JDBC.
+     */
+    public void inserir(List<RegistroOutbox> registros) {
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_pedido (routing_key, payload) VALUES (?, CAST(? AS jsonb))",
+                registros, registros.size(), (ps, registro) -> {
+                    ps.setString(1, registro.getRoutingKey());
+                    ps.setString(2, registro.getPayload());
+                });
+    }
+
+    /**
+     * Bloqueia e retorna os registros pendentes mais antigos, ignorando os que já estão
+     * bloqueados por outra instância. Deve ser chamado dentro de uma transação.
+     */
+    public List<RegistroOutbox> bloquearPendentes(int limite) {
+        return jdbcTemplate.query(
+                "SELECT id, routing_key, payload, criado_em FROM outbox_pedido ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, linha) -> new RegistroOutbox(
+                        rs.getLong("id"),
+                        rs.getString("routing_key"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("criado_em").toLocalDateTime()),
+                limite);
+    }
+
+    public void remover(Collection<Long> ids) {
+        jdbcTemplate.update("DELETE FROM outbox_pedido WHERE id = ANY(?)",
+                (Object) ids.toArray(new Long[0]));
+    }
+}
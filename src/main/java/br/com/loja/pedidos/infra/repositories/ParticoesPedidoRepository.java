@@ -0,0 +1,116 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Criação e desanexação das partições mensais da tabela {@code pedido} via JDBC.
+ *
+ * Cada partição se chama {@code pedido_pAAAA_MM} e cobre {@code [primeiro dia do mês, primeiro dia
+ * do mês seguinte)}, a mesma convenção da migração V4. Os nomes são montados apenas a partir de
+ * {@link YearMonth}, nunca de texto recebido de fora.
+ *
+ * Bloqueios: criar uma partição e desanexar outra tomam ACCESS EXCLUSIVE sobre {@code pedido} e
+ * sobre a partição padrão até o fim do comando, bloqueando leituras e escritas na tabela. Em geral
+ * dura milissegundos; quando a partição padrão tem linhas do mês criado, dura também a cópia dessas
+ * linhas. {@code DETACH PARTITION ... CONCURRENTLY} não é usado porque o PostgreSQL o recusa em
+ * tabelas com partição padrão.
+ *
+ * Como a chave primária é {@code (id, data_hora_realizacao_pedido)}, buscas só por ID
+ * ({@code findById}, {@code transicionarStatus}, {@code buscarPorIds}) não podem ser podadas e
+ * consultam o índice de cada partição anexada; o custo cresce com o número de meses mantidos, que
+ * {@code pedidos.particoes.retencao-meses} limita.
+ */
+@Repository
+public class ParticoesPedidoRepository {
+
+    /** Schema para onde vão as partições desanexadas. */
+    public static final String SCHEMA_ARQUIVO = "arquivo_pedido";
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("pedido_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParticoesPedidoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Retorna os meses que têm partição anexada à tabela {@code pedido}, em ordem crescente.
+     * A partição padrão não entra na lista.
+     */
+    public List<YearMonth> listarMeses() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                          FROM pg_inherits i
+                          JOIN pg_class c ON c.oid = i.inhrelid
+                         WHERE i.inhparent = 'pedido'::regclass
+                        """, String.class).stream()
+                .map(ParticoesPedidoRepository::mesDaParticao)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Cria a partição do mês. Se a partição padrão tiver pedidos do mês (datas informadas pelo
+     * cliente além dos meses já criados), ela é desanexada, a partição é criada, as linhas são
+     * movidas e a padrão é anexada de volta, tudo no mesmo comando e, portanto, na mesma transação;
+     * sem isso o PostgreSQL recusaria a criação enquanto essas linhas estivessem na padrão.
+     */
+    public void criar(YearMonth mes) {
+        String particao = nomeParticao(mes);
+        String inicio = "'" + mes.atDay(1) + "'";
+        String fim = "'" + mes.plusMonths(1).atDay(1) + "'";
+        String doMes = " WHERE data_hora_realizacao_pedido >= " + inicio + " AND data_hora_realizacao_pedido < " + fim;
+        String criacao = "CREATE TABLE IF NOT EXISTS " + particao
+                + " PARTITION OF pedido FOR VALUES FROM (" + inicio + ") TO (" + fim + ");";
+        jdbcTemplate.execute("DO $$ BEGIN"
+                + " IF EXISTS (SELECT 1 FROM pedido_padrao" + doMes + ") THEN"
+                + " ALTER TABLE pedido DETACH PARTITION pedido_padrao; "
+                + criacao
+                + " WITH movidos AS (DELETE FROM pedido_padrao" + doMes + " RETURNING *)"
+                + " INSERT INTO " + particao + " SELECT * FROM movidos;"
+                + " ALTER TABLE pedido ATTACH PARTITION pedido_padrao DEFAULT;"
+                + " ELSE " + criacao
+                + " END IF; END $$");
+    }
+
+    /**
+     * Desanexa a partição do mês e a move para o schema {@value #SCHEMA_ARQUIVO}, junto com os
+     * itens dos seus pedidos, que vão de {@code item_pedido} para a tabela de mesmo nome no schema
+     * de arquivo (migração V9). Tudo ocorre em um único comando e, portanto, em uma única transação.
+     * Os pedidos do mês e seus itens deixam de aparecer nas consultas às tabelas principais.
+     */
+    public void desanexar(YearMonth mes) {
+        String particao = nomeParticao(mes);
+        jdbcTemplate.execute("DO $$ BEGIN"
+                + " ALTER TABLE pedido DETACH PARTITION " + particao + ";"
+                + " ALTER TABLE " + particao + " SET SCHEMA " + SCHEMA_ARQUIVO + ";"
+                + " WITH movidos AS (DELETE FROM item_pedido i USING " + SCHEMA_ARQUIVO + "." + particao + " p"
+                + " WHERE i.pedido_id = p.id RETURNING i.*)"
+                + " INSERT INTO " + SCHEMA_ARQUIVO + ".item_pedido SELECT * FROM movidos;"
+                + " END $$");
+    }
+
+    static String nomeParticao(YearMonth mes) {
+        return "pedido_p" + mes.format(SUFIXO);
+    }
+
+    static YearMonth mesDaParticao(String nome) {
+        Matcher matcher = NOME_PARTICAO.matcher(nome);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
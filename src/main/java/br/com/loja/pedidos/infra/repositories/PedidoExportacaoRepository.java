@@ -0,0 +1,74 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Leitura de pedidos via cursor JDBC, para exportações e cargas que não cabem em memória.
+ *
+ * As linhas são lidas em blocos de {@code fetch-size} e entregues uma a uma ao consumidor, sem
+ * passar pelo contexto de persistência. O PostgreSQL só usa cursor quando a conexão está fora do
+ * autocommit, por isso as chamadas devem acontecer dentro de uma transação.
+ */
+@Repository
+public class PedidoExportacaoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PedidoExportacaoRepository(DataSource dataSource,
+                                      @Value("${pedidos.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void percorrer(FiltroPedidosDTO filtro, Consumer<PedidoEntity> consumidor) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, status, data_hora_realizacao_pedido, versao, atualizado_em FROM pedido WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+
+        if (filtro.getStatus() != null) {
+            sql.append(" AND status = ?");
+            parametros.add(filtro.getStatus().name());
+        }
+        if (filtro.getInicio() != null) {
+            sql.append(" AND data_hora_realizacao_pedido >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getInicio()));
+        }
+        if (filtro.getFim() != null) {
+            sql.append(" AND data_hora_realizacao_pedido < ?");
+            parametros.add(Timestamp.valueOf(filtro.getFim()));
+        }
+        sql.append(" ORDER BY data_hora_realizacao_pedido, id");
+
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            Timestamp dataHora = rs.getTimestamp("data_hora_realizacao_pedido");
+            Timestamp atualizadoEm = rs.getTimestamp("atualizado_em");
+            consumidor.accept(PedidoEntity.builder()
+                    .id(rs.getLong("id"))
+                    .status(rs.getString("status"))
+                    .dataHoraRealizacaoPedido(dataHora != null ? dataHora.toLocalDateTime() : null)
+                    .versao(rs.getLong("versao"))
+                    .atualizadoEm(atualizadoEm != null ? atualizadoEm.toLocalDateTime() : null)
+                    .build());
+        }, parametros.toArray());
+    }
+
+    /**
+     * Percorre os IDs de todos os pedidos, em ordem crescente.
+     */
+    public void percorrerIds(LongConsumer consumidor) {
+        jdbcTemplate.query("SELECT id FROM pedido ORDER BY id",
+                (RowCallbackHandler) rs -> consumidor.accept(rs.getLong(1)));
+    }
+}
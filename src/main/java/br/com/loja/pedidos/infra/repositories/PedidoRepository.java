@@ -1,10 +1,163 @@
 package br.com.loja.pedidos.infra.repositories;
 
+import br.com.loja.pedidos.application.dtos.VersaoPedidoDTO;
 import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<PedidoEntity, Long> {
-    // Aqui você pode adicionar métodos personalizados se necessário
-}
\ No newline at end of file
+public interface PedidoRepository extends JpaRepository<PedidoEntity, Long>, JpaSpecificationExecutor<PedidoEntity> {
+
+    /**
+     * Retorna os pedidos realizados em {@code [inicio, fim)} posteriores à chave
+     * {@code (aposData, aposId)}, ordenados por {@code (dataHoraRealizacaoPedido, id)}. Como a tabela
+     * é particionada por mês dessa coluna, só as partições do intervalo são lidas, cada uma pelo
+     * índice {@code pedido_data_hora_id_idx}. Para a primeira página, use {@code aposData = inicio}
+     * e {@code aposId = Long.MIN_VALUE}.
+     */
+    @Query("""
+            SELECT p FROM PedidoEntity p
+             WHERE p.dataHoraRealizacaoPedido >= :inicio
+               AND p.dataHoraRealizacaoPedido < :fim
+               AND (p.dataHoraRealizacaoPedido > :aposData
+                    OR (p.dataHoraRealizacaoPedido = :aposData AND p.id > :aposId))
+             ORDER BY p.dataHoraRealizacaoPedido, p.id
+            """)
+    List<PedidoEntity> buscarPorPeriodo(@Param("inicio") LocalDateTime inicio,
+                                        @Param("fim") LocalDateTime fim,
+                                        @Param("aposData") LocalDateTime aposData,
+                                        @Param("aposId") Long aposId,
+                                        Limit limite);
+
+    /**
+     * Conta os pedidos realizados em {@code [inicio, fim)}, lendo apenas as partições do intervalo.
+     */
+    @Query("""
+            SELECT COUNT(p) FROM PedidoEntity p
+             WHERE p.dataHoraRealizacaoPedido >= :inicio
+               AND p.dataHoraRealizacaoPedido < :fim
+            """)
+    long contarPorPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    /**
+     * Transiciona o status de um pedido em uma única instrução.
+     * O UPDATE só altera a linha se o status atual (nulo conta como CRIADO) estiver entre
+     * {@code anteriores}; uma transição rejeitada não bloqueia a linha. Uma transição aplicada
+     * incrementa a {@code versao} e grava {@code atualizado_em}.
+     *
+     * @return Vazio se o pedido não existir; caso contrário o resultado da transição.
+     */
+    @Query(value = """
+            WITH alterado AS (
+                UPDATE pedido
+                   SET status = :novoStatus, versao = versao + 1, atualizado_em = LOCALTIMESTAMP
+                 WHERE id = :id
+                   AND COALESCE(status, 'CRIADO') = ANY(CAST(:anteriores AS varchar[]))
+             RETURNING id, versao, atualizado_em
+            )
+            SELECT p.id AS "id",
+                   p.status AS "statusAnterior",
+                   CAST(:novoStatus AS varchar) AS "statusNovo",
+                   p.data_hora_realizacao_pedido AS "dataHoraRealizacaoPedido",
+                   COALESCE(a.versao, p.versao) AS "versao",
+                   COALESCE(a.atualizado_em, p.atualizado_em) AS "atualizadoEm",
+                   CASE WHEN a.id IS NOT NULL THEN 'ATUALIZADO' ELSE 'REJEITADO' END AS "resultado"
+              FROM pedido p
+              LEFT JOIN alterado a ON a.id = p.id
+             WHERE p.id = :id
+            """, nativeQuery = true)
+    Optional<TransicaoStatusProjecao> transicionarStatus(@Param("id") Long id,
+                                                         @Param("novoStatus") String novoStatus,
+                                                         @Param("anteriores") String[] anteriores);
+
+    /**
+     * Transiciona o status de vários pedidos em uma única instrução, juntando a tabela com os
+     * arrays recebidos via {@code unnest}. {@code ids}/{@code status} são pareados por posição,
+     * assim como {@code origens}/{@code destinos}, que descrevem as transições permitidas.
+     *
+     * @return Uma linha por ID recebido, com o resultado da transição.
+     */
+    @Query(value = """
+            WITH entrada AS (
+                SELECT * FROM unnest(CAST(:ids AS bigint[]), CAST(:status AS varchar[])) AS e(id, status)
+            ), transicao AS (
+                SELECT * FROM unnest(CAST(:origens AS varchar[]), CAST(:destinos AS varchar[])) AS t(origem, destino)
+            ), alterado AS (
+                UPDATE pedido p
+                   SET status = e.status, versao = p.versao + 1, atualizado_em = LOCALTIMESTAMP
+                  FROM entrada e
+                 WHERE p.id = e.id
+                   AND EXISTS (SELECT 1 FROM transicao t
+                                WHERE t.origem = COALESCE(p.status, 'CRIADO') AND t.destino = e.status)
+             RETURNING p.id, p.versao, p.atualizado_em
+            )
+            SELECT e.id AS "id",
+                   p.status AS "statusAnterior",
+                   e.status AS "statusNovo",
+                   p.data_hora_realizacao_pedido AS "dataHoraRealizacaoPedido",
+                   COALESCE(a.versao, p.versao) AS "versao",
+                   COALESCE(a.atualizado_em, p.atualizado_em) AS "atualizadoEm",
+                   CASE WHEN a.id IS NOT NULL THEN 'ATUALIZADO'
+                        WHEN p.id IS NULL THEN 'NAO_ENCONTRADO'
+                        ELSE 'REJEITADO' END AS "resultado"
+              FROM entrada e
+              LEFT JOIN pedido p ON p.id = e.id
+              LEFT JOIN alterado a ON a.id = e.id
+            """, nativeQuery = true)
+    List<TransicaoStatusProjecao> transicionarStatusEmLote(@Param("ids") Long[] ids,
+                                                           @Param("status") String[] status,
+                                                           @Param("origens") String[] origens,
+                                                           @Param("destinos") String[] destinos);
+
+    /**
+     * Lê apenas a versão e o instante da última alteração do pedido, sem carregar a entidade,
+     * para responder requisições condicionais. Somente leitura, pode ser atendida por uma réplica.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new br.com.loja.pedidos.application.dtos.VersaoPedidoDTO(
+                       p.versao, COALESCE(p.atualizadoEm, p.dataHoraRealizacaoPedido))
+              FROM PedidoEntity p
+             WHERE p.id = :id
+            """)
+    Optional<VersaoPedidoDTO> buscarVersao(@Param("id") Long id);
+
+    /**
+     * Retorna, dentre os IDs informados, os que existem na tabela, com uma única consulta.
+     * Somente leitura, pode ser atendida por uma réplica.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT id FROM pedido WHERE id = ANY(CAST(:ids AS bigint[]))", nativeQuery = true)
+    List<Long> buscarIdsExistentes(@Param("ids") Long[] ids);
+
+    /**
+     * Carrega os pedidos com os IDs informados em uma única consulta, sem ordem definida; IDs
+     * inexistentes são ignorados. Usado pelo {@link CarregadorPedidos}. Somente leitura, pode ser
+     * atendida por uma réplica.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT * FROM pedido WHERE id = ANY(CAST(:ids AS bigint[]))", nativeQuery = true)
+    List<PedidoEntity> buscarPorIds(@Param("ids") Long[] ids);
+
+    /**
+     * Conta os pedidos por dia de realização e status, para a carga das estatísticas.
+     * Pedidos gravados antes da máquina de estados, sem status, contam como CRIADO.
+     */
+    @Query(value = """
+            SELECT CAST(data_hora_realizacao_pedido AS date) AS "dia",
+                   COALESCE(status, 'CRIADO')               AS "status",
+                   COUNT(*)                                 AS "quantidade"
+              FROM pedido
+             GROUP BY 1, 2
+            """, nativeQuery = true)
+    List<ContagemPedidosProjecao> contarPorDiaEStatus();
+}
@@ -0,0 +1,54 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critérios de consulta de pedidos usados pela listagem por keyset.
+ * Só os filtros informados entram no SQL, para que o banco possa usar o índice
+ * {@code pedido_data_hora_id_idx} em {@code (data_hora_realizacao_pedido, id)} tanto no filtro
+ * quanto na ordenação. O índice é criado pela migração V4, junto com o particionamento da tabela;
+ * sem ele a listagem percorre a tabela e ordena o resultado a cada página.
+ */
+public final class PedidoSpecifications {
+
+    /** Ordenação da listagem; precisa bater com a chave do {@link CursorPedidoDTO}. */
+    public static final Sort ORDEM_KEYSET = Sort.by("dataHoraRealizacaoPedido", "id");
+
+    private PedidoSpecifications() {
+    }
+
+    public static Specification<PedidoEntity> filtrarAposCursor(FiltroPedidosDTO filtro, CursorPedidoDTO cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> dataHora = root.get("dataHoraRealizacaoPedido");
+            Path<Long> id = root.get("id");
+            List<Predicate> predicados = new ArrayList<>();
+
+            if (filtro.getStatus() != null) {
+                predicados.add(cb.equal(root.get("status"), filtro.getStatus().name()));
+            }
+            if (filtro.getInicio() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(dataHora, filtro.getInicio()));
+            }
+            if (filtro.getFim() != null) {
+                predicados.add(cb.lessThan(dataHora, filtro.getFim()));
+            }
+            if (cursor != null) {
+                predicados.add(cb.or(
+                        cb.greaterThan(dataHora, cursor.getDataHoraRealizacaoPedido()),
+                        cb.and(cb.equal(dataHora, cursor.getDataHoraRealizacaoPedido()),
+                               cb.greaterThan(id, cursor.getId()))));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+}
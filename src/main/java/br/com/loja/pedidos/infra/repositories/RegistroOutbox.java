@@ -0,0 +1,16 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela {@code outbox_pedido}. {@code id} e {@code criadoEm} são nulos até a gravação.
+ */
+@Value
+public class RegistroOutbox {
+    Long id;
+    String routingKey;
+    String payload;
+    LocalDateTime criadoEm;
+}
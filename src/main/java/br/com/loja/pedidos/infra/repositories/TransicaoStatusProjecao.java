@@ -0,0 +1,35 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de uma transição de status executada pelo {@link PedidoRepository}.
+ *
+ * {@code statusAnterior} é o status lido no snapshot da própria instrução; {@code resultado}
+ * vale {@code ATUALIZADO}, {@code REJEITADO} ou {@code NAO_ENCONTRADO}.
+ */
+public interface TransicaoStatusProjecao {
+
+    String ATUALIZADO = "ATUALIZADO";
+    String REJEITADO = "REJEITADO";
+    String NAO_ENCONTRADO = "NAO_ENCONTRADO";
+
+    Long getId();
+
+    String getStatusAnterior();
+
+    String getStatusNovo();
+
+    LocalDateTime getDataHoraRealizacaoPedido();
+
+    /** Versão do pedido após a instrução; só muda quando a transição foi aplicada. */
+    Long getVersao();
+
+    LocalDateTime getAtualizadoEm();
+
+    String getResultado();
+
+    default boolean isAtualizado() {
+        return ATUALIZADO.equals(getResultado());
+    }
+}
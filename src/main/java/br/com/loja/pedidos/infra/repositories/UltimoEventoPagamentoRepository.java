@@ -0,0 +1,69 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Acesso à tabela {@code ultimo_evento_pagamento} via JDBC, que guarda o último evento de
+ * pagamento aplicado a cada pedido.
+ */
+@Repository
+public class UltimoEventoPagamentoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UltimoEventoPagamentoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Registra os eventos como últimos aplicados aos seus pedidos, com uma única instrução. Um
+     * evento só substitui o registro existente se vier depois dele na ordem
+     * {@code (ocorrido_em, id_evento)}; o ID é comparado byte a byte ({@code COLLATE "C"}), como
+     * {@link String#compareTo} faz para IDs ASCII. Deve ser chamado dentro da transação que aplica
+     * os eventos, com no máximo um evento por pedido.
+     *
+     * @return IDs dos pedidos cujos eventos foram registrados; os demais são repetidos ou antigos.
+     */
+    public Set<Long> registrar(Collection<EventoPagamentoDTO> eventos) {
+        Long[] pedidos = new Long[eventos.size()];
+        String[] ids = new String[eventos.size()];
+        String[] instantes = new String[eventos.size()];
+        int i = 0;
+        for (EventoPagamentoDTO evento : eventos) {
+            pedidos[i] = evento.getIdPedido();
+            ids[i] = evento.getIdEvento();
+            instantes[i] = evento.getOcorridoEm().toString();
+            i++;
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                INSERT INTO ultimo_evento_pagamento AS u (id_pedido, id_evento, ocorrido_em)
+                SELECT * FROM unnest(CAST(? AS bigint[]), CAST(? AS varchar[]), CAST(? AS timestamptz[]))
+                    ON CONFLICT (id_pedido) DO UPDATE
+                   SET id_evento = EXCLUDED.id_evento, ocorrido_em = EXCLUDED.ocorrido_em
+                 WHERE (u.ocorrido_em, u.id_evento COLLATE "C") < (EXCLUDED.ocorrido_em, EXCLUDED.id_evento COLLATE "C")
+                RETURNING id_pedido
+                """, Long.class, pedidos, ids, instantes));
+    }
+
+    /**
+     * Apaga até {@code limite} registros com eventos ocorridos antes de {@code anteriorA}.
+     *
+     * @return Quantidade de registros apagados.
+     */
+    public int removerAnteriores(Instant anteriorA, int limite) {
+        return jdbcTemplate.update("""
+                DELETE FROM ultimo_evento_pagamento
+                 WHERE id_pedido IN (SELECT id_pedido FROM ultimo_evento_pagamento
+                                      WHERE ocorrido_em < ? LIMIT ?)
+                """, Timestamp.from(anteriorA), limite);
+    }
+}
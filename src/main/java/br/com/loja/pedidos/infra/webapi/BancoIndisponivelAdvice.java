@@ -0,0 +1,28 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Responde 503 quando não foi possível obter uma conexão com o banco, seja por indisponibilidade
+ * ou porque o pool (ou o {@code LimitadorConexoesDataSource}) está saturado.
+ * O cliente recebe {@code Retry-After} em vez de um erro 500 genérico.
+ */
+@Slf4j
+@RestControllerAdvice
+public class BancoIndisponivelAdvice {
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Void> bancoIndisponivel(RuntimeException e) {
+        log.warn("Requisição recusada sem conexão com o banco: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
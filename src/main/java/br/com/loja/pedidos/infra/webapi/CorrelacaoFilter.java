@@ -0,0 +1,34 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.infra.configurations.Correlacao;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Associa cada requisição a um ID de {@link Correlacao}, recebido no cabeçalho
+ * {@code X-Correlation-Id} ou gerado, e o devolve no mesmo cabeçalho. O ID fica no MDC durante o
+ * processamento na thread da requisição, inclusive para as recusas por limite de concorrência.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacaoFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String id = Correlacao.normalizar(request.getHeader(Correlacao.CABECALHO));
+        response.setHeader(Correlacao.CABECALHO, id);
+        try (MDC.MDCCloseable escopo = Correlacao.usar(id)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
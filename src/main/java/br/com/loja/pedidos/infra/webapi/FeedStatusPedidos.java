@@ -0,0 +1,232 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.application.dtos.EventoPedidoDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui as alterações de status confirmadas para os clientes conectados via Server-Sent Events.
+ *
+ * As alterações chegam pelos eventos {@code pedido.status-alterado} que o relay do outbox publica na
+ * {@code ex_topico_pedidos}, consumidos por uma fila temporária desta instância
+ * ({@code RabbitConfig#filaFeedStatus}). Assim cada assinante recebe as alterações confirmadas em
+ * qualquer instância, com o atraso do relay ({@code pedidos.outbox.relay.intervalo-ms}); com o relay
+ * desligado, o feed não recebe nada. O relay entrega ao menos uma vez, então um evento pode chegar
+ * repetido ao cliente.
+ *
+ * Conexões ociosas não ocupam thread: o {@link SseEmitter} mantém a requisição em modo assíncrono
+ * e só há trabalho quando um evento é entregue. Cada evento é serializado uma única vez e colocado
+ * na fila de cada assinante, sem bloquear a thread que confirmou a transação. O envio é feito por
+ * uma thread virtual por assinante com eventos pendentes, então um cliente lento bloqueia apenas
+ * a própria entrega.
+ *
+ * Política para clientes lentos: cada assinante tem uma fila de {@code pedidos.sse.buffer} eventos.
+ * Se a fila estiver cheia quando um novo evento chegar, a conexão é encerrada em vez de descartar o
+ * evento em silêncio; o cliente reconecta (o navegador faz isso sozinho após o {@code retry}) e
+ * deve reler o pedido com {@code GET /api/pedidos/{id}} para recuperar o que perdeu. Os
+ * encerramentos são contados em {@code pedidos.sse.desconectados}.
+ *
+ * A cada {@code pedidos.sse.heartbeat-ms} um comentário é enviado a todos os assinantes, o que
+ * mantém a conexão aberta em proxies e detecta clientes que já se desconectaram.
+ */
+@Slf4j
+@Component
+public class FeedStatusPedidos {
+
+    static final String EVENTO_STATUS = "status-alterado";
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Set<Assinante>> assinantesPorPedido = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final Executor envio;
+    private final int buffer;
+    private final long timeoutMs;
+    private final long retryMs;
+    private final Counter desconectadosLentos;
+
+    @Autowired
+    public FeedStatusPedidos(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${pedidos.sse.buffer:64}") int buffer,
+                             @Value("${pedidos.sse.timeout:PT30M}") Duration timeout,
+                             @Value("${pedidos.sse.retry:PT3S}") Duration retry) {
+        this(objectMapper, meterRegistry, buffer, timeout, retry,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory()));
+    }
+
+    FeedStatusPedidos(ObjectMapper objectMapper, MeterRegistry meterRegistry, int buffer,
+                      Duration timeout, Duration retry, Executor envio) {
+        this.objectMapper = objectMapper;
+        this.envio = envio;
+        this.buffer = buffer;
+        this.timeoutMs = timeout.toMillis();
+        this.retryMs = retry.toMillis();
+        this.desconectadosLentos = Counter.builder("pedidos.sse.desconectados")
+                .description("Assinantes SSE desconectados por não acompanharem os eventos")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.sse.assinantes", this, FeedStatusPedidos::quantidadeAssinantes)
+                .description("Conexões SSE abertas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre uma assinatura.
+     *
+     * @param idPedido Pedido acompanhado, ou {@code null} para receber as alterações de todos.
+     */
+    public SseEmitter assinar(Long idPedido) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, idPedido);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+
+        if (idPedido == null) {
+            assinantes.add(assinante);
+        } else {
+            // Dentro do compute para não competir com a remoção do conjunto em remover().
+            assinantesPorPedido.compute(idPedido, (id, doPedido) -> {
+                Set<Assinante> conjunto = doPedido != null ? doPedido : ConcurrentHashMap.<Assinante>newKeySet();
+                conjunto.add(assinante);
+                return conjunto;
+            });
+        }
+        assinante.entregar(SseEmitter.event().reconnectTime(retryMs).comment("conectado").build());
+        return emitter;
+    }
+
+    @RabbitListener(queues = "#{filaFeedStatus.name}")
+    public void aoAlterarStatus(EventoPedidoDTO evento) {
+        Set<Assinante> doPedido = assinantesPorPedido.getOrDefault(evento.getIdPedido(), Collections.emptySet());
+        if (assinantes.isEmpty() && doPedido.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> dados;
+        try {
+            dados = SseEmitter.event()
+                    .id(Long.toString(sequencia.incrementAndGet()))
+                    .name(EVENTO_STATUS)
+                    .data(objectMapper.writeValueAsString(evento), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Falha ao serializar alteração de status do pedido ID {}", evento.getIdPedido(), e);
+            return;
+        }
+        assinantes.forEach(assinante -> assinante.entregar(dados));
+        doPedido.forEach(assinante -> assinante.entregar(dados));
+    }
+
+    @Scheduled(fixedDelayString = "${pedidos.sse.heartbeat-ms:15000}")
+    public void enviarHeartbeat() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("").build();
+        assinantes.forEach(assinante -> assinante.entregar(heartbeat));
+        assinantesPorPedido.values().forEach(doPedido -> doPedido.forEach(assinante -> assinante.entregar(heartbeat)));
+    }
+
+    /**
+     * Encerra as conexões abertas, para que os clientes reconectem em outra instância, e o executor
+     * de envio.
+     */
+    @PreDestroy
+    public void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantesPorPedido.values().forEach(doPedido -> doPedido.forEach(assinante -> assinante.emitter.complete()));
+        if (envio instanceof ExecutorService servico) {
+            servico.shutdownNow();
+        }
+    }
+
+    int quantidadeAssinantes() {
+        int total = assinantes.size();
+        for (Set<Assinante> doPedido : assinantesPorPedido.values()) {
+            total += doPedido.size();
+        }
+        return total;
+    }
+
+    private void remover(Assinante assinante) {
+        if (assinante.idPedido == null) {
+            assinantes.remove(assinante);
+        } else {
+            assinantesPorPedido.computeIfPresent(assinante.idPedido, (id, doPedido) -> {
+                doPedido.remove(assinante);
+                return doPedido.isEmpty() ? null : doPedido;
+            });
+        }
+    }
+
+    /** Conexão SSE com a fila de eventos ainda não enviados. */
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private final Long idPedido;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> pendentes = new ArrayBlockingQueue<>(buffer);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        Assinante(SseEmitter emitter, Long idPedido) {
+            this.emitter = emitter;
+            this.idPedido = idPedido;
+        }
+
+        void entregar(Set<DataWithMediaType> dados) {
+            if (!pendentes.offer(dados)) {
+                desconectadosLentos.increment();
+                remover(this);
+                emitter.complete();
+                return;
+            }
+            agendarEnvio();
+        }
+
+        private void agendarEnvio() {
+            if (enviando.compareAndSet(false, true)) {
+                envio.execute(this::enviarPendentes);
+            }
+        }
+
+        private void enviarPendentes() {
+            try {
+                Set<DataWithMediaType> dados;
+                while ((dados = pendentes.poll()) != null) {
+                    emitter.send(dados);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Assinante SSE desconectado: {}", e.getMessage());
+                pendentes.clear();
+                remover(this);
+                return;
+            } finally {
+                enviando.set(false);
+            }
+            // Um evento pode ter entrado na fila depois do último poll e antes de liberar o envio.
+            if (!pendentes.isEmpty()) {
+                agendarEnvio();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.infra.configurations.ContextoLeitura;
+import br.com.loja.pedidos.infra.configurations.RoteamentoLeituraConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Garante que um cliente leia as próprias escritas quando há réplicas de leitura.
+ *
+ * Toda requisição que altera pedidos ({@code POST}, {@code PUT}, {@code PATCH} ou {@code DELETE}
+ * em {@code /api/pedidos}) devolve o cookie {@value #COOKIE} com o instante até o qual as leituras
+ * desse cliente devem ir ao primário ({@code pedidos.banco.leitura-propria} depois da escrita).
+ * Enquanto o cliente reenviar o cookie dentro desse prazo, as requisições dele são executadas com o
+ * {@link ContextoLeitura} no primário; depois disso as réplicas já alcançaram a escrita.
+ */
+@Component
+@ConditionalOnProperty(name = RoteamentoLeituraConfig.PROPRIEDADE_REPLICAS)
+public class LeituraPropriaFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "pedidos-primario-ate";
+
+    private final Duration janela;
+    private final Clock relogio;
+
+    @Autowired
+    public LeituraPropriaFilter(@Value("${pedidos.banco.leitura-propria:PT5S}") Duration janela) {
+        this(janela, Clock.systemUTC());
+    }
+
+    LeituraPropriaFilter(Duration janela, Clock relogio) {
+        this.janela = janela;
+        this.relogio = relogio;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/pedidos");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long agora = relogio.millis();
+        if (isEscrita(request)) {
+            // Antes do processamento: respostas em streaming já estão confirmadas quando o handler retorna.
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(agora + janela.toMillis()))
+                    .path("/api/pedidos")
+                    .maxAge(janela)
+                    .httpOnly(true)
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        if (primarioAte(request) > agora) {
+            try (ContextoLeitura.Escopo escopo = ContextoLeitura.usarPrimario()) {
+                chain.doFilter(request, response);
+            }
+        } else {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static boolean isEscrita(HttpServletRequest request) {
+        HttpMethod metodo = HttpMethod.valueOf(request.getMethod());
+        return metodo == HttpMethod.POST || metodo == HttpMethod.PUT
+                || metodo == HttpMethod.PATCH || metodo == HttpMethod.DELETE;
+    }
+
+    private static long primarioAte(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
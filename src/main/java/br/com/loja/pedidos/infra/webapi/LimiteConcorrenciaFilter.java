@@ -0,0 +1,124 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.infra.configurations.LimitadorConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia.Classe;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Aplica os {@link LimitesConcorrencia} às requisições de {@code /api/pedidos}, antes de qualquer
+ * outro processamento. Sem vaga na classe do endpoint a resposta é 429 com {@code Retry-After}.
+ *
+ * Respostas 5xx (por exemplo o 503 de {@link BancoIndisponivelAdvice}) e exceções reduzem o limite
+ * da classe; as demais respostas informam a latência. Exportações, que respondem em streaming,
+ * ocupam a vaga até o fim da resposta mas não informam latência. Os streams SSE não são limitados:
+ * ficam abertos por tempo indeterminado e não usam o banco.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = LimitesConcorrencia.PROPRIEDADE_HABILITADO, havingValue = "true", matchIfMissing = true)
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXO = "/api/pedidos";
+
+    private final LimitesConcorrencia limites;
+
+    public LimiteConcorrenciaFilter(LimitesConcorrencia limites) {
+        this.limites = limites;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        return !caminho.startsWith(PREFIXO) || caminho.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Classe classe = classificar(HttpMethod.valueOf(request.getMethod()), request.getRequestURI().substring(PREFIXO.length()));
+        Optional<LimitadorConcorrencia.Permissao> reserva = limites.tentarAdquirir(classe);
+        if (reserva.isEmpty()) {
+            log.debug("Requisição {} {} recusada: limite de concorrência de {} atingido",
+                    request.getMethod(), request.getRequestURI(), classe);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        LimitadorConcorrencia.Permissao permissao = reserva.get();
+        boolean concluida = false;
+        try {
+            chain.doFilter(request, response);
+            concluida = true;
+        } finally {
+            if (!concluida) {
+                permissao.descartar();
+            } else if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberacaoAssincrona(permissao));
+            } else if (response.getStatus() >= 500) {
+                permissao.descartar();
+            } else {
+                permissao.sucesso();
+            }
+        }
+    }
+
+    /**
+     * Classe de um endpoint pelo método e pelo caminho abaixo de {@code /api/pedidos}.
+     */
+    static Classe classificar(HttpMethod metodo, String caminho) {
+        if (HttpMethod.GET.equals(metodo)) {
+            return switch (caminho) {
+                case "", "/", "/detalhes", "/exportar", "/contagem" -> Classe.LISTAGEM;
+                default -> Classe.CONSULTA;
+            };
+        }
+        if ((HttpMethod.POST.equals(metodo) && caminho.equals("/lote"))
+                || (HttpMethod.PUT.equals(metodo) && caminho.equals("/status"))) {
+            return Classe.LOTE;
+        }
+        return Classe.ESCRITA;
+    }
+
+    /** Libera a vaga quando a resposta assíncrona termina, sem informar latência. */
+    private record LiberacaoAssincrona(LimitadorConcorrencia.Permissao permissao) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permissao.ignorar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permissao.descartar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permissao.descartar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
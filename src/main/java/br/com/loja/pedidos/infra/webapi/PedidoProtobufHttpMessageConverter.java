@@ -0,0 +1,97 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.grpc.Pedido;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.infra.proto.PedidoProtoMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lê e escreve pedidos em protobuf ({@code application/x-protobuf}), com as mensagens
+ * {@code Pedido} e {@code PedidoList} de {@code pedido.proto}.
+ *
+ * Escreve {@link PedidoEntity} e {@link PaginaPedidosDTO}, e lê {@link PedidoEntity} no corpo de
+ * {@code POST /api/pedidos}. Registrado depois dos conversores padrão, então só é escolhido quando
+ * o cliente pede protobuf; sem {@code Accept} a resposta continua em JSON.
+ */
+public class PedidoProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public PedidoProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    /**
+     * Indica se a negociação de conteúdo do Spring MVC escolherá protobuf para o {@code Accept}
+     * informado, em um endpoint que produz JSON e protobuf. Os tipos aceitos são ordenados como o
+     * Spring os ordena (qualidade, depois especificidade) e o primeiro compatível com um dos dois
+     * decide; o JSON ganha os curingas, pois os conversores JSON vêm antes deste.
+     */
+    public static boolean isEscolhido(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(aceitos);
+        } catch (IllegalArgumentException e) {
+            // Accept inválido: o Spring recusa a requisição com 406 antes de usar o ETag.
+            return false;
+        }
+        for (MediaType aceito : aceitos) {
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (aceito.isCompatibleWith(PROTOBUF)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PedidoEntity.class == clazz || PaginaPedidosDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return PedidoEntity.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return PedidoProtoMapper.deProto(Pedido.parseFrom(inputMessage.getBody()));
+        } catch (InvalidProtocolBufferException | NumberFormatException e) {
+            throw new HttpMessageNotReadableException("Pedido em protobuf inválido: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Long getContentLength(Object objeto, MediaType contentType) {
+        // O tamanho só é conhecido após a conversão; writeInternal define o Content-Length.
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(Object objeto, HttpOutputMessage outputMessage) throws IOException {
+        Message mensagem = objeto instanceof PaginaPedidosDTO pagina
+                ? PedidoProtoMapper.paraProto(pagina)
+                : PedidoProtoMapper.paraProto((PedidoEntity) objeto);
+        outputMessage.getHeaders().setContentLength(mensagem.getSerializedSize());
+        mensagem.writeTo(outputMessage.getBody());
+    }
+}
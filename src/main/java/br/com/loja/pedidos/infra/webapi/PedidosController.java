@@ -1,63 +1,391 @@
 package br.com.loja.pedidos.infra.webapi;
 
+import br.com.loja.pedidos.application.dtos.AlteracaoStatusDTO;
+import br.com.loja.pedidos.application.dtos.AtualizacaoStatusEmMassaDTO;
+import br.com.loja.pedidos.application.dtos.ContagemPedidosDTO;
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.EstatisticasPedidosDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDetalheDTO;
+import br.com.loja.pedidos.application.dtos.PedidoDetalheDTO;
+import br.com.loja.pedidos.application.dtos.ResultadoStatusDTO;
+import br.com.loja.pedidos.application.dtos.VersaoPedidoDTO;
 import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.TransicaoStatusInvalidaException;
 import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.configurations.ContextoLeitura;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Controlador REST responsável por expor os endpoints relacionados à gestão de pedidos.
  * 
- * Permite criar, listar, atualizar status e buscar pedidos por ID através de chamadas HTTP.
+ * Permite criar (individualmente ou em lote), listar, exportar, contar, atualizar status e buscar pedidos por ID através de chamadas HTTP,
+ * além de acompanhar as alterações de status via Server-Sent Events. Os itens dos pedidos são
+ * informados na criação e lidos pelas visões de detalhe ({@code /detalhes} e {@code /{id}/detalhe}).
  * Utiliza o serviço de domínio {@link DomainServices} para orquestrar as operações de negócio.
+ *
+ * As leituras de pedidos retornam {@code ETag} forte e {@code Last-Modified}. O ETag de um pedido
+ * é a sua {@code versao}, incrementada a cada alteração de status; o de uma página combina o ID e
+ * a versão de cada item com o cursor da próxima página. Em protobuf o ETag recebe o sufixo
+ * {@code -pb}, pois validadores fortes precisam diferir entre representações (RFC 9110). Requisições com {@code If-None-Match} ou
+ * {@code If-Modified-Since} que ainda batem com o estado atual recebem 304 sem corpo.
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/pedidos")
 public class PedidosController {
 
+    private static final String SUFIXO_ETAG_PROTOBUF = "-pb";
+
     private final DomainServices domainServices;
+    private final FeedStatusPedidos feedStatusPedidos;
+    private final ObjectWriter exportacaoWriter;
+    private final ObjectReader loteReader;
+    private final ObjectWriter resultadoStatusWriter;
+    private final int tamanhoBlocoLote;
+    private final int diasPadraoEstatisticas;
 
     /**
      * Construtor com injeção de dependência do serviço de domínio.
      *
-     * @param domainServices Serviço de domínio que contém a lógica de negócios para pedidos.
+     * @param domainServices   Serviço de domínio que contém a lógica de negócios para pedidos.
+     * @param feedStatusPedidos Distribuição das alterações de status para as conexões SSE.
+     * @param objectMapper     Mapper JSON da aplicação, usado para ler e escrever pedidos em streaming.
+     * @param tamanhoBlocoLote       Quantidade de pedidos gravados por transação na criação em lote e na
+     *                               alteração de status em massa.
+     * @param diasPadraoEstatisticas Dias retornados pelas estatísticas quando o período não é informado.
      */
     @Autowired
-    public PedidosController(DomainServices domainServices) {
+    public PedidosController(DomainServices domainServices, FeedStatusPedidos feedStatusPedidos, ObjectMapper objectMapper,
+                             @Value("${pedidos.lote.tamanho-bloco:1000}") int tamanhoBlocoLote,
+                             @Value("${pedidos.estatisticas.dias-padrao:30}") int diasPadraoEstatisticas) {
         this.domainServices = domainServices;
+        this.feedStatusPedidos = feedStatusPedidos;
+        this.exportacaoWriter = objectMapper.writerFor(PedidoEntity.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.loteReader = objectMapper.readerFor(PedidoEntity.class);
+        this.resultadoStatusWriter = objectMapper.writerFor(ResultadoStatusDTO.class);
+        this.tamanhoBlocoLote = tamanhoBlocoLote;
+        this.diasPadraoEstatisticas = diasPadraoEstatisticas;
     }
 
     /**
-     * Endpoint para criação de um novo pedido.
+     * Endpoint para criação de um novo pedido. Aceita JSON ou, com
+     * {@code Content-Type: application/x-protobuf}, a mensagem {@code Pedido} de {@code pedido.proto}.
      *
      * @param pedido Objeto {@link PedidoEntity} enviado no corpo da requisição com os dados do novo pedido.
      * @return {@link ResponseEntity} contendo o pedido criado e status HTTP 200.
      */
     @PostMapping
     public ResponseEntity<PedidoEntity> criarPedido(@RequestBody PedidoEntity pedido) {
-        log.info("Recebida requisição para criar pedido: {}", pedido);
+        log.debug("Recebida requisição para criar pedido: {}", pedido);
         PedidoEntity novoPedido = domainServices.criarPedido(pedido);
         log.info("Pedido criado com sucesso. ID: {}", novoPedido.getId());
         return ResponseEntity.ok(novoPedido);
     }
 
     /**
-     * Endpoint para listar todos os pedidos cadastrados.
+     * Endpoint para criação de pedidos em massa.
+     *
+     * O corpo pode ser um array JSON ou NDJSON (um pedido por linha) e é lido em streaming. Os pedidos
+     * são gravados em blocos de {@code pedidos.lote.tamanho-bloco}, cada bloco em sua própria transação,
+     * e os IDs gerados são escritos na resposta em NDJSON ({@code {"id":N}} por linha) assim que o bloco
+     * é confirmado. Nem o corpo nem a resposta são mantidos inteiros em memória.
+     *
+     * Se o corpo estiver malformado ou algum status for inválido antes do primeiro bloco ser gravado,
+     * a resposta é 400 e nada é criado. Depois disso os blocos já confirmados permanecem gravados e a
+     * resposta termina com uma linha {@code {"erro":"...","criados":N}}.
+     *
+     * @param corpo    Corpo da requisição com os pedidos.
+     * @param resposta Resposta HTTP onde os IDs são escritos.
+     * @throws IOException Caso a leitura do corpo ou a escrita da resposta falhe.
+     */
+    @PostMapping(value = "/lote",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void criarPedidosEmLote(InputStream corpo, HttpServletResponse resposta) throws IOException {
+        log.info("Recebida requisição para criar pedidos em lote. tamanhoBloco={}", tamanhoBlocoLote);
+        JsonGenerator gerador = null;
+        long criados = 0;
+        try (MappingIterator<PedidoEntity> pedidos = loteReader.readValues(corpo)) {
+            List<PedidoEntity> bloco = new ArrayList<>(tamanhoBlocoLote);
+            while (pedidos.hasNextValue()) {
+                bloco.add(pedidos.nextValue());
+                if (bloco.size() < tamanhoBlocoLote && pedidos.hasNextValue()) {
+                    continue;
+                }
+                List<Long> ids = domainServices.criarPedidosEmLote(bloco);
+                if (gerador == null) {
+                    gerador = iniciarRespostaNdjson(resposta);
+                }
+                for (Long id : ids) {
+                    gerador.writeStartObject();
+                    gerador.writeNumberField("id", id);
+                    gerador.writeEndObject();
+                    gerador.writeRaw('\n');
+                }
+                gerador.flush();
+                criados += ids.size();
+                bloco = new ArrayList<>(tamanhoBlocoLote);
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Lote de pedidos interrompido após {} pedidos criados: {}", criados, e.getMessage());
+            if (gerador == null) {
+                resposta.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            gerador.writeStartObject();
+            gerador.writeStringField("erro", e.getMessage());
+            gerador.writeNumberField("criados", criados);
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        } finally {
+            if (gerador != null) {
+                gerador.close();
+            }
+        }
+        if (gerador == null) {
+            iniciarRespostaNdjson(resposta).close();
+        }
+        log.info("Lote de pedidos concluído. Pedidos criados: {}", criados);
+    }
+
+    /**
+     * Endpoint para listar pedidos em páginas, ordenados por data de realização e ID.
      *
-     * @return {@link ResponseEntity} com a lista de {@link PedidoEntity} e status HTTP 200.
+     * A próxima página é obtida repetindo a chamada com o {@code proximoCursor} da resposta.
+     * O tamanho da página vem do parâmetro {@code size} e é limitado por
+     * {@code spring.data.web.pageable.max-page-size}; o número da página é ignorado.
+     *
+     * @param status   Filtro opcional por status.
+     * @param inicio   Início opcional do período (inclusivo), em ISO-8601.
+     * @param fim      Fim opcional do período (exclusivo), em ISO-8601.
+     * @param cursor   Cursor retornado pela página anterior.
+     * @param pageable Tamanho da página.
+     * @return {@link ResponseEntity} com a {@link PaginaPedidosDTO} e status HTTP 200, 304 se a página não mudou
+     *         desde o ETag informado, ou 400 se algum filtro for inválido.
      */
     @GetMapping
-    public ResponseEntity<List<PedidoEntity>> listarPedidos() {
-        log.info("Listando todos os pedidos.");
-        List<PedidoEntity> pedidos = domainServices.listarPedidos();
-        log.info("Total de pedidos encontrados: {}", pedidos.size());
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<PaginaPedidosDTO> listarPedidos(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "inicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(name = "fim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            Pageable pageable,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        log.info("Listando pedidos. status={}, inicio={}, fim={}, cursor={}, tamanho={}",
+                status, inicio, fim, cursor, pageable.getPageSize());
+        try {
+            PaginaPedidosDTO pagina = domainServices.listarPedidos(
+                    filtro(status, inicio, fim), CursorPedidoDTO.decodificar(cursor), pageable.getPageSize());
+            log.debug("Total de pedidos na página: {}", pagina.getItens().size());
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                    .eTag(etagPagina(pagina, PedidoProtobufHttpMessageConverter.isEscolhido(accept)))
+                    .varyBy(HttpHeaders.ACCEPT);
+            pagina.getItens().stream()
+                    .map(pedido -> VersaoPedidoDTO.de(pedido).getModificadoEm())
+                    .filter(modificadoEm -> modificadoEm != null)
+                    .max(LocalDateTime::compareTo)
+                    .ifPresent(modificadoEm -> resposta.lastModified(zonado(modificadoEm)));
+            return resposta.body(pagina);
+        } catch (IllegalArgumentException e) {
+            log.warn("Parâmetros de listagem inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Endpoint para listar pedidos com os seus itens, com os mesmos filtros, paginação e ETag de
+     * {@link #listarPedidos}. Os itens de toda a página são lidos com uma única consulta.
+     *
+     * @param status   Filtro opcional por status.
+     * @param inicio   Início opcional do período (inclusivo), em ISO-8601.
+     * @param fim      Fim opcional do período (exclusivo), em ISO-8601.
+     * @param cursor   Cursor retornado pela página anterior.
+     * @param pageable Tamanho da página.
+     * @return {@link ResponseEntity} com a {@link PaginaPedidosDetalheDTO} e status HTTP 200, 304 se a página não
+     *         mudou desde o ETag informado, ou 400 se algum filtro for inválido.
+     */
+    @GetMapping("/detalhes")
+    public ResponseEntity<PaginaPedidosDetalheDTO> listarDetalhesPedidos(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "inicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(name = "fim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            Pageable pageable) {
+
+        log.info("Listando pedidos com itens. status={}, inicio={}, fim={}, cursor={}, tamanho={}",
+                status, inicio, fim, cursor, pageable.getPageSize());
+        try {
+            PaginaPedidosDetalheDTO pagina = domainServices.listarDetalhesPedidos(
+                    filtro(status, inicio, fim), CursorPedidoDTO.decodificar(cursor), pageable.getPageSize());
+            return ResponseEntity.ok()
+                    .eTag(etagPagina(pagina.getItens(), PedidoDetalheDTO::getId, PedidoDetalheDTO::getVersao,
+                            pagina.getProximoCursor(), false))
+                    .body(pagina);
+        } catch (IllegalArgumentException e) {
+            log.warn("Parâmetros de listagem inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Endpoint para exportar pedidos em NDJSON (um pedido JSON por linha).
+     *
+     * As linhas são escritas na resposta conforme são lidas do banco, então o consumo de memória
+     * não depende da quantidade de pedidos exportados.
+     *
+     * @param status Filtro opcional por status.
+     * @param inicio Início opcional do período (inclusivo), em ISO-8601.
+     * @param fim    Fim opcional do período (exclusivo), em ISO-8601.
+     * @return {@link ResponseEntity} com o corpo em streaming, ou 400 se algum filtro for inválido.
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "inicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(name = "fim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+
+        log.info("Exportando pedidos. status={}, inicio={}, fim={}", status, inicio, fim);
+        FiltroPedidosDTO filtro;
+        try {
+            filtro = filtro(status, inicio, fim);
+        } catch (IllegalArgumentException e) {
+            log.warn("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = exportacaoWriter.createGenerator(saida)) {
+                gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                gerador.setRootValueSeparator(null);
+                domainServices.exportarPedidos(filtro, pedido -> {
+                    try {
+                        exportacaoWriter.writeValue(gerador, pedido);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    /**
+     * Endpoint com a contagem de pedidos por status atual, no total e por dia de realização.
+     *
+     * A resposta vem de contadores em memória e não depende do tamanho da tabela. Sem período,
+     * são retornados os últimos {@code pedidos.estatisticas.dias-padrao} dias, incluindo hoje.
+     *
+     * @param inicio Primeiro dia do período (inclusivo), em ISO-8601.
+     * @param fim    Último dia do período (exclusivo), em ISO-8601.
+     * @return {@link ResponseEntity} com as estatísticas, 400 se {@code inicio} não for anterior a {@code fim}
+     *         ou 503 enquanto as estatísticas ainda estão sendo carregadas.
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasPedidosDTO> obterEstatisticas(
+            @RequestParam(name = "inicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(name = "fim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+
+        LocalDate fimPeriodo = fim != null ? fim : LocalDate.now().plusDays(1);
+        LocalDate inicioPeriodo = inicio != null ? inicio : fimPeriodo.minusDays(diasPadraoEstatisticas);
+        if (!inicioPeriodo.isBefore(fimPeriodo)) {
+            log.warn("Período de estatísticas inválido: {} a {}", inicioPeriodo, fimPeriodo);
+            return ResponseEntity.badRequest().build();
+        }
+        return domainServices.obterEstatisticas(inicioPeriodo, fimPeriodo)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Endpoint com a quantidade exata de pedidos realizados em um período, contada no banco.
+     * Só as partições mensais do período são lidas.
+     *
+     * @param inicio Início do período (inclusivo), em ISO-8601.
+     * @param fim    Fim do período (exclusivo), em ISO-8601.
+     * @return {@link ResponseEntity} com a {@link ContagemPedidosDTO} e status HTTP 200, ou 400 se
+     *         {@code inicio} não for anterior a {@code fim}.
+     */
+    @GetMapping("/contagem")
+    public ResponseEntity<ContagemPedidosDTO> contarPedidos(
+            @RequestParam(name = "inicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(name = "fim") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+
+        if (!inicio.isBefore(fim)) {
+            log.warn("Período de contagem inválido: {} a {}", inicio, fim);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new ContagemPedidosDTO(inicio, fim, domainServices.contarPedidos(inicio, fim)));
+    }
+
+    /**
+     * Endpoint SSE com as alterações de status de todos os pedidos, em qualquer instância, enviadas
+     * após o commit como eventos {@code status-alterado} com um {@code EventoPedidoDTO} em JSON.
+     * A política para clientes lentos está descrita em {@link FeedStatusPedidos}.
+     *
+     * @return Conexão SSE aberta.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharPedidos() {
+        return feedStatusPedidos.assinar(null);
+    }
+
+    /**
+     * Endpoint SSE com as alterações de status de um pedido, substituindo a consulta repetida
+     * de {@code GET /api/pedidos/{id}}.
+     *
+     * @param id ID do pedido acompanhado.
+     * @return Conexão SSE aberta, ou 404 se o pedido não existir.
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharPedido(@PathVariable("id") Long id) {
+        if (!domainServices.existePedido(id)) {
+            log.warn("Assinatura SSE recusada, pedido não encontrado com ID {}", id);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(feedStatusPedidos.assinar(id));
     }
 
     /**
@@ -65,42 +393,292 @@ public class PedidosController {
      *
      * @param id     ID do pedido a ser atualizado.
      * @param status Novo status desejado para o pedido.
-     * @return {@link ResponseEntity} com o pedido atualizado ou status 404 se o pedido não for encontrado.
+     * @return {@link ResponseEntity} com o pedido atualizado, status 400 se o status for inválido,
+     *         409 se o status atual não permitir a transição ou 404 se o pedido não for encontrado.
      */
     @PutMapping("/{id}/status")
     public ResponseEntity<PedidoEntity> atualizarStatus(
             @PathVariable("id") Long id,
             @RequestParam(name = "status") String status) {
 
-        log.info("Atualizando status do pedido com ID {} para '{}'", id, status);
+        log.debug("Atualizando status do pedido com ID {} para '{}'", id, status);
         try {
             PedidoEntity atualizado = domainServices.atualizarStatus(id, status);
             log.info("Status do pedido ID {} atualizado com sucesso.", id);
             return ResponseEntity.ok(atualizado);
-        } catch (RuntimeException e) {
+        } catch (IllegalArgumentException e) {
+            log.warn("Status inválido para o pedido ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (TransicaoStatusInvalidaException e) {
+            log.warn("Transição de status rejeitada para o pedido ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (EntityNotFoundException e) {
             log.warn("Falha ao atualizar status do pedido ID {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Endpoint para alterar o status de muitos pedidos de uma vez.
+     *
+     * O corpo traz {@code itens}, pares {@code {"id", "status"}}, ou {@code filtro} e {@code status},
+     * que levam todos os pedidos do filtro ao mesmo status. Os pedidos são alterados em blocos de
+     * {@code pedidos.lote.tamanho-bloco}, cada bloco com um único UPDATE sobre {@code unnest} em sua
+     * própria transação (no modo filtro, precedido da leitura da página seguinte da listagem, sempre
+     * no banco primário). Cada pedido segue as regras de {@link #atualizarStatus(Long, String)}; um
+     * ID repetido em {@code itens} vale pelo último status informado.
+     *
+     * A resposta é NDJSON com um {@link ResultadoStatusDTO} por pedido, escrito assim que o bloco é
+     * confirmado: {@code ATUALIZADO}, {@code REJEITADO} ou {@code NAO_ENCONTRADO}. Corpo inválido,
+     * algum status inválido ou filtro vazio resultam em 400 sem nenhuma alteração. Se um bloco
+     * falhar, os anteriores permanecem gravados e a resposta termina com
+     * {@code {"erro":"...","processados":N}}.
+     *
+     * @param requisicao Pedidos e status a aplicar.
+     * @param resposta   Resposta HTTP onde os resultados são escritos.
+     * @throws IOException Caso a escrita da resposta falhe.
+     */
+    @PutMapping(value = "/status", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void atualizarStatusEmMassa(@RequestBody AtualizacaoStatusEmMassaDTO requisicao,
+                                       HttpServletResponse resposta) throws IOException {
+        Map<Long, StatusPedido> statusPorPedido;
+        StatusPedido destinoFiltro;
+        try {
+            statusPorPedido = alteracoes(requisicao);
+            destinoFiltro = statusPorPedido == null ? destinoDoFiltro(requisicao) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Alteração de status em massa rejeitada: {}", e.getMessage());
+            resposta.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        log.info("Alterando status em massa. itens={}, filtro={}, status={}, tamanhoBloco={}",
+                statusPorPedido == null ? null : statusPorPedido.size(), requisicao.getFiltro(),
+                destinoFiltro, tamanhoBlocoLote);
+        long processados = 0;
+        try (JsonGenerator gerador = iniciarRespostaNdjson(resposta)) {
+            try {
+                if (statusPorPedido != null) {
+                    Map<Long, StatusPedido> bloco = new LinkedHashMap<>();
+                    for (Map.Entry<Long, StatusPedido> alteracao : statusPorPedido.entrySet()) {
+                        bloco.put(alteracao.getKey(), alteracao.getValue());
+                        if (bloco.size() == tamanhoBlocoLote) {
+                            processados += escreverResultados(gerador, domainServices.atualizarStatusEmLote(bloco));
+                            bloco = new LinkedHashMap<>();
+                        }
+                    }
+                    processados += escreverResultados(gerador, domainServices.atualizarStatusEmLote(bloco));
+                } else {
+                    // A seleção lê do primário: uma réplica atrasada omitiria pedidos recém-criados ou alterados.
+                    try (ContextoLeitura.Escopo primario = ContextoLeitura.usarPrimario()) {
+                        CursorPedidoDTO cursor = null;
+                        do {
+                            PaginaPedidosDTO pagina = domainServices.listarPedidos(requisicao.getFiltro(), cursor, tamanhoBlocoLote);
+                            Map<Long, StatusPedido> bloco = new LinkedHashMap<>();
+                            pagina.getItens().forEach(pedido -> bloco.put(pedido.getId(), destinoFiltro));
+                            processados += escreverResultados(gerador, domainServices.atualizarStatusEmLote(bloco));
+                            cursor = CursorPedidoDTO.decodificar(pagina.getProximoCursor());
+                        } while (cursor != null);
+                    }
+                }
+            } catch (DataAccessException | TransactionException e) {
+                log.error("Alteração de status em massa interrompida após {} pedidos processados", processados, e);
+                gerador.writeStartObject();
+                gerador.writeStringField("erro", e.getMostSpecificCause().getMessage());
+                gerador.writeNumberField("processados", processados);
+                gerador.writeEndObject();
+                gerador.writeRaw('\n');
+            }
+        }
+        log.info("Alteração de status em massa concluída. Pedidos processados: {}", processados);
+    }
+
+    /**
+     * Novos status por pedido, na ordem dos itens, ou {@code null} se a requisição usa filtro.
+     *
+     * @throws IllegalArgumentException Se a requisição misturar os dois modos, ou algum item não
+     *                                  tiver ID ou tiver status inválido.
+     */
+    private static Map<Long, StatusPedido> alteracoes(AtualizacaoStatusEmMassaDTO requisicao) {
+        if (requisicao.getItens() == null) {
+            return null;
+        }
+        if (requisicao.getFiltro() != null || requisicao.getStatus() != null) {
+            throw new IllegalArgumentException("Informe itens ou filtro e status, não ambos");
+        }
+        Map<Long, StatusPedido> statusPorPedido = new LinkedHashMap<>();
+        for (AlteracaoStatusDTO item : requisicao.getItens()) {
+            if (item.getId() == null) {
+                throw new IllegalArgumentException("Item sem ID de pedido");
+            }
+            statusPorPedido.put(item.getId(), StatusPedido.de(item.getStatus()));
+        }
+        return statusPorPedido;
+    }
+
+    /**
+     * @throws IllegalArgumentException Se faltar o status ou o filtro não tiver nenhum critério,
+     *                                  o que alteraria todos os pedidos.
+     */
+    private static StatusPedido destinoDoFiltro(AtualizacaoStatusEmMassaDTO requisicao) {
+        FiltroPedidosDTO filtro = requisicao.getFiltro();
+        if (filtro == null || (filtro.getStatus() == null && filtro.getInicio() == null && filtro.getFim() == null)) {
+            throw new IllegalArgumentException("Informe itens ou um filtro com ao menos um critério");
+        }
+        return StatusPedido.de(requisicao.getStatus());
+    }
+
+    private long escreverResultados(JsonGenerator gerador, List<TransicaoStatusProjecao> resultados) throws IOException {
+        for (TransicaoStatusProjecao resultado : resultados) {
+            resultadoStatusWriter.writeValue(gerador, new ResultadoStatusDTO(resultado.getId(), resultado.getResultado(),
+                    resultado.getStatusAnterior(), resultado.getStatusNovo(), resultado.getVersao()));
+            gerador.writeRaw('\n');
+        }
+        gerador.flush();
+        return resultados.size();
+    }
+
     /**
      * Endpoint para buscar um pedido pelo seu identificador único.
      *
-     * @param id ID do pedido a ser buscado.
-     * @return {@link ResponseEntity} com o pedido encontrado ou status 404 e mensagem de erro caso não exista.
+     * Com {@code If-None-Match}, a versão atual do pedido é consultada antes de qualquer outra
+     * coisa; se ela bater com algum dos ETags informados, a resposta é 304 sem carregar nem
+     * serializar o pedido.
+     *
+     * @param id          ID do pedido a ser buscado.
+     * @param ifNoneMatch ETags que o cliente já possui, se houver.
+     * @param accept      Tipos aceitos pelo cliente, que definem a representação e o seu ETag.
+     * @return {@link ResponseEntity} com o pedido encontrado, 304 se não mudou ou status 404 e mensagem de erro caso não exista.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> buscarPedidoPorId(@PathVariable("id") Long id) {
-        log.info("Buscando pedido com ID {}", id);
+    public ResponseEntity<?> buscarPedidoPorId(@PathVariable("id") Long id,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Buscando pedido com ID {}", id);
+        boolean protobuf = PedidoProtobufHttpMessageConverter.isEscolhido(accept);
+        if (ifNoneMatch != null) {
+            Optional<VersaoPedidoDTO> versao = domainServices.buscarVersaoPedido(id);
+            if (versao.isPresent() && corresponde(ifNoneMatch, etag(versao.get().getVersao(), protobuf))) {
+                log.debug("Pedido ID {} não modificado desde a versão {}", id, versao.get().getVersao());
+                return comVersao(ResponseEntity.status(HttpStatus.NOT_MODIFIED), versao.get(), protobuf).build();
+            }
+        }
         try {
             PedidoEntity pedido = domainServices.buscaPedidoPorId(id);
-            log.info("Pedido encontrado: {}", pedido);
-            return ResponseEntity.ok(pedido);
+            log.debug("Pedido ID {} encontrado na versão {}", id, pedido.getVersao());
+            return comVersao(ResponseEntity.ok(), VersaoPedidoDTO.de(pedido), protobuf).body(pedido);
         } catch (EntityNotFoundException ex) {
             log.warn("Pedido não encontrado com ID {}: {}", id, ex.getMessage());
-            return ResponseEntity
-                    .status(404)
-                    .body("Pedido não encontrado com ID: " + id);
+            return naoEncontrado(id);
         }
     }
+
+    /**
+     * Endpoint para buscar um pedido com os seus itens. O ETag é a versão do pedido, como em
+     * {@link #buscarPedidoPorId}: os itens não mudam depois da criação.
+     *
+     * @param id ID do pedido a ser buscado.
+     * @return {@link ResponseEntity} com o {@link PedidoDetalheDTO}, 304 se não mudou ou status 404 caso não exista.
+     */
+    @GetMapping("/{id}/detalhe")
+    public ResponseEntity<?> buscarDetalhePedido(@PathVariable("id") Long id) {
+        log.debug("Buscando pedido com itens, ID {}", id);
+        try {
+            PedidoDetalheDTO detalhe = domainServices.buscarDetalhePedido(id);
+            VersaoPedidoDTO versao = new VersaoPedidoDTO(detalhe.getVersao(), detalhe.getAtualizadoEm() != null
+                    ? detalhe.getAtualizadoEm() : detalhe.getDataHoraRealizacaoPedido());
+            return comVersao(ResponseEntity.ok(), versao, false).body(detalhe);
+        } catch (EntityNotFoundException ex) {
+            log.warn("Pedido não encontrado com ID {}: {}", id, ex.getMessage());
+            return naoEncontrado(id);
+        }
+    }
+
+    /**
+     * 404 com a mensagem em texto. O {@code Content-Type} é fixado para que a mensagem não seja
+     * rotulada com o tipo negociado para o pedido, como {@code application/x-protobuf}.
+     */
+    private static ResponseEntity<String> naoEncontrado(Long id) {
+        return ResponseEntity
+                .status(404)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("Pedido não encontrado com ID: " + id);
+    }
+
+    private static String etag(Long versao, boolean protobuf) {
+        return "\"" + versao + (protobuf ? SUFIXO_ETAG_PROTOBUF : "") + "\"";
+    }
+
+    /**
+     * O ETag identifica a versão do pedido e a representação; o {@code Vary: Accept} impede que
+     * caches intermediários entreguem uma representação a quem pediu a outra.
+     */
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B comVersao(B resposta, VersaoPedidoDTO versao,
+                                                                          boolean protobuf) {
+        resposta.varyBy(HttpHeaders.ACCEPT);
+        if (versao.getVersao() != null) {
+            resposta.eTag(etag(versao.getVersao(), protobuf));
+        }
+        if (versao.getModificadoEm() != null) {
+            resposta.lastModified(zonado(versao.getModificadoEm()));
+        }
+        return resposta;
+    }
+
+    /**
+     * ETag de uma página: hash de 64 bits dos pares (ID, versão) dos itens e do cursor seguinte,
+     * que determinam todo o conteúdo da resposta.
+     */
+    private static String etagPagina(PaginaPedidosDTO pagina, boolean protobuf) {
+        return etagPagina(pagina.getItens(), PedidoEntity::getId, PedidoEntity::getVersao, pagina.getProximoCursor(),
+                protobuf);
+    }
+
+    private static <T> String etagPagina(List<T> pedidos, Function<T, Long> id, Function<T, Long> versao,
+                                         String proximoCursor, boolean protobuf) {
+        long hash = 1125899906842597L;
+        for (T pedido : pedidos) {
+            Long versaoPedido = versao.apply(pedido);
+            hash = 31 * hash + id.apply(pedido);
+            hash = 31 * hash + (versaoPedido == null ? 0 : versaoPedido);
+        }
+        hash = 31 * hash + (proximoCursor == null ? 0 : proximoCursor.hashCode());
+        return "\"" + Long.toHexString(hash) + (protobuf ? SUFIXO_ETAG_PROTOBUF : "") + "\"";
+    }
+
+    /** Comparação fraca, como o RFC 9110 define para o {@code If-None-Match}. */
+    private static boolean corresponde(String ifNoneMatch, String etag) {
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ZonedDateTime zonado(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault());
+    }
+
+    private JsonGenerator iniciarRespostaNdjson(HttpServletResponse resposta) throws IOException {
+        resposta.setStatus(HttpServletResponse.SC_OK);
+        resposta.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        JsonGenerator gerador = exportacaoWriter.createGenerator(resposta.getOutputStream());
+        gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        gerador.setRootValueSeparator(null);
+        return gerador;
+    }
+
+    private static FiltroPedidosDTO filtro(String status, LocalDateTime inicio, LocalDateTime fim) {
+        return FiltroPedidosDTO.builder()
+                .status(status == null ? null : StatusPedido.de(status))
+                .inicio(inicio)
+                .fim(fim)
+                .build();
+    }
 }
@@ -0,0 +1,6 @@
+-- Schema original, antes gerado pelo Hibernate (ddl-auto=update).
+CREATE TABLE IF NOT EXISTS pedido (
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    data_hora_realizacao_pedido TIMESTAMP(6),
+    status                      VARCHAR(255)
+);
@@ -0,0 +1,8 @@
+-- IDs passam a vir de uma sequência com incremento 50: o Hibernate reserva um bloco de IDs
+-- por chamada (otimizador pooled-lo) e consegue agrupar os INSERTs em lotes JDBC,
+-- o que não acontece com colunas IDENTITY.
+ALTER TABLE pedido ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS pedido_seq INCREMENT BY 50;
+
+SELECT setval('pedido_seq', COALESCE((SELECT MAX(id) FROM pedido), 0) + 1, false);
@@ -0,0 +1,8 @@
+-- Eventos de pedidos gravados na mesma transação da alteração e publicados depois no RabbitMQ
+-- pelo RelayOutboxPedidos. Linhas são removidas assim que o broker confirma a publicação.
+CREATE TABLE outbox_pedido (
+    id           BIGSERIAL    PRIMARY KEY,
+    routing_key  VARCHAR(60)  NOT NULL,
+    payload      JSONB        NOT NULL,
+    criado_em    TIMESTAMP(6) NOT NULL DEFAULT now()
+);
@@ -0,0 +1,52 @@
+-- A tabela pedido passa a ser particionada por mês de data_hora_realizacao_pedido. Consultas por
+-- período só leem as partições do intervalo, e meses antigos podem ser desanexados para arquivo
+-- sem DELETE (ParticoesPedidoRepository). Novas partições são criadas com antecedência pela
+-- aplicação; a partição padrão recebe apenas linhas fora dos meses existentes.
+--
+-- Em tabelas particionadas a chave primária precisa conter a coluna de partição, então a
+-- unicidade do ID passa a ser garantida pela pedido_seq, e a data deixa de aceitar nulo. Pedidos
+-- antigos sem data recebem o início da era Unix e ficam na partição padrão.
+UPDATE pedido SET data_hora_realizacao_pedido = TIMESTAMP 'epoch' WHERE data_hora_realizacao_pedido IS NULL;
+
+ALTER TABLE pedido RENAME TO pedido_legado;
+ALTER TABLE pedido_legado RENAME CONSTRAINT pedido_pkey TO pedido_legado_pkey;
+
+CREATE TABLE pedido (
+    id                          BIGINT       NOT NULL,
+    data_hora_realizacao_pedido TIMESTAMP(6) NOT NULL,
+    status                      VARCHAR(255),
+    CONSTRAINT pedido_pkey PRIMARY KEY (id, data_hora_realizacao_pedido)
+) PARTITION BY RANGE (data_hora_realizacao_pedido);
+
+CREATE TABLE pedido_padrao PARTITION OF pedido DEFAULT;
+
+-- Uma partição por mês desde o pedido mais antigo até três meses à frente, com o mesmo nome
+-- usado pela aplicação (pedido_pAAAA_MM).
+DO $$
+DECLARE
+    mes DATE;
+BEGIN
+    mes := date_trunc('month', COALESCE(
+            (SELECT MIN(data_hora_realizacao_pedido) FROM pedido_legado
+              WHERE data_hora_realizacao_pedido > TIMESTAMP 'epoch'),
+            now()));
+    WHILE mes <= date_trunc('month', now() + INTERVAL '3 months') LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF pedido FOR VALUES FROM (%L) TO (%L)',
+                       'pedido_p' || to_char(mes, 'YYYY_MM'), mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO pedido (id, data_hora_realizacao_pedido, status)
+SELECT id, data_hora_realizacao_pedido, status FROM pedido_legado;
+
+DROP TABLE pedido_legado;
+
+-- Atende a listagem e a exportação, ordenadas por (data_hora_realizacao_pedido, id) e
+-- filtradas por período. Criado na tabela pai, é replicado em cada partição.
+CREATE INDEX pedido_data_hora_id_idx ON pedido (data_hora_realizacao_pedido, id);
+
+-- Partições desanexadas são movidas para este schema, onde podem ser exportadas ou removidas.
+CREATE SCHEMA IF NOT EXISTS arquivo_pedido;
+
+ANALYZE pedido;
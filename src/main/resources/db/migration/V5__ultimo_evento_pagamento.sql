@@ -0,0 +1,8 @@
+-- Último evento de pagamento aplicado a cada pedido, uma linha por pedido. O PagamentoListener
+-- só aplica um evento se ele for mais recente que o registrado aqui, o que descarta reentregas,
+-- publicações duplicadas e eventos que chegam fora de ordem (DeduplicadorEventosPagamento).
+CREATE TABLE ultimo_evento_pagamento (
+    id_pedido    BIGINT         PRIMARY KEY,
+    id_evento    VARCHAR(64)    NOT NULL,
+    ocorrido_em  TIMESTAMPTZ(6) NOT NULL
+);
@@ -0,0 +1,6 @@
+-- Versão do pedido, incrementada a cada alteração de status, e instante da última alteração.
+-- Usadas nos ETags e no Last-Modified das leituras de pedidos (PedidosController).
+-- Nenhuma das colunas exige reescrever a tabela: a versão tem default constante e atualizado_em
+-- fica nula até a primeira alteração, caso em que vale a data de realização do pedido.
+ALTER TABLE pedido ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pedido ADD COLUMN atualizado_em TIMESTAMP(6);
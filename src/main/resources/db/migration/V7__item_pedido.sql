@@ -0,0 +1,18 @@
+-- Itens dos pedidos. Os IDs vêm de uma sequência com incremento 50, como a pedido_seq, para que o
+-- Hibernate grave os itens de um pedido grande em lotes JDBC.
+--
+-- Não há chave estrangeira para pedido: a chave primária da tabela particionada inclui a data de
+-- realização, e a unicidade do ID é garantida pela pedido_seq (V4). Os itens só são gravados em
+-- cascata a partir do pedido.
+CREATE SEQUENCE item_pedido_seq INCREMENT BY 50;
+
+CREATE TABLE item_pedido (
+    id              BIGINT         PRIMARY KEY,
+    pedido_id       BIGINT         NOT NULL,
+    produto         VARCHAR(255)   NOT NULL,
+    quantidade      INTEGER        NOT NULL CHECK (quantidade > 0),
+    preco_unitario  NUMERIC(12, 2) NOT NULL CHECK (preco_unitario >= 0)
+);
+
+-- Atende a leitura dos itens de uma página de pedidos (pedido_id IN (...)) já na ordem dos itens.
+CREATE INDEX item_pedido_pedido_id_idx ON item_pedido (pedido_id, id);
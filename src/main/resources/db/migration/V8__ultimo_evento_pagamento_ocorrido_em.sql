@@ -0,0 +1,3 @@
+-- Atende o expurgo periódico dos registros de eventos antigos (DeduplicadorEventosPagamento), que
+-- apaga as linhas com ocorrido_em anterior à retenção.
+CREATE INDEX ultimo_evento_pagamento_ocorrido_em_idx ON ultimo_evento_pagamento (ocorrido_em);
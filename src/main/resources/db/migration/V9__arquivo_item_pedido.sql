@@ -0,0 +1,7 @@
+-- Itens dos pedidos arquivados. Ao desanexar a partição de um mês (ParticoesPedidoRepository), os
+-- itens dos pedidos dessa partição são movidos para cá na mesma transação, para não ficarem em
+-- item_pedido sem o pedido correspondente.
+--
+-- Mesmas colunas, na mesma ordem, de item_pedido: a cópia usa SELECT *. Uma coluna nova em
+-- item_pedido precisa ser adicionada também aqui.
+CREATE TABLE arquivo_pedido.item_pedido (LIKE public.item_pedido INCLUDING ALL);
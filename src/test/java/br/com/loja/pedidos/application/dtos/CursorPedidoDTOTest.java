@@ -0,0 +1,28 @@
+package br.com.loja.pedidos.application.dtos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPedidoDTOTest {
+
+    @Test
+    void testCodificarEDecodificar() {
+        CursorPedidoDTO cursor = new CursorPedidoDTO(LocalDateTime.of(2024, 1, 31, 23, 59, 59, 123456000), 42L);
+
+        assertEquals(cursor, CursorPedidoDTO.decodificar(cursor.codificar()));
+    }
+
+    @Test
+    void testDecodificarVazio() {
+        assertNull(CursorPedidoDTO.decodificar(null));
+        assertNull(CursorPedidoDTO.decodificar(" "));
+    }
+
+    @Test
+    void testDecodificarInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPedidoDTO.decodificar("nao-e-um-cursor"));
+    }
+}
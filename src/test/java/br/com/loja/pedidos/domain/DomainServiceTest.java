@@ -1,28 +1,76 @@
 package br.com.loja.pedidos.domain;
 
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.ItemPedidoDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDetalheDTO;
+import br.com.loja.pedidos.application.dtos.PedidoDetalheDTO;
+import br.com.loja.pedidos.application.dtos.VersaoPedidoDTO;
+import br.com.loja.pedidos.domain.entities.ItemPedidoEntity;
 import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.cache.CachePedidos;
+import br.com.loja.pedidos.infra.cache.EstatisticasPedidos;
+import br.com.loja.pedidos.infra.cache.IndicePedidos;
+import br.com.loja.pedidos.infra.repositories.CarregadorPedidos;
+import br.com.loja.pedidos.infra.repositories.ItemPedidoRepository;
+import br.com.loja.pedidos.infra.repositories.PedidoExportacaoRepository;
 import br.com.loja.pedidos.infra.repositories.PedidoRepository;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 class DomainServiceTest {
 
     private PedidoRepository pedidoRepository;
+    private ItemPedidoRepository itemPedidoRepository;
+    private PedidoExportacaoRepository pedidoExportacaoRepository;
+    private IndicePedidos indicePedidos;
+    private CachePedidos cachePedidos;
+    private EstatisticasPedidos estatisticasPedidos;
+    private ApplicationEventPublisher eventPublisher;
     private DomainServices domainServices;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         pedidoRepository = mock(PedidoRepository.class);
-        domainServices = new DomainServices(pedidoRepository);
+        itemPedidoRepository = mock(ItemPedidoRepository.class);
+        pedidoExportacaoRepository = mock(PedidoExportacaoRepository.class);
+        indicePedidos = mock(IndicePedidos.class);
+        cachePedidos = mock(CachePedidos.class);
+        estatisticasPedidos = mock(EstatisticasPedidos.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(cachePedidos.buscar(any(), any())).thenAnswer(invocacao ->
+                invocacao.<Function<Long, Optional<PedidoEntity>>>getArgument(1).apply(invocacao.getArgument(0)));
+        CarregadorPedidos carregadorPedidos = new CarregadorPedidos(pedidoRepository, 200, 100, new SimpleMeterRegistry());
+        domainServices = new DomainServices(pedidoRepository, itemPedidoRepository, pedidoExportacaoRepository, indicePedidos,
+                cachePedidos, carregadorPedidos, estatisticasPedidos, eventPublisher);
     }
 
     @Test
@@ -37,19 +85,197 @@ class DomainServiceTest {
         assertNotNull(result);
         assertEquals("CRIADO", result.getStatus());
         verify(pedidoRepository, times(1)).save(pedido);
+        verify(eventPublisher).publishEvent(new PedidoCriadoEvent(pedido));
     }
 
     @Test
-    void testListarPedidos() {
-        PedidoEntity p1 = new PedidoEntity();
-        PedidoEntity p2 = new PedidoEntity();
+    void testCriarPedidosEmLote() {
+        PedidoEntity semStatus = PedidoEntity.builder().id(99L).build();
+        PedidoEntity pago = PedidoEntity.builder().status("pago").build();
+        List<PedidoEntity> bloco = List.of(semStatus, pago);
 
-        when(pedidoRepository.findAll()).thenReturn(Arrays.asList(p1, p2));
+        when(pedidoRepository.saveAll(bloco)).thenAnswer(invocacao -> {
+            semStatus.setId(51L);
+            pago.setId(52L);
+            return bloco;
+        });
 
-        List<PedidoEntity> pedidos = domainServices.listarPedidos();
+        List<Long> ids = domainServices.criarPedidosEmLote(bloco);
 
-        assertEquals(2, pedidos.size());
-        verify(pedidoRepository, times(1)).findAll();
+        assertEquals(List.of(51L, 52L), ids);
+        assertEquals("CRIADO", semStatus.getStatus());
+        assertEquals("PAGO", pago.getStatus());
+        verify(eventPublisher, times(2)).publishEvent(any(PedidoCriadoEvent.class));
+    }
+
+    @Test
+    void testCriarPedidosEmLoteComStatusInvalidoNaoGravaNada() {
+        List<PedidoEntity> bloco = List.of(new PedidoEntity(), PedidoEntity.builder().status("QUALQUER").build());
+
+        assertThrows(IllegalArgumentException.class, () -> domainServices.criarPedidosEmLote(bloco));
+        verify(pedidoRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testCriarPedido_ComItemInvalidoNaoGrava() {
+        PedidoEntity pedido = PedidoEntity.builder().status("CRIADO").build();
+        pedido.getItens().add(ItemPedidoEntity.builder().produto("caneta").quantidade(0)
+                .precoUnitario(BigDecimal.ONE).build());
+
+        assertThrows(IllegalArgumentException.class, () -> domainServices.criarPedido(pedido));
+        verify(pedidoRepository, never()).save(any());
+    }
+
+    @Test
+    void testCriarPedido_IgnoraIdsDosItens() {
+        ItemPedidoEntity item = ItemPedidoEntity.builder().id(9L).pedidoId(8L).produto("caneta").quantidade(2)
+                .precoUnitario(new BigDecimal("1.50")).build();
+        PedidoEntity pedido = PedidoEntity.builder().status("CRIADO").build();
+        pedido.getItens().add(item);
+        when(pedidoRepository.save(pedido)).thenReturn(pedido);
+
+        domainServices.criarPedido(pedido);
+
+        assertNull(item.getId());
+        assertNull(item.getPedidoId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarDetalhesPedidos_LeItensDaPaginaComUmaConsulta() {
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 1, 10, 0);
+        PedidoEntity p1 = PedidoEntity.builder().id(1L).dataHoraRealizacaoPedido(agora).build();
+        PedidoEntity p2 = PedidoEntity.builder().id(2L).dataHoraRealizacaoPedido(agora).build();
+        when(pedidoRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(p1, p2)));
+        when(itemPedidoRepository.buscarItens(List.of(1L, 2L))).thenReturn(List.of(
+                new ItemPedidoDTO(1L, 10L, "caneta", 2, new BigDecimal("1.50")),
+                new ItemPedidoDTO(1L, 11L, "lápis", 1, new BigDecimal("0.75"))));
+
+        PaginaPedidosDetalheDTO pagina = domainServices.listarDetalhesPedidos(new FiltroPedidosDTO(), null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        PedidoDetalheDTO primeiro = pagina.getItens().get(0);
+        assertEquals(List.of(10L, 11L), primeiro.getItens().stream().map(ItemPedidoDTO::getId).toList());
+        assertEquals(new BigDecimal("3.75"), primeiro.getValorTotal());
+        assertEquals(List.of(), pagina.getItens().get(1).getItens());
+        assertEquals(0, BigDecimal.ZERO.compareTo(pagina.getItens().get(1).getValorTotal()));
+        verify(itemPedidoRepository, times(1)).buscarItens(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarDetalhesPedidos_PaginaVaziaNaoConsultaItens() {
+        when(pedidoRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(new ArrayList<>());
+
+        PaginaPedidosDetalheDTO pagina = domainServices.listarDetalhesPedidos(new FiltroPedidosDTO(), null, 10);
+
+        assertTrue(pagina.getItens().isEmpty());
+        verifyNoInteractions(itemPedidoRepository);
+    }
+
+    @Test
+    void testBuscarDetalhePedido() {
+        PedidoEntity pedido = PedidoEntity.builder().id(1L).status("PAGO").versao(2L).build();
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(itemPedidoRepository.buscarItens(List.of(1L))).thenReturn(List.of(
+                new ItemPedidoDTO(1L, 10L, "caneta", 3, new BigDecimal("2.00"))));
+
+        PedidoDetalheDTO detalhe = domainServices.buscarDetalhePedido(1L);
+
+        assertEquals("PAGO", detalhe.getStatus());
+        assertEquals(2L, detalhe.getVersao());
+        assertEquals(new BigDecimal("6.00"), detalhe.getValorTotal());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarPedidos_ComProximaPagina() {
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 1, 10, 0);
+        PedidoEntity p1 = PedidoEntity.builder().id(1L).dataHoraRealizacaoPedido(agora).build();
+        PedidoEntity p2 = PedidoEntity.builder().id(2L).dataHoraRealizacaoPedido(agora).build();
+        PedidoEntity p3 = PedidoEntity.builder().id(3L).dataHoraRealizacaoPedido(agora.plusSeconds(1)).build();
+
+        when(pedidoRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(p1, p2, p3)));
+
+        PaginaPedidosDTO pagina = domainServices.listarPedidos(new FiltroPedidosDTO(), null, 2);
+
+        assertEquals(List.of(p1, p2), pagina.getItens());
+        CursorPedidoDTO cursor = CursorPedidoDTO.decodificar(pagina.getProximoCursor());
+        assertEquals(2L, cursor.getId());
+        assertEquals(agora, cursor.getDataHoraRealizacaoPedido());
+        verify(pedidoRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarPedidos_UltimaPagina() {
+        PedidoEntity p1 = PedidoEntity.builder().id(1L).dataHoraRealizacaoPedido(LocalDateTime.now()).build();
+
+        when(pedidoRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(p1));
+
+        PaginaPedidosDTO pagina = domainServices.listarPedidos(new FiltroPedidosDTO(), null, 20);
+
+        assertEquals(List.of(p1), pagina.getItens());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarPedidos_SoPeriodoUsaConsultaPorPeriodo() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2024, 6, 1, 0, 0);
+        PedidoEntity p1 = PedidoEntity.builder().id(7L).dataHoraRealizacaoPedido(inicio.plusDays(1)).build();
+        PedidoEntity p2 = PedidoEntity.builder().id(8L).dataHoraRealizacaoPedido(inicio.plusDays(2)).build();
+        FiltroPedidosDTO filtro = FiltroPedidosDTO.builder().inicio(inicio).fim(fim).build();
+
+        when(pedidoRepository.buscarPorPeriodo(inicio, fim, inicio, Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(new ArrayList<>(Arrays.asList(p1, p2)));
+
+        PaginaPedidosDTO pagina = domainServices.listarPedidos(filtro, null, 1);
+
+        assertEquals(List.of(p1), pagina.getItens());
+        CursorPedidoDTO cursor = CursorPedidoDTO.decodificar(pagina.getProximoCursor());
+        assertEquals(7L, cursor.getId());
+        assertEquals(p1.getDataHoraRealizacaoPedido(), cursor.getDataHoraRealizacaoPedido());
+        verify(pedidoRepository, never()).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    void testListarPedidos_SoPeriodoContinuaAposOCursor() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2024, 6, 1, 0, 0);
+        CursorPedidoDTO cursor = new CursorPedidoDTO(inicio.plusDays(1), 7L);
+        FiltroPedidosDTO filtro = FiltroPedidosDTO.builder().inicio(inicio).fim(fim).build();
+
+        when(pedidoRepository.buscarPorPeriodo(inicio, fim, inicio.plusDays(1), 7L, Limit.of(21)))
+                .thenReturn(new ArrayList<>());
+
+        PaginaPedidosDTO pagina = domainServices.listarPedidos(filtro, cursor, 20);
+
+        assertTrue(pagina.getItens().isEmpty());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    void testContarPedidos_DelegaAConsultaPorPeriodo() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2024, 6, 1, 0, 0);
+        when(pedidoRepository.contarPorPeriodo(inicio, fim)).thenReturn(3L);
+
+        assertEquals(3L, domainServices.contarPedidos(inicio, fim));
+    }
+
+    @Test
+    void testExportarPedidos_DelegaAoCursor() {
+        FiltroPedidosDTO filtro = FiltroPedidosDTO.builder().status(StatusPedido.PAGO).build();
+        Consumer<PedidoEntity> consumidor = pedido -> { };
+
+        domainServices.exportarPedidos(filtro, consumidor);
+
+        verify(pedidoExportacaoRepository).percorrer(filtro, consumidor);
     }
 
     @Test
@@ -77,31 +303,172 @@ class DomainServiceTest {
     }
 
     @Test
-    void testAtualizarStatus_ComSucesso() {
+    void testExistePedido_RespondidoPeloIndice() {
+        when(indicePedidos.consultar(1L)).thenReturn(IndicePedidos.Presenca.PRESENTE);
+        when(indicePedidos.consultar(2L)).thenReturn(IndicePedidos.Presenca.AUSENTE);
+
+        assertTrue(domainServices.existePedido(1L));
+        assertFalse(domainServices.existePedido(2L));
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    @Test
+    void testExistePedido_IndiceDesconhecidoConsultaBanco() {
+        when(indicePedidos.consultar(3L)).thenReturn(IndicePedidos.Presenca.DESCONHECIDO);
+        when(pedidoRepository.buscarIdsExistentes(aryEq(new Long[] {3L}))).thenReturn(List.of(3L));
+
+        assertTrue(domainServices.existePedido(3L));
+        verify(indicePedidos).adicionar(3L);
+        verify(pedidoRepository, never()).findById(any());
+    }
+
+    @Test
+    void testBuscarIdsExistentes_SoConsultaBancoParaDesconhecidos() {
+        when(indicePedidos.consultar(1L)).thenReturn(IndicePedidos.Presenca.PRESENTE);
+        when(indicePedidos.consultar(2L)).thenReturn(IndicePedidos.Presenca.AUSENTE);
+        when(indicePedidos.consultar(3L)).thenReturn(IndicePedidos.Presenca.DESCONHECIDO);
+        when(indicePedidos.consultar(4L)).thenReturn(IndicePedidos.Presenca.DESCONHECIDO);
+        when(pedidoRepository.buscarIdsExistentes(aryEq(new Long[] {3L, 4L}))).thenReturn(List.of(4L));
+
+        assertEquals(Set.of(1L, 4L), domainServices.buscarIdsExistentes(List.of(1L, 2L, 3L, 4L, 1L)));
+        verify(pedidoRepository, times(1)).buscarIdsExistentes(any());
+    }
+
+    @Test
+    void testCriarPedido_SemStatusNasceCriado() {
         PedidoEntity pedido = new PedidoEntity();
-        pedido.setId(1L);
-        pedido.setStatus("CRIADO");
 
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoRepository.save(any(PedidoEntity.class))).thenAnswer(i -> i.getArgument(0));
+        when(pedidoRepository.save(pedido)).thenReturn(pedido);
+
+        assertEquals("CRIADO", domainServices.criarPedido(pedido).getStatus());
+    }
+
+    @Test
+    void testBuscarVersaoPedido_UsaOCacheAntesDoBanco() {
+        PedidoEntity pedido = PedidoEntity.builder()
+                .id(1L).versao(2L).dataHoraRealizacaoPedido(LocalDateTime.of(2025, 3, 10, 12, 0)).build();
+        when(cachePedidos.buscarSePresente(1L)).thenReturn(Optional.of(pedido));
+        when(cachePedidos.buscarSePresente(2L)).thenReturn(Optional.empty());
+        when(pedidoRepository.buscarVersao(2L))
+                .thenReturn(Optional.of(new VersaoPedidoDTO(7L, LocalDateTime.of(2025, 3, 10, 13, 0))));
+
+        assertEquals(2L, domainServices.buscarVersaoPedido(1L).orElseThrow().getVersao());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 12, 0), domainServices.buscarVersaoPedido(1L).orElseThrow().getModificadoEm());
+        assertEquals(7L, domainServices.buscarVersaoPedido(2L).orElseThrow().getVersao());
+        verify(pedidoRepository, never()).buscarVersao(1L);
+        verify(pedidoRepository, never()).findById(any());
+    }
+
+    @Test
+    void testCriarPedido_SemDataRecebeInstanteAtual() {
+        PedidoEntity pedido = PedidoEntity.builder().status("CRIADO").build();
+
+        when(pedidoRepository.save(pedido)).thenReturn(pedido);
+
+        assertNotNull(domainServices.criarPedido(pedido).getDataHoraRealizacaoPedido());
+    }
+
+    @Test
+    void testAtualizarStatus_ComSucesso() {
+        TransicaoStatusProjecao transicao = transicao(1L, "CRIADO", "PAGO", TransicaoStatusProjecao.ATUALIZADO);
+        when(pedidoRepository.transicionarStatus(eq(1L), eq("PAGO"), any(String[].class)))
+                .thenReturn(Optional.of(transicao));
 
         PedidoEntity atualizado = domainServices.atualizarStatus(1L, "PAGO");
 
+        assertEquals(1L, atualizado.getId());
         assertEquals("PAGO", atualizado.getStatus());
+        verify(eventPublisher).publishEvent(new StatusPedidoAlteradoEvent(1L, "CRIADO", StatusPedido.PAGO, null));
 
-        ArgumentCaptor<PedidoEntity> captor = ArgumentCaptor.forClass(PedidoEntity.class);
-        verify(pedidoRepository).save(captor.capture());
-        assertEquals("PAGO", captor.getValue().getStatus());
+        ArgumentCaptor<String[]> anteriores = ArgumentCaptor.forClass(String[].class);
+        verify(pedidoRepository).transicionarStatus(eq(1L), eq("PAGO"), anteriores.capture());
+        assertEquals(Set.of("CRIADO", "RECUSADO"), Set.of(anteriores.getValue()));
+        verify(pedidoRepository, never()).findById(any());
+        verify(pedidoRepository, never()).save(any());
+    }
+
+    @Test
+    void testAtualizarStatus_TransicaoRejeitada() {
+        TransicaoStatusProjecao transicao = transicao(1L, "ENTREGUE", "PAGO", TransicaoStatusProjecao.REJEITADO);
+        when(pedidoRepository.transicionarStatus(eq(1L), eq("PAGO"), any(String[].class)))
+                .thenReturn(Optional.of(transicao));
+
+        TransicaoStatusInvalidaException exception = assertThrows(TransicaoStatusInvalidaException.class, () ->
+                domainServices.atualizarStatus(1L, "PAGO")
+        );
+
+        assertEquals("ENTREGUE", exception.getStatusAtual());
+        assertEquals(StatusPedido.PAGO, exception.getStatusSolicitado());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testAtualizarStatus_StatusInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> domainServices.atualizarStatus(1L, "QUALQUER"));
+        verifyNoInteractions(pedidoRepository);
     }
 
     @Test
     void testAtualizarStatus_PedidoNaoEncontrado() {
-        when(pedidoRepository.findById(123L)).thenReturn(Optional.empty());
+        when(pedidoRepository.transicionarStatus(eq(123L), eq("CANCELADO"), any(String[].class)))
+                .thenReturn(Optional.empty());
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
                 domainServices.atualizarStatus(123L, "CANCELADO")
         );
 
         assertEquals("Pedido com ID 123 não encontrado.", exception.getMessage());
     }
+
+    @Test
+    void testTransicionarStatus_RejeicaoVemNoResultado() {
+        TransicaoStatusProjecao transicao = transicao(1L, "ENTREGUE", "PAGO", TransicaoStatusProjecao.REJEITADO);
+        when(pedidoRepository.transicionarStatus(eq(1L), eq("PAGO"), any(String[].class)))
+                .thenReturn(Optional.of(transicao));
+
+        Optional<TransicaoStatusProjecao> resultado = domainServices.transicionarStatus(1L, StatusPedido.PAGO);
+
+        assertEquals(Optional.of(transicao), resultado);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testAtualizarStatusEmLote() {
+        Map<Long, StatusPedido> statusPorPedido = new LinkedHashMap<>();
+        statusPorPedido.put(1L, StatusPedido.PAGO);
+        statusPorPedido.put(2L, StatusPedido.CANCELADO);
+
+        List<TransicaoStatusProjecao> esperado = List.of(
+                transicao(1L, "CRIADO", "PAGO", TransicaoStatusProjecao.ATUALIZADO),
+                transicao(2L, null, "CANCELADO", TransicaoStatusProjecao.NAO_ENCONTRADO));
+        when(pedidoRepository.transicionarStatusEmLote(any(Long[].class), any(String[].class),
+                any(String[].class), any(String[].class))).thenReturn(esperado);
+
+        List<TransicaoStatusProjecao> resultados = domainServices.atualizarStatusEmLote(statusPorPedido);
+
+        assertEquals(esperado, resultados);
+        verify(eventPublisher, times(1)).publishEvent(any(StatusPedidoAlteradoEvent.class));
+        verify(eventPublisher).publishEvent(new StatusPedidoAlteradoEvent(1L, "CRIADO", StatusPedido.PAGO, null));
+        verify(pedidoRepository).transicionarStatusEmLote(
+                aryEq(new Long[] {1L, 2L}), aryEq(new String[] {"PAGO", "CANCELADO"}),
+                any(String[].class), any(String[].class));
+        verify(pedidoRepository, never()).findById(any());
+        verify(pedidoRepository, never()).save(any());
+    }
+
+    @Test
+    void testAtualizarStatusEmLote_Vazio() {
+        assertTrue(domainServices.atualizarStatusEmLote(Map.of()).isEmpty());
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    private static TransicaoStatusProjecao transicao(Long id, String anterior, String novo, String resultado) {
+        TransicaoStatusProjecao transicao = mock(TransicaoStatusProjecao.class);
+        when(transicao.getId()).thenReturn(id);
+        when(transicao.getStatusAnterior()).thenReturn(anterior);
+        when(transicao.getStatusNovo()).thenReturn(novo);
+        when(transicao.getResultado()).thenReturn(resultado);
+        when(transicao.isAtualizado()).thenReturn(TransicaoStatusProjecao.ATUALIZADO.equals(resultado));
+        return transicao;
+    }
 }
@@ -0,0 +1,38 @@
+package br.com.loja.pedidos.domain.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusPedidoTest {
+
+    @Test
+    void testDe_IgnoraCaixaEEspacos() {
+        assertEquals(StatusPedido.PAGO, StatusPedido.de(" pago "));
+    }
+
+    @Test
+    void testDe_Invalido() {
+        assertThrows(IllegalArgumentException.class, () -> StatusPedido.de("PENDENTE"));
+        assertThrows(IllegalArgumentException.class, () -> StatusPedido.de(null));
+    }
+
+    @Test
+    void testOrigensSaoInversoDosDestinos() {
+        for (StatusPedido origem : StatusPedido.values()) {
+            for (StatusPedido destino : StatusPedido.values()) {
+                assertEquals(origem.podeTransicionarPara(destino), destino.origensPermitidas().contains(origem),
+                        origem + " -> " + destino);
+            }
+        }
+    }
+
+    @Test
+    void testStatusFinaisNaoTemDestinos() {
+        assertTrue(StatusPedido.CANCELADO.destinosPermitidos().isEmpty());
+        assertTrue(StatusPedido.ENTREGUE.destinosPermitidos().isEmpty());
+        assertEquals(Set.of(StatusPedido.ENVIADO), StatusPedido.ENTREGUE.origensPermitidas());
+    }
+}
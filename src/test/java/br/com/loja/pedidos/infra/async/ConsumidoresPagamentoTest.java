@@ -0,0 +1,87 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsumidoresPagamentoTest {
+
+    private final PagamentoListener listener = mock(PagamentoListener.class);
+    private final SimpleRabbitListenerContainerFactory particaoFactory = fabrica();
+    private final SimpleRabbitListenerContainerFactory loteFactory = fabrica();
+
+    @Test
+    void testRegistraUmEndpointPorParticao() {
+        List<MethodRabbitListenerEndpoint> endpoints = registrar(false);
+
+        assertEquals(3, endpoints.size());
+        for (int particao = 0; particao < 3; particao++) {
+            assertEquals(List.of(RabbitConfig.nomeFilaParticao(particao)), endpoints.get(particao).getQueueNames());
+            assertFalse(endpoints.get(particao).getBatchListener());
+        }
+    }
+
+    @Test
+    void testMensagemDaParticaoChegaConvertidaAoListener() throws Exception {
+        MethodRabbitListenerEndpoint endpoint = registrar(false).get(1);
+        SimpleMessageListenerContainer container = particaoFactory.createListenerContainer(endpoint);
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        Date publicadoEm = new Date(1_700_000_000_000L);
+        propriedades.setTimestamp(publicadoEm);
+        Message mensagem = new Message("{\"idPedido\":5,\"status\":\"PAGO\"}".getBytes(StandardCharsets.UTF_8), propriedades);
+
+        ((ChannelAwareMessageListener) container.getMessageListener()).onMessage(mensagem, mock(Channel.class));
+
+        ArgumentCaptor<EventoPagamentoDTO> evento = ArgumentCaptor.forClass(EventoPagamentoDTO.class);
+        verify(listener).receberPedido(evento.capture(), eq(publicadoEm));
+        assertEquals(5L, evento.getValue().getIdPedido());
+        assertEquals("PAGO", evento.getValue().getStatus());
+    }
+
+    @Test
+    void testModoLoteUsaListenerDeLote() {
+        List<MethodRabbitListenerEndpoint> endpoints = registrar(true);
+
+        assertEquals(3, endpoints.size());
+        assertTrue(endpoints.get(0).getBatchListener());
+        assertEquals("receberLote", endpoints.get(0).getMethod().getName());
+    }
+
+    private List<MethodRabbitListenerEndpoint> registrar(boolean lote) {
+        ConsumidoresPagamento consumidores = new ConsumidoresPagamento(listener, particaoFactory, loteFactory,
+                new DefaultListableBeanFactory(), 3, lote);
+        RabbitListenerEndpointRegistrar registrar = mock(RabbitListenerEndpointRegistrar.class);
+        consumidores.configureRabbitListeners(registrar);
+
+        ArgumentCaptor<MethodRabbitListenerEndpoint> endpoints = ArgumentCaptor.forClass(MethodRabbitListenerEndpoint.class);
+        verify(registrar, times(3)).registerEndpoint(endpoints.capture(), same(lote ? loteFactory : particaoFactory));
+        return endpoints.getAllValues();
+    }
+
+    private static SimpleRabbitListenerContainerFactory fabrica() {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(mock(ConnectionFactory.class));
+        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        return factory;
+    }
+}
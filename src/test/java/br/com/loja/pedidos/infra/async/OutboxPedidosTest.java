@@ -0,0 +1,75 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import br.com.loja.pedidos.infra.repositories.OutboxRepository;
+import br.com.loja.pedidos.infra.repositories.RegistroOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxPedidosTest {
+
+    private OutboxRepository outboxRepository;
+    private OutboxPedidos outboxPedidos;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        outboxPedidos = new OutboxPedidos(outboxRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(outboxPedidos);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventosDaTransacaoSaoGravadosEmUmLoteAntesDoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outboxPedidos.aoCriarPedido(new PedidoCriadoEvent(
+                new PedidoEntity(1L, "CRIADO", LocalDateTime.of(2025, 1, 1, 10, 0), 0L, null)));
+        outboxPedidos.aoAlterarStatus(new StatusPedidoAlteradoEvent(1L, "CRIADO", StatusPedido.PAGO, null));
+        verifyNoInteractions(outboxRepository);
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, sincronizacoes.size());
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        ArgumentCaptor<List<RegistroOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, times(1)).inserir(captor.capture());
+        List<RegistroOutbox> registros = captor.getValue();
+        assertEquals(2, registros.size());
+        assertEquals(RabbitConfig.ROUTING_KEY_PEDIDO_CRIADO, registros.get(0).getRoutingKey());
+        assertTrue(registros.get(0).getPayload().contains("\"idPedido\":1"));
+        assertEquals(RabbitConfig.ROUTING_KEY_STATUS_ALTERADO, registros.get(1).getRoutingKey());
+        assertTrue(registros.get(1).getPayload().contains("\"statusAnterior\":\"CRIADO\""));
+        assertNull(TransactionSynchronizationManager.getResource(outboxPedidos));
+    }
+
+    @Test
+    void testSemTransacaoGravaImediatamente() {
+        outboxPedidos.aoAlterarStatus(new StatusPedidoAlteradoEvent(2L, "PAGO", StatusPedido.ENVIADO, null));
+
+        verify(outboxRepository, times(1)).inserir(argThat(registros -> registros.size() == 1));
+    }
+}
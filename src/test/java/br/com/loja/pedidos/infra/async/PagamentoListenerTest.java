@@ -2,23 +2,57 @@ package br.com.loja.pedidos.infra.async;
 
 import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
 import br.com.loja.pedidos.domain.DomainServices;
-import br.com.loja.pedidos.infra.async.PagamentoListener;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
+import br.com.loja.pedidos.infra.repositories.UltimoEventoPagamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PagamentoListenerTest {
 
+    private static final Instant INSTANTE = Instant.parse("2025-03-10T12:00:00Z");
+
     private DomainServices domainServices;
+    private UltimoEventoPagamentoRepository ultimoEventoPagamentoRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PlatformTransactionManager transactionManager;
     private PagamentoListener pagamentoListener;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         domainServices = mock(DomainServices.class);
-        pagamentoListener = new PagamentoListener(domainServices);
+        ultimoEventoPagamentoRepository = mock(UltimoEventoPagamentoRepository.class);
+        // Por padrão o banco aceita todos os eventos.
+        when(ultimoEventoPagamentoRepository.registrar(any())).thenAnswer(invocacao ->
+                ((Collection<EventoPagamentoDTO>) invocacao.getArgument(0)).stream()
+                        .map(EventoPagamentoDTO::getIdPedido)
+                        .collect(Collectors.toSet()));
+        meterRegistry = new SimpleMeterRegistry();
+        DeduplicadorEventosPagamento deduplicador = new DeduplicadorEventosPagamento(
+                ultimoEventoPagamentoRepository, 1000, Duration.ofHours(1), Duration.ofDays(7), meterRegistry);
+        transactionManager = mock(PlatformTransactionManager.class);
+        pagamentoListener = new PagamentoListener(domainServices, deduplicador, transactionManager, meterRegistry);
     }
 
     @Test
@@ -29,17 +63,189 @@ class PagamentoListenerTest {
         evento.setStatus("PAGO");
 
         // Act
-        pagamentoListener.receberPedido(evento);
+        pagamentoListener.receberPedido(evento, null);
 
         // Assert
-        verify(domainServices, times(1)).atualizarStatus(123L, "PAGO");
+        verify(domainServices, times(1)).transicionarStatus(123L, StatusPedido.PAGO);
 
         ArgumentCaptor<Long> idCaptor = ArgumentCaptor.forClass(Long.class);
-        ArgumentCaptor<String> statusCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<StatusPedido> statusCaptor = ArgumentCaptor.forClass(StatusPedido.class);
 
-        verify(domainServices).atualizarStatus(idCaptor.capture(), statusCaptor.capture());
+        verify(domainServices).transicionarStatus(idCaptor.capture(), statusCaptor.capture());
 
         assertEquals(123L, idCaptor.getValue());
-        assertEquals("PAGO", statusCaptor.getValue());
+        assertEquals(StatusPedido.PAGO, statusCaptor.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReceberLote_DeveManterUltimoStatusPorPedido() {
+        List<Message<EventoPagamentoDTO>> lote = List.of(
+                mensagem(1L, "PAGO", null),
+                mensagem(2L, "PAGO", null),
+                mensagem(1L, "CANCELADO", null),
+                mensagem(3L, "DESCONHECIDO", null),
+                mensagem(null, "PAGO", null));
+
+        pagamentoListener.receberLote(lote);
+
+        ArgumentCaptor<Map<Long, StatusPedido>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(domainServices, times(1)).atualizarStatusEmLote(captor.capture());
+        verify(domainServices, never()).transicionarStatus(any(), any());
+
+        assertEquals(Map.of(1L, StatusPedido.CANCELADO, 2L, StatusPedido.PAGO), captor.getValue());
+    }
+
+    @Test
+    void testReceberPedido_TransicaoRejeitadaConfirmaORegistroDoEvento() {
+        TransicaoStatusProjecao rejeitada = mock(TransicaoStatusProjecao.class);
+        when(rejeitada.getStatusAnterior()).thenReturn("ENTREGUE");
+        when(rejeitada.getResultado()).thenReturn(TransicaoStatusProjecao.REJEITADO);
+        when(domainServices.transicionarStatus(5L, StatusPedido.PAGO)).thenReturn(Optional.of(rejeitada));
+
+        assertDoesNotThrow(() -> pagamentoListener.receberPedido(
+                new EventoPagamentoDTO(5L, "PAGO", "evt-5", INSTANTE), null));
+
+        verify(ultimoEventoPagamentoRepository).registrar(any());
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testReceberPedido_PedidoInexistenteEDescartado() {
+        EventoPagamentoDTO evento = new EventoPagamentoDTO(404L, "PAGO", "evt-404", INSTANTE);
+        when(domainServices.transicionarStatus(404L, StatusPedido.PAGO)).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> pagamentoListener.receberPedido(evento, null));
+        pagamentoListener.receberPedido(evento, null);
+
+        verify(domainServices, times(1)).transicionarStatus(404L, StatusPedido.PAGO);
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testReceberPedido_StatusInvalidoNaoAbreTransacao() {
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(5L, "DESCONHECIDO", "evt-5", INSTANTE), null);
+
+        verifyNoInteractions(domainServices, transactionManager);
+    }
+
+    @Test
+    void testReceberPedido_ReentregaNaoConsultaOBanco() {
+        EventoPagamentoDTO evento = new EventoPagamentoDTO(1L, "PAGO", "evt-1", INSTANTE);
+
+        pagamentoListener.receberPedido(evento, null);
+        pagamentoListener.receberPedido(evento, null);
+
+        verify(domainServices, times(1)).transicionarStatus(1L, StatusPedido.PAGO);
+        verify(ultimoEventoPagamentoRepository, times(1)).registrar(any());
+        assertEquals(1, meterRegistry.get("pedidos.pagamento.descartados").tag("origem", "memoria").counter().count());
+    }
+
+    @Test
+    void testReceberPedido_EventoMaisAntigoQueOUltimoEDescartado() {
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "CANCELADO", "evt-2", INSTANTE), null);
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "PAGO", "evt-1", INSTANTE.minusSeconds(5)), null);
+
+        verify(domainServices).transicionarStatus(1L, StatusPedido.CANCELADO);
+        verify(domainServices, never()).transicionarStatus(1L, StatusPedido.PAGO);
+    }
+
+    @Test
+    void testReceberPedido_EventosDoMesmoInstanteSaoOrdenadosPeloId() {
+        EventoPagamentoDTO a = new EventoPagamentoDTO(1L, "PAGO", "evt-a", INSTANTE);
+        EventoPagamentoDTO b = new EventoPagamentoDTO(1L, "CANCELADO", "evt-b", INSTANTE);
+
+        pagamentoListener.receberPedido(a, null);
+        pagamentoListener.receberPedido(b, null);
+        pagamentoListener.receberPedido(a, null);
+        pagamentoListener.receberPedido(b, null);
+
+        verify(domainServices, times(1)).transicionarStatus(1L, StatusPedido.PAGO);
+        verify(domainServices, times(1)).transicionarStatus(1L, StatusPedido.CANCELADO);
+        assertEquals(2, meterRegistry.get("pedidos.pagamento.descartados").tag("origem", "memoria").counter().count());
+    }
+
+    @Test
+    void testReceberPedido_EventoAntigoSegundoOBancoNaoAlteraStatus() {
+        doReturn(Set.of()).when(ultimoEventoPagamentoRepository).registrar(any());
+
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "PAGO", "evt-1", INSTANTE), null);
+
+        verify(domainServices, never()).transicionarStatus(any(), any());
+        assertEquals(1, meterRegistry.get("pedidos.pagamento.descartados").tag("origem", "banco").counter().count());
+    }
+
+    @Test
+    void testReceberPedido_SemIdDeEventoNaoEDeduplicado() {
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "PAGO"), null);
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "PAGO"), null);
+
+        verify(domainServices, times(2)).transicionarStatus(1L, StatusPedido.PAGO);
+        verify(ultimoEventoPagamentoRepository, never()).registrar(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReceberLote_MantemOEventoMaisRecentePorPedido() {
+        pagamentoListener.receberLote(List.of(
+                mensagem(new EventoPagamentoDTO(1L, "CANCELADO", "evt-2", INSTANTE)),
+                mensagem(new EventoPagamentoDTO(1L, "PAGO", "evt-1", INSTANTE.minusSeconds(1))),
+                mensagem(new EventoPagamentoDTO(2L, "PAGO", "evt-3", INSTANTE))));
+
+        ArgumentCaptor<Map<Long, StatusPedido>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(domainServices).atualizarStatusEmLote(captor.capture());
+        assertEquals(Map.of(1L, StatusPedido.CANCELADO, 2L, StatusPedido.PAGO), captor.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReceberLote_IgnoraPedidosRecusadosPeloBanco() {
+        doReturn(Set.of(2L)).when(ultimoEventoPagamentoRepository).registrar(any());
+
+        pagamentoListener.receberLote(List.of(
+                mensagem(new EventoPagamentoDTO(1L, "PAGO", "evt-1", INSTANTE)),
+                mensagem(new EventoPagamentoDTO(2L, "PAGO", "evt-2", INSTANTE)),
+                mensagem(new EventoPagamentoDTO(3L, "PAGO"))));
+
+        ArgumentCaptor<Map<Long, StatusPedido>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(domainServices).atualizarStatusEmLote(captor.capture());
+        assertEquals(Map.of(2L, StatusPedido.PAGO, 3L, StatusPedido.PAGO), captor.getValue());
+    }
+
+    @Test
+    void testReceberPedido_RegistraAtrasoDesdeAPublicacao() {
+        Date publicadoEm = Date.from(Instant.now().minusSeconds(2));
+
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(1L, "PAGO"), publicadoEm);
+        pagamentoListener.receberPedido(new EventoPagamentoDTO(2L, "PAGO"), null);
+
+        var atraso = meterRegistry.get("pedidos.pagamento.atraso").timer();
+        assertEquals(1, atraso.count());
+        assertTrue(atraso.totalTime(TimeUnit.SECONDS) >= 2);
+    }
+
+    @Test
+    void testReceberLote_RegistraAtrasoPorMensagem() {
+        Date publicadoEm = Date.from(Instant.now().minusSeconds(1));
+
+        pagamentoListener.receberLote(List.of(
+                mensagem(1L, "PAGO", publicadoEm),
+                mensagem(2L, "PAGO", publicadoEm),
+                mensagem(3L, "PAGO", null)));
+
+        assertEquals(2, meterRegistry.get("pedidos.pagamento.atraso").timer().count());
+    }
+
+    private static Message<EventoPagamentoDTO> mensagem(EventoPagamentoDTO evento) {
+        return MessageBuilder.withPayload(evento).build();
+    }
+
+    private static Message<EventoPagamentoDTO> mensagem(Long idPedido, String status, Date publicadoEm) {
+        MessageBuilder<EventoPagamentoDTO> builder = MessageBuilder.withPayload(new EventoPagamentoDTO(idPedido, status));
+        if (publicadoEm != null) {
+            builder.setHeader(AmqpHeaders.TIMESTAMP, publicadoEm);
+        }
+        return builder.build();
     }
 }
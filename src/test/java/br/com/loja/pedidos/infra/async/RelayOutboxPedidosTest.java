@@ -0,0 +1,75 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import br.com.loja.pedidos.infra.repositories.OutboxRepository;
+import br.com.loja.pedidos.infra.repositories.RegistroOutbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RelayOutboxPedidosTest {
+
+    private OutboxRepository outboxRepository;
+    private RabbitOperations operacoes;
+    private RelayOutboxPedidos relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        operacoes = mock(RabbitOperations.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocacao ->
+                invocacao.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operacoes));
+        relay = new RelayOutboxPedidos(outboxRepository, rabbitTemplate, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 2, 1000);
+    }
+
+    @Test
+    void testPublicaBlocosEnquantoEstiveremCheios() {
+        when(outboxRepository.bloquearPendentes(2))
+                .thenReturn(List.of(registro(1L), registro(2L)))
+                .thenReturn(List.of(registro(3L)));
+
+        relay.drenar();
+
+        verify(operacoes, times(3)).send(eq(RabbitConfig.PEDIDOS_EXCHANGE_NAME), eq("pedido.criado"), any(Message.class));
+        verify(operacoes, times(2)).waitForConfirmsOrDie(1000);
+        verify(outboxRepository).remover(List.of(1L, 2L));
+        verify(outboxRepository).remover(List.of(3L));
+    }
+
+    @Test
+    void testConfirmacaoAusenteMantemRegistros() {
+        when(outboxRepository.bloquearPendentes(2)).thenReturn(List.of(registro(1L)));
+        doThrow(new AmqpTimeoutException("sem confirmação")).when(operacoes).waitForConfirmsOrDie(1000);
+
+        assertDoesNotThrow(() -> relay.drenar());
+        verify(outboxRepository, never()).remover(any());
+    }
+
+    @Test
+    void testMensagemLevaIdDoRegistroComoMessageId() {
+        when(outboxRepository.bloquearPendentes(2)).thenReturn(List.of(registro(7L)));
+
+        relay.publicarBloco();
+
+        verify(operacoes).send(any(), any(), argThat((Message mensagem) ->
+                "7".equals(mensagem.getMessageProperties().getMessageId())
+                        && "application/json".equals(mensagem.getMessageProperties().getContentType())));
+    }
+
+    private static RegistroOutbox registro(Long id) {
+        return new RegistroOutbox(id, "pedido.criado", "{\"idPedido\":" + id + "}", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.loja.pedidos.infra.async;
+
+import br.com.loja.pedidos.infra.configurations.RabbitConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoteadorPagamentosTest {
+
+    private RabbitOperations operacoes;
+    private RoteadorPagamentos roteador;
+
+    @BeforeEach
+    void setUp() {
+        operacoes = mock(RabbitOperations.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocacao ->
+                invocacao.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operacoes));
+        roteador = new RoteadorPagamentos(rabbitTemplate, new ObjectMapper(), 4, 1000);
+    }
+
+    @Test
+    void testEventosDoMesmoPedidoVaoParaAMesmaParticaoNaOrdem() {
+        Message primeiro = mensagem("{\"idPedido\":10,\"status\":\"PAGO\"}");
+        Message outroPedido = mensagem("{\"idPedido\":11,\"status\":\"PAGO\"}");
+        Message segundo = mensagem("{\"idPedido\":10,\"status\":\"ENVIADO\"}");
+
+        roteador.rotear(List.of(primeiro, outroPedido, segundo));
+
+        String particao = String.valueOf(RoteadorPagamentos.particao(10L, 4));
+        InOrder ordem = inOrder(operacoes);
+        ordem.verify(operacoes).send(RabbitConfig.PARTICOES_EXCHANGE_NAME, particao, primeiro);
+        ordem.verify(operacoes).send(RabbitConfig.PARTICOES_EXCHANGE_NAME, particao, segundo);
+        ordem.verify(operacoes).waitForConfirmsOrDie(1000);
+        verify(operacoes).send(RabbitConfig.PARTICOES_EXCHANGE_NAME, String.valueOf(RoteadorPagamentos.particao(11L, 4)), outroPedido);
+    }
+
+    @Test
+    void testCopiaEPersistenteEMantemPropriedades() {
+        Message original = mensagem("{\"idPedido\":3}");
+        original.getMessageProperties().setMessageId("evento-3");
+
+        roteador.rotear(List.of(original));
+
+        ArgumentCaptor<Message> enviada = ArgumentCaptor.forClass(Message.class);
+        verify(operacoes).send(any(), any(), enviada.capture());
+        assertEquals(MessageDeliveryMode.PERSISTENT, enviada.getValue().getMessageProperties().getDeliveryMode());
+        assertEquals("evento-3", enviada.getValue().getMessageProperties().getMessageId());
+        assertArrayEquals(original.getBody(), enviada.getValue().getBody());
+    }
+
+    @Test
+    void testMensagemSemPedidoVaiParaParticaoZero() {
+        assertEquals(0, roteador.particao(mensagem("{\"status\":\"PAGO\"}")));
+        assertEquals(0, roteador.particao(mensagem("não é json")));
+    }
+
+    @Test
+    void testFalhaNaConfirmacaoDevolveOBloco() {
+        doThrow(new AmqpTimeoutException("sem confirmação")).when(operacoes).waitForConfirmsOrDie(1000);
+
+        assertThrows(AmqpTimeoutException.class, () -> roteador.rotear(List.of(mensagem("{\"idPedido\":1}"))));
+    }
+
+    @Test
+    void testPedidosSequenciaisUsamTodasAsParticoes() {
+        Set<Integer> particoes = new HashSet<>();
+        for (long idPedido = 1; idPedido <= 8; idPedido++) {
+            int particao = RoteadorPagamentos.particao(idPedido, 4);
+            assertTrue(particao >= 0 && particao < 4);
+            particoes.add(particao);
+        }
+        assertEquals(4, particoes.size());
+        assertTrue(RoteadorPagamentos.particao(-7L, 4) >= 0);
+    }
+
+    private static Message mensagem(String corpo) {
+        return new Message(corpo.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
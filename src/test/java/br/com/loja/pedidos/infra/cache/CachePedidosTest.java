@@ -0,0 +1,107 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePedidosTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachePedidos cachePedidos;
+    private AtomicInteger leiturasNoBanco;
+    private Function<Long, Optional<PedidoEntity>> carregador;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachePedidos = new CachePedidos(100, Duration.ofMinutes(5), Duration.ofSeconds(5), meterRegistry);
+        leiturasNoBanco = new AtomicInteger();
+        carregador = id -> {
+            leiturasNoBanco.incrementAndGet();
+            return id > 0 ? Optional.of(PedidoEntity.builder().id(id).status("CRIADO").build()) : Optional.empty();
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSegundaLeituraVemDoCache() {
+        cachePedidos.buscar(1L, carregador);
+        cachePedidos.buscar(1L, carregador);
+
+        assertEquals(1, leiturasNoBanco.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "pedidos").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testPedidoInexistenteNaoFicaNoCache() {
+        assertTrue(cachePedidos.buscar(-1L, carregador).isEmpty());
+        assertTrue(cachePedidos.buscar(-1L, carregador).isEmpty());
+
+        assertEquals(2, leiturasNoBanco.get());
+    }
+
+    @Test
+    void testCargasSimultaneasDoMesmoIdSaoFeitasUmaVez() throws Exception {
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        Function<Long, Optional<PedidoEntity>> carregadorLento = id -> {
+            try {
+                liberarCarga.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return carregador.apply(id);
+        };
+        List<CompletableFuture<Optional<PedidoEntity>>> buscas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            buscas.add(CompletableFuture.supplyAsync(() -> cachePedidos.buscar(1L, carregadorLento),
+                    runnable -> Thread.ofVirtual().start(runnable)));
+        }
+
+        liberarCarga.countDown();
+        for (CompletableFuture<Optional<PedidoEntity>> busca : buscas) {
+            assertEquals(1L, busca.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        assertEquals(1, leiturasNoBanco.get());
+    }
+
+    @Test
+    void testAlteracaoDesviaLeiturasParaOBancoAteFimDaTransacao() {
+        cachePedidos.buscar(1L, carregador);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cachePedidos.aoAlterarStatus(new StatusPedidoAlteradoEvent(1L, "CRIADO", StatusPedido.PAGO, null));
+        cachePedidos.buscar(1L, carregador);
+        cachePedidos.buscar(1L, carregador);
+        assertEquals(3, leiturasNoBanco.get());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cachePedidos.buscar(1L, carregador);
+        cachePedidos.buscar(1L, carregador);
+        assertEquals(4, leiturasNoBanco.get());
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.application.dtos.EstatisticasPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.domain.events.StatusPedidoAlteradoEvent;
+import br.com.loja.pedidos.infra.repositories.ContagemPedidosProjecao;
+import br.com.loja.pedidos.infra.repositories.PedidoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EstatisticasPedidosTest {
+
+    private static final LocalDate ONTEM = LocalDate.of(2025, 3, 9);
+    private static final LocalDate HOJE = LocalDate.of(2025, 3, 10);
+
+    private PedidoRepository pedidoRepository;
+    private EstatisticasPedidos estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository = mock(PedidoRepository.class);
+        estatisticas = new EstatisticasPedidos(pedidoRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testCargaAgrupaPorStatusEDia() {
+        List<ContagemPedidosProjecao> linhas = List.of(
+                contagem(ONTEM, "CRIADO", 3),
+                contagem(ONTEM, "PAGO", 2),
+                contagem(HOJE, "PAGO", 4),
+                contagem(null, "CANCELADO", 1));
+        when(pedidoRepository.contarPorDiaEStatus()).thenReturn(linhas);
+
+        assertFalse(estatisticas.isCarregado());
+        estatisticas.carregar();
+        assertTrue(estatisticas.isCarregado());
+
+        EstatisticasPedidosDTO resultado = estatisticas.consultar(ONTEM, HOJE.plusDays(1));
+        assertEquals(10, resultado.getTotal());
+        assertEquals(6L, resultado.getPorStatus().get(StatusPedido.PAGO));
+        assertEquals(0L, resultado.getPorStatus().get(StatusPedido.ENTREGUE));
+        assertEquals(2, resultado.getPorDia().size());
+        assertEquals(5, resultado.getPorDia().get(0).getTotal());
+
+        assertEquals(1, estatisticas.consultar(HOJE, HOJE.plusDays(1)).getPorDia().size());
+    }
+
+    @Test
+    void testEventosAtualizamContadores() {
+        List<ContagemPedidosProjecao> linhas = List.of(contagem(HOJE, "CRIADO", 1));
+        when(pedidoRepository.contarPorDiaEStatus()).thenReturn(linhas);
+        estatisticas.carregar();
+
+        estatisticas.aoCriarPedido(new PedidoCriadoEvent(new PedidoEntity(2L, "CRIADO", HOJE.atTime(10, 0), 0L, null)));
+        estatisticas.aoAlterarStatus(new StatusPedidoAlteradoEvent(1L, null, StatusPedido.PAGO, HOJE.atTime(9, 0)));
+
+        EstatisticasPedidosDTO resultado = estatisticas.consultar(HOJE, HOJE.plusDays(1));
+        assertEquals(2, resultado.getTotal());
+        assertEquals(1L, resultado.getPorStatus().get(StatusPedido.CRIADO));
+        assertEquals(1L, resultado.getPorStatus().get(StatusPedido.PAGO));
+        assertEquals(1L, resultado.getPorDia().get(0).getPorStatus().get(StatusPedido.PAGO));
+    }
+
+    @Test
+    void testEventoDuranteRecargaNaoSePerde() {
+        List<ContagemPedidosProjecao> linhas = List.of(contagem(HOJE, "CRIADO", 5));
+        when(pedidoRepository.contarPorDiaEStatus()).thenAnswer(invocacao -> {
+            estatisticas.aoCriarPedido(new PedidoCriadoEvent(new PedidoEntity(9L, "CRIADO", HOJE.atTime(12, 0), 0L, null)));
+            return linhas;
+        });
+
+        estatisticas.carregar();
+
+        assertEquals(6, estatisticas.consultar(HOJE, HOJE.plusDays(1)).getTotal());
+    }
+
+    private static ContagemPedidosProjecao contagem(LocalDate dia, String status, long quantidade) {
+        ContagemPedidosProjecao contagem = mock(ContagemPedidosProjecao.class);
+        when(contagem.getDia()).thenReturn(dia);
+        when(contagem.getStatus()).thenReturn(status);
+        when(contagem.getQuantidade()).thenReturn(quantidade);
+        return contagem;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.loja.pedidos.infra.cache;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.events.PedidoCriadoEvent;
+import br.com.loja.pedidos.infra.repositories.PedidoExportacaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndicePedidosTest {
+
+    private PedidoExportacaoRepository pedidoExportacaoRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        pedidoExportacaoRepository = mock(PedidoExportacaoRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(invocacao -> {
+            LongConsumer consumidor = invocacao.getArgument(0);
+            consumidor.accept(1L);
+            consumidor.accept(2L);
+            consumidor.accept(5L);
+            return null;
+        }).when(pedidoExportacaoRepository).percorrerIds(any());
+    }
+
+    private IndicePedidos indice(boolean confirmarAusencia) {
+        return new IndicePedidos(pedidoExportacaoRepository, mock(PlatformTransactionManager.class),
+                meterRegistry, confirmarAusencia);
+    }
+
+    @Test
+    void testAntesDaCargaSoConheceOsAdicionados() {
+        IndicePedidos indice = indice(false);
+        indice.adicionar(7L);
+
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(7L));
+        assertEquals(IndicePedidos.Presenca.DESCONHECIDO, indice.consultar(1L));
+    }
+
+    @Test
+    void testDepoisDaCargaRespondeAusencias() {
+        IndicePedidos indice = indice(false);
+        indice.carregar();
+        indice.aoCriarPedido(new PedidoCriadoEvent(PedidoEntity.builder().id(9L).build()));
+
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(5L));
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(9L));
+        assertEquals(IndicePedidos.Presenca.AUSENTE, indice.consultar(3L));
+        assertEquals(4.0, meterRegistry.get("pedidos.indice.ids").gauge().value());
+        assertTrue(meterRegistry.get("pedidos.indice.memoria").gauge().value() > 0);
+        assertEquals(1, meterRegistry.get("pedidos.indice.carga").timer().count());
+    }
+
+    @Test
+    void testRecargaRemoveIdsQueSairamDoBancoEMantemOsAdicionadosDuranteACarga() {
+        IndicePedidos indice = indice(false);
+        indice.adicionar(8L);
+        doAnswer(invocacao -> {
+            LongConsumer consumidor = invocacao.getArgument(0);
+            consumidor.accept(1L);
+            indice.adicionar(10L);
+            return null;
+        }).when(pedidoExportacaoRepository).percorrerIds(any());
+
+        indice.carregar();
+
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(1L));
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(10L));
+        assertEquals(IndicePedidos.Presenca.AUSENTE, indice.consultar(8L));
+    }
+
+    @Test
+    void testConfirmarAusenciaDelegaAoBanco() {
+        IndicePedidos indice = indice(true);
+        indice.carregar();
+
+        assertEquals(IndicePedidos.Presenca.PRESENTE, indice.consultar(2L));
+        assertEquals(IndicePedidos.Presenca.DESCONHECIDO, indice.consultar(3L));
+    }
+}
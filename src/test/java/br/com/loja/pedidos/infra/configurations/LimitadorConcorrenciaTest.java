@@ -0,0 +1,96 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorConcorrenciaTest {
+
+    private long agora;
+    private LimitadorConcorrencia limitador;
+
+    @BeforeEach
+    void setUp() {
+        limitador = new LimitadorConcorrencia(10, 2, 100, 1.5, () -> agora);
+    }
+
+    @Test
+    void testRecusaAlemDoLimite() {
+        List<LimitadorConcorrencia.Permissao> permissoes = adquirir(10);
+
+        assertTrue(limitador.tentarAdquirir().isEmpty());
+        permissoes.get(0).ignorar();
+        assertTrue(limitador.tentarAdquirir().isPresent());
+    }
+
+    @Test
+    void testEncerrarDuasVezesLiberaUmaUnicaVaga() {
+        LimitadorConcorrencia.Permissao permissao = limitador.tentarAdquirir().orElseThrow();
+        permissao.sucesso();
+        permissao.descartar();
+
+        assertEquals(0, limitador.getEmUso());
+        assertEquals(10, limitador.getLimite());
+    }
+
+    @Test
+    void testLimiteCresceComLatenciaEstavelEmUso() {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            rodada(limitador.getLimite(), 10);
+        }
+
+        assertTrue(limitador.getLimite() > 20, "limite: " + limitador.getLimite());
+    }
+
+    @Test
+    void testLimiteNaoCresceSemUso() {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            rodada(1, 10);
+        }
+
+        assertEquals(10, limitador.getLimite());
+    }
+
+    @Test
+    void testLimiteCaiQuandoALatenciaSobe() {
+        for (int rodada = 0; rodada < 10; rodada++) {
+            rodada(limitador.getLimite(), 10);
+        }
+        int antes = limitador.getLimite();
+
+        for (int rodada = 0; rodada < 10; rodada++) {
+            rodada(limitador.getLimite(), 100);
+        }
+
+        assertTrue(limitador.getLimite() < antes / 2, "antes: " + antes + ", depois: " + limitador.getLimite());
+    }
+
+    @Test
+    void testDescarteReduzOLimiteAteOMinimo() {
+        for (int i = 0; i < 50; i++) {
+            limitador.tentarAdquirir().orElseThrow().descartar();
+        }
+
+        assertEquals(2, limitador.getLimite());
+    }
+
+    /** Ocupa {@code simultaneas} vagas e as conclui todas com a latência informada. */
+    private void rodada(int simultaneas, long latenciaMs) {
+        List<LimitadorConcorrencia.Permissao> permissoes = adquirir(simultaneas);
+        agora += TimeUnit.MILLISECONDS.toNanos(latenciaMs);
+        permissoes.forEach(LimitadorConcorrencia.Permissao::sucesso);
+    }
+
+    private List<LimitadorConcorrencia.Permissao> adquirir(int quantidade) {
+        List<LimitadorConcorrencia.Permissao> permissoes = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            permissoes.add(limitador.tentarAdquirir().orElseThrow());
+        }
+        return permissoes;
+    }
+}
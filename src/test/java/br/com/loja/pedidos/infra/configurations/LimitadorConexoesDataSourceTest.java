@@ -0,0 +1,64 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LimitadorConexoesDataSourceTest {
+
+    private DataSource alvo;
+    private LimitadorConexoesDataSource limitador;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        alvo = mock(DataSource.class);
+        when(alvo.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+        limitador = new LimitadorConexoesDataSource(alvo, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testRecusaConexaoAlemDoLimite() throws SQLException {
+        limitador.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> limitador.getConnection());
+        verify(alvo, times(1)).getConnection();
+    }
+
+    @Test
+    void testFecharConexaoDevolvePermissaoUmaUnicaVez() throws SQLException {
+        Connection conexao = limitador.getConnection();
+        conexao.close();
+        conexao.close();
+
+        Connection outra = limitador.getConnection();
+        assertNotNull(outra);
+        assertThrows(SQLTransientConnectionException.class, () -> limitador.getConnection());
+    }
+
+    @Test
+    void testFalhaAoAbrirConexaoDevolvePermissao() throws SQLException {
+        when(alvo.getConnection()).thenThrow(new SQLException("banco indisponível"))
+                .thenAnswer(invocacao -> mock(Connection.class));
+
+        assertThrows(SQLException.class, () -> limitador.getConnection());
+        assertNotNull(limitador.getConnection());
+    }
+
+    @Test
+    void testFecharLimitadorFechaOPool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        new LimitadorConexoesDataSource(pool, 1, Duration.ofMillis(50)).close();
+
+        verify(pool).close();
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteTaxaLogFilterTest {
+
+    private long agora;
+    private LimiteTaxaLogFilter filtro;
+    private Logger aplicacao;
+    private Logger externo;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext contexto = new LoggerContext();
+        aplicacao = contexto.getLogger("br.com.loja.pedidos.infra.webapi.PedidosController");
+        externo = contexto.getLogger("org.hibernate.SQL");
+        aplicacao.setLevel(Level.DEBUG);
+        externo.setLevel(Level.DEBUG);
+        filtro = new LimiteTaxaLogFilter(() -> agora);
+        filtro.setEventosPorSegundo(2);
+        filtro.setNivelMaximo("WARN");
+        filtro.setPrefixos("br.com.loja.pedidos, com.exemplo");
+    }
+
+    @Test
+    void testDescartaExcedenteDoSegundoELiberaNoSeguinte() {
+        assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.WARN));
+        assertEquals(FilterReply.DENY, decidir(aplicacao, Level.INFO));
+
+        agora += TimeUnit.SECONDS.toNanos(1);
+
+        assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.INFO));
+    }
+
+    @Test
+    void testErrosELoggersExternosNaoSaoLimitados() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.ERROR));
+            assertEquals(FilterReply.NEUTRAL, decidir(externo, Level.DEBUG));
+        }
+    }
+
+    @Test
+    void testEventosDesabilitadosEConsultasDeNivelNaoConsomemACota() {
+        aplicacao.setLevel(Level.INFO);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.DEBUG));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, aplicacao, Level.INFO, null, null, null));
+        }
+
+        assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decidir(aplicacao, Level.INFO));
+        assertEquals(FilterReply.DENY, decidir(aplicacao, Level.INFO));
+    }
+
+    private FilterReply decidir(Logger logger, Level nivel) {
+        return filtro.decide(null, logger, nivel, "mensagem {}", new Object[]{1}, null);
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.loja.pedidos.infra.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RoteamentoLeituraDataSourceTest {
+
+    private Connection conexaoPrimario;
+    private Connection conexaoReplica1;
+    private Connection conexaoReplica2;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ResultSet atrasoReplica1;
+    private MeterRegistry meterRegistry;
+    private RoteamentoLeituraDataSource roteamento;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conexaoPrimario = mock(Connection.class);
+        conexaoReplica1 = mock(Connection.class);
+        conexaoReplica2 = mock(Connection.class);
+        DataSource primario = mock(DataSource.class);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        replica1 = mock(DataSource.class);
+        when(replica1.getConnection()).thenReturn(conexaoReplica1);
+        replica2 = mock(DataSource.class);
+        when(replica2.getConnection()).thenReturn(conexaoReplica2);
+        atrasoReplica1 = atraso(conexaoReplica1, 0.1);
+        atraso(conexaoReplica2, 0.2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        roteamento = new RoteamentoLeituraDataSource(primario, List.of("primario", "replica-0", "replica-1"),
+                List.of(replica1, replica2), Duration.ofSeconds(5), meterRegistry, null);
+        roteamento.setDefaultAutoCommit(true);
+        roteamento.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @Test
+    void testReplicasNaoVerificadasFicamForaDoRodizio() throws SQLException {
+        assertFalse(roteamento.isDisponivel(0));
+        assertSame(conexaoPrimario, conexaoFisica(true));
+    }
+
+    @Test
+    void testLeiturasSaoDistribuidasEntreAsReplicas() throws SQLException {
+        roteamento.verificarAtrasos();
+
+        assertSame(conexaoReplica1, conexaoFisica(true));
+        assertSame(conexaoReplica2, conexaoFisica(true));
+        assertSame(conexaoReplica1, conexaoFisica(true));
+        assertEquals(2.0, meterRegistry.get("pedidos.banco.leituras").tag("destino", "replica-0").counter().count());
+    }
+
+    @Test
+    void testEscritasVaoParaOPrimario() throws SQLException {
+        roteamento.verificarAtrasos();
+
+        assertSame(conexaoPrimario, conexaoFisica(false));
+    }
+
+    @Test
+    void testReplicaAtrasadaSaiDoRodizio() throws SQLException {
+        when(atrasoReplica1.getDouble(1)).thenReturn(30.0);
+        roteamento.verificarAtrasos();
+
+        assertFalse(roteamento.isDisponivel(0));
+        assertTrue(roteamento.isDisponivel(1));
+        assertSame(conexaoReplica2, conexaoFisica(true));
+        assertSame(conexaoReplica2, conexaoFisica(true));
+        assertEquals(30.0, meterRegistry.get("pedidos.banco.replica.atraso").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    void testSemReplicasDisponiveisLeituraVaiParaOPrimario() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("réplica fora do ar"));
+        when(replica2.getConnection()).thenThrow(new SQLException("réplica fora do ar"));
+        roteamento.verificarAtrasos();
+
+        assertSame(conexaoPrimario, conexaoFisica(true));
+        assertTrue(Double.isNaN(meterRegistry.get("pedidos.banco.replica.atraso").tag("replica", "replica-1").gauge().value()));
+    }
+
+    @Test
+    void testFalhaAoConectarNaReplicaTentaAProxima() throws SQLException {
+        roteamento.verificarAtrasos();
+        when(replica1.getConnection()).thenThrow(new SQLException("réplica fora do ar"));
+
+        assertSame(conexaoReplica2, conexaoFisica(true));
+        assertFalse(roteamento.isDisponivel(0));
+        assertSame(conexaoReplica2, conexaoFisica(true));
+    }
+
+    @Test
+    void testContextoLeituraForcaOPrimario() throws SQLException {
+        roteamento.verificarAtrasos();
+
+        try (ContextoLeitura.Escopo escopo = ContextoLeitura.usarPrimario()) {
+            assertSame(conexaoPrimario, conexaoFisica(true));
+        }
+        assertFalse(ContextoLeitura.isPrimario());
+        assertSame(conexaoReplica1, conexaoFisica(true));
+    }
+
+    @Test
+    void testLeituraVaiParaAReplicaComPoolsLimitados() throws Exception {
+        try (EmbeddedPostgres bancoPrimario = EmbeddedPostgres.start();
+             EmbeddedPostgres bancoReplica = EmbeddedPostgres.start()) {
+            HikariDataSource primario = pool(bancoPrimario, "primario");
+            HikariDataSource replica = pool(bancoReplica, "replica-0");
+            RoteamentoLeituraDataSource real = new RoteamentoLeituraDataSource(primario, List.of(replica),
+                    Duration.ofSeconds(5), Duration.ofMillis(50),
+                    pool -> new LimitadorConexoesDataSource(pool, pool.getMaximumPoolSize(), Duration.ofMillis(200)),
+                    meterRegistry);
+            real.setDefaultAutoCommit(true);
+            real.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!real.isDisponivel(0) && System.nanoTime() < limite) {
+                Thread.sleep(20);
+            }
+
+            try (Connection escrita = real.getConnection()) {
+                assertEquals(bancoPrimario.getPort(), porta(escrita, false));
+                try (Connection leitura = real.getConnection()) {
+                    assertEquals(bancoReplica.getPort(), porta(leitura, true));
+                }
+            }
+
+            real.close();
+            assertTrue(primario.isClosed());
+            assertTrue(replica.isClosed());
+        }
+    }
+
+    private static HikariDataSource pool(EmbeddedPostgres banco, String nome) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(banco.getJdbcUrl("postgres", "postgres"));
+        pool.setPoolName(nome);
+        pool.setMaximumPoolSize(1);
+        return pool;
+    }
+
+    private static int porta(Connection conexao, boolean somenteLeitura) throws SQLException {
+        conexao.setReadOnly(somenteLeitura);
+        try (Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery("SELECT current_setting('port')")) {
+            resultado.next();
+            return resultado.getInt(1);
+        }
+    }
+
+    private Connection conexaoFisica(boolean somenteLeitura) throws SQLException {
+        Connection conexao = roteamento.getConnection();
+        conexao.setReadOnly(somenteLeitura);
+        return ((ConnectionProxy) conexao).getTargetConnection();
+    }
+
+    private static ResultSet atraso(Connection conexao, double segundos) throws SQLException {
+        ResultSet resultado = mock(ResultSet.class);
+        when(resultado.next()).thenReturn(true);
+        when(resultado.getDouble(1)).thenReturn(segundos);
+        Statement comando = mock(Statement.class);
+        when(comando.executeQuery(anyString())).thenReturn(resultado);
+        when(conexao.createStatement()).thenReturn(comando);
+        return resultado;
+    }
+}
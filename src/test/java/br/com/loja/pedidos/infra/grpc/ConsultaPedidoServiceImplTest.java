@@ -0,0 +1,222 @@
+package br.com.loja.pedidos.infra.grpc;
+
+import br.com.loja.grpc.BuscaPedidoRequest;
+import br.com.loja.grpc.ListaPedidosRequest;
+import br.com.loja.grpc.Pedido;
+import br.com.loja.grpc.PedidoListado;
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.configurations.LimitadorConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia.Classe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsultaPedidoServiceImplTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    private DomainServices domainServices;
+    private LimitesConcorrencia limites;
+    private ConsultaPedidoServiceImpl service;
+    private ServerCallStreamObserver<PedidoListado> observer;
+    private ArgumentCaptor<Runnable> onReady;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        domainServices = mock(DomainServices.class);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("pedidos.concorrencia.listagem.limite-inicial", "1")
+                .withProperty("pedidos.concorrencia.listagem.limite-minimo", "1");
+        limites = new LimitesConcorrencia(environment, new SimpleMeterRegistry());
+        service = new ConsultaPedidoServiceImpl(domainServices, 2, "gzip", limites);
+        observer = mock(ServerCallStreamObserver.class);
+        onReady = ArgumentCaptor.forClass(Runnable.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBuscaPedido() {
+        when(domainServices.buscaPedidoPorId(7L)).thenReturn(pedido(7L));
+        StreamObserver<Pedido> resposta = mock(StreamObserver.class);
+
+        service.buscaPedido(BuscaPedidoRequest.newBuilder().setId(7L).build(), resposta);
+
+        verify(resposta).onNext(argThat(pedido -> pedido.getId() == 7L && pedido.getStatus().equals("CRIADO")));
+        verify(resposta).onCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBuscaPedidoInexistente() {
+        when(domainServices.buscaPedidoPorId(7L)).thenThrow(new EntityNotFoundException("Pedido não encontrado com ID: 7"));
+        StreamObserver<Pedido> resposta = mock(StreamObserver.class);
+
+        service.buscaPedido(BuscaPedidoRequest.newBuilder().setId(7L).build(), resposta);
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(resposta).onError(erro.capture());
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(erro.getValue()).getCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBuscaPedidoSemConexaoRespondeUnavailable() {
+        when(domainServices.buscaPedidoPorId(7L)).thenThrow(new CannotCreateTransactionException("sem conexão"));
+        StreamObserver<Pedido> resposta = mock(StreamObserver.class);
+
+        service.buscaPedido(BuscaPedidoRequest.newBuilder().setId(7L).build(), resposta);
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(resposta).onError(erro.capture());
+        assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(erro.getValue()).getCode());
+    }
+
+    @Test
+    void testListaPedidos_SoEnviaEnquantoProntoELePaginaSobDemanda() {
+        when(domainServices.listarPedidos(any(), any(), eq(2)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(1L), pedido(2L)), "proxima"))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(3L)), null));
+        when(observer.isReady()).thenReturn(true, true, false);
+
+        service.listaPedidos(ListaPedidosRequest.newBuilder().setStatus("PAGO").build(), observer);
+        verify(observer).setCompression("gzip");
+        verify(observer).setOnReadyHandler(onReady.capture());
+        verifyNoInteractions(domainServices);
+
+        onReady.getValue().run();
+        verify(observer, times(1)).onNext(any());
+        verify(domainServices, times(1)).listarPedidos(any(), any(), anyInt());
+
+        when(observer.isReady()).thenReturn(true);
+        onReady.getValue().run();
+
+        ArgumentCaptor<PedidoListado> enviados = ArgumentCaptor.forClass(PedidoListado.class);
+        verify(observer, times(3)).onNext(enviados.capture());
+        verify(observer).onCompleted();
+        assertEquals(List.of(1L, 2L, 3L), enviados.getAllValues().stream().map(listado -> listado.getPedido().getId()).toList());
+        assertEquals(new CursorPedidoDTO(DATA, 3L), CursorPedidoDTO.decodificar(enviados.getAllValues().get(2).getCursor()));
+
+        ArgumentCaptor<CursorPedidoDTO> cursores = ArgumentCaptor.forClass(CursorPedidoDTO.class);
+        ArgumentCaptor<FiltroPedidosDTO> filtros = ArgumentCaptor.forClass(FiltroPedidosDTO.class);
+        verify(domainServices, times(2)).listarPedidos(filtros.capture(), cursores.capture(), eq(2));
+        assertNull(cursores.getAllValues().get(0));
+        assertEquals(new CursorPedidoDTO(DATA, 2L), cursores.getAllValues().get(1));
+        assertEquals(StatusPedido.PAGO, filtros.getValue().getStatus());
+    }
+
+    @Test
+    void testListaPedidos_RespeitaOLimite() {
+        when(domainServices.listarPedidos(any(), any(), eq(1)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(5L)), "proxima"));
+        when(observer.isReady()).thenReturn(true);
+        String cursor = new CursorPedidoDTO(DATA, 4L).codificar();
+
+        service.listaPedidos(ListaPedidosRequest.newBuilder().setCursor(cursor).setLimite(1).build(), observer);
+        verify(observer).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+
+        verify(domainServices).listarPedidos(any(), eq(new CursorPedidoDTO(DATA, 4L)), eq(1));
+        verify(observer, times(1)).onNext(any());
+        verify(observer).onCompleted();
+    }
+
+    @Test
+    void testListaPedidos_CursorInvalido() {
+        service.listaPedidos(ListaPedidosRequest.newBuilder().setCursor("???").build(), observer);
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(erro.capture());
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(erro.getValue()).getCode());
+        verify(observer, never()).setOnReadyHandler(any());
+    }
+
+    @Test
+    void testListaPedidos_FalhaNoBancoEncerraComUnavailable() {
+        when(domainServices.listarPedidos(any(), any(), anyInt())).thenThrow(new QueryTimeoutException("timeout"));
+        when(observer.isReady()).thenReturn(true);
+
+        service.listaPedidos(ListaPedidosRequest.getDefaultInstance(), observer);
+        verify(observer).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+        onReady.getValue().run();
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer, times(1)).onError(erro.capture());
+        assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(erro.getValue()).getCode());
+    }
+
+    @Test
+    void testListaPedidos_SemVagaDeListagemEncerraComResourceExhausted() {
+        Optional<LimitadorConcorrencia.Permissao> ocupada = limites.tentarAdquirir(Classe.LISTAGEM);
+        assertTrue(ocupada.isPresent());
+        when(observer.isReady()).thenReturn(true);
+
+        service.listaPedidos(ListaPedidosRequest.getDefaultInstance(), observer);
+        verify(observer).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(erro.capture());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(erro.getValue()).getCode());
+        verifyNoInteractions(domainServices);
+        ocupada.get().ignorar();
+    }
+
+    @Test
+    void testListaPedidos_LiberaAVagaAposCadaPagina() {
+        when(domainServices.listarPedidos(any(), any(), eq(2)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(1L), pedido(2L)), "proxima"))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(3L)), null));
+        when(observer.isReady()).thenReturn(true);
+
+        service.listaPedidos(ListaPedidosRequest.getDefaultInstance(), observer);
+        verify(observer).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+
+        verify(domainServices, times(2)).listarPedidos(any(), any(), eq(2));
+        verify(observer, times(3)).onNext(any());
+        verify(observer).onCompleted();
+        assertEquals(0, limites.limitador(Classe.LISTAGEM).getEmUso());
+    }
+
+    @Test
+    void testListaPedidos_SemLimitesDeConcorrencia() {
+        service = new ConsultaPedidoServiceImpl(domainServices, 2, "gzip", null);
+        when(domainServices.listarPedidos(any(), any(), eq(2)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido(1L)), null));
+        when(observer.isReady()).thenReturn(true);
+
+        service.listaPedidos(ListaPedidosRequest.getDefaultInstance(), observer);
+        verify(observer).setOnReadyHandler(onReady.capture());
+        onReady.getValue().run();
+
+        verify(observer).onNext(any());
+        verify(observer).onCompleted();
+    }
+
+    private static PedidoEntity pedido(Long id) {
+        return PedidoEntity.builder().id(id).status("CRIADO").dataHoraRealizacaoPedido(DATA).versao(0L).build();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.loja.pedidos.infra.grpc;
+
+import br.com.loja.grpc.ValidaPedidosLoteRequest;
+import br.com.loja.grpc.ValidaPedidosLoteResponse;
+import br.com.loja.pedidos.domain.DomainServices;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ValidaPedidoServiceImplTest {
+
+    private DomainServices domainServices;
+    private ValidaPedidoServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        domainServices = mock(DomainServices.class);
+        service = new ValidaPedidoServiceImpl(domainServices);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetornaExistentes_UmaConsultaParaOLote() {
+        when(domainServices.buscarIdsExistentes(List.of(10L, 11L, 12L, 10L))).thenReturn(Set.of(10L, 12L));
+        StreamObserver<ValidaPedidosLoteResponse> observer = mock(StreamObserver.class);
+
+        service.retornaExistentes(ValidaPedidosLoteRequest.newBuilder().addAllIds(List.of(10L, 11L, 12L, 10L)).build(), observer);
+
+        ArgumentCaptor<ValidaPedidosLoteResponse> captor = ArgumentCaptor.forClass(ValidaPedidosLoteResponse.class);
+        verify(observer).onNext(captor.capture());
+        verify(observer).onCompleted();
+        verify(domainServices, times(1)).buscarIdsExistentes(any());
+        verify(domainServices, never()).buscaPedidoPorId(any());
+
+        ValidaPedidosLoteResponse resposta = captor.getValue();
+        assertEquals(List.of(10L, 12L), resposta.getIdsEncontradosList());
+        assertEquals(1, resposta.getBitmap().size());
+        assertEquals(0b1101, resposta.getBitmap().byteAt(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetornaExistentes_LoteAcimaDoLimite() {
+        StreamObserver<ValidaPedidosLoteResponse> observer = mock(StreamObserver.class);
+        ValidaPedidosLoteRequest request = ValidaPedidosLoteRequest.newBuilder()
+                .addAllIds(LongStream.rangeClosed(1, ValidaPedidoServiceImpl.MAX_IDS_POR_LOTE + 1).boxed().toList())
+                .build();
+
+        service.retornaExistentes(request, observer);
+
+        ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(captor.capture());
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(captor.getValue()).getCode());
+        verifyNoInteractions(domainServices);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetornaExistentesStream_SoPedeNovoLoteQuandoProntoParaEnviar() {
+        when(domainServices.buscarIdsExistentes(any())).thenReturn(Collections.emptySet());
+        ServerCallStreamObserver<ValidaPedidosLoteResponse> observer = mock(ServerCallStreamObserver.class);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+
+        StreamObserver<ValidaPedidosLoteRequest> entrada = service.retornaExistentesStream(observer);
+        verify(observer).disableAutoRequest();
+        verify(observer).setOnReadyHandler(onReady.capture());
+
+        when(observer.isReady()).thenReturn(true);
+        onReady.getValue().run();
+        verify(observer, times(1)).request(1);
+
+        when(observer.isReady()).thenReturn(false);
+        entrada.onNext(ValidaPedidosLoteRequest.newBuilder().addIds(1L).build());
+        verify(observer, times(1)).request(1);
+
+        when(observer.isReady()).thenReturn(true);
+        onReady.getValue().run();
+        verify(observer, times(2)).request(1);
+
+        entrada.onCompleted();
+        verify(observer).onNext(any(ValidaPedidosLoteResponse.class));
+        verify(observer).onCompleted();
+    }
+}
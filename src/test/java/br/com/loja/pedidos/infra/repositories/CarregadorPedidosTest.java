@@ -0,0 +1,139 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CarregadorPedidosTest {
+
+    private PedidoRepository pedidoRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CountDownLatch liberarConsulta;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository = mock(PedidoRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        liberarConsulta = new CountDownLatch(1);
+        when(pedidoRepository.findById(any())).thenAnswer(invocacao -> {
+            Long id = invocacao.getArgument(0);
+            if (id == 1L) {
+                liberarConsulta.await(10, TimeUnit.SECONDS);
+            }
+            return Optional.of(pedido(id));
+        });
+        when(pedidoRepository.buscarPorIds(any())).thenAnswer(invocacao -> Arrays.stream(invocacao.<Long[]>getArgument(0))
+                .filter(id -> id > 0)
+                .map(CarregadorPedidosTest::pedido)
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarConsulta.countDown();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testBuscaSemConcorrenciaVaiDiretoAoBanco() {
+        CarregadorPedidos carregador = new CarregadorPedidos(pedidoRepository, 10_000_000, 100, meterRegistry);
+
+        long inicio = System.nanoTime();
+        assertEquals(2L, carregador.buscar(2L).orElseThrow().getId());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 1000);
+        verify(pedidoRepository).findById(2L);
+        verify(pedidoRepository, never()).buscarPorIds(any());
+    }
+
+    @Test
+    void testBuscasSimultaneasSaoJuntadasEmUmaConsulta() throws Exception {
+        CarregadorPedidos carregador = new CarregadorPedidos(pedidoRepository, 1_000_000, 100, meterRegistry);
+        CompletableFuture<Optional<PedidoEntity>> emAndamento = buscarEmOutraThread(carregador, 1L);
+        verify(pedidoRepository, timeout(5000)).findById(1L);
+
+        List<CompletableFuture<Optional<PedidoEntity>>> buscas = new ArrayList<>();
+        for (long id : new long[]{2L, 3L, 3L, -4L}) {
+            buscas.add(buscarEmOutraThread(carregador, id));
+        }
+
+        assertEquals(2L, buscas.get(0).get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        assertSame(buscas.get(1).get(), buscas.get(2).get());
+        assertTrue(buscas.get(3).get().isEmpty());
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        verify(pedidoRepository).buscarPorIds(ids.capture());
+        assertEquals(Set.of(2L, 3L, -4L), Set.of(ids.getValue()));
+        assertEquals(3.0, meterRegistry.get("pedidos.busca.lote").summary().max());
+
+        liberarConsulta.countDown();
+        assertEquals(1L, emAndamento.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+    }
+
+    @Test
+    void testLoteCheioEConsultadoSemAguardarAJanela() throws Exception {
+        CarregadorPedidos carregador = new CarregadorPedidos(pedidoRepository, 60_000_000, 2, meterRegistry);
+        buscarEmOutraThread(carregador, 1L);
+        verify(pedidoRepository, timeout(5000)).findById(1L);
+
+        CompletableFuture<Optional<PedidoEntity>> primeira = buscarEmOutraThread(carregador, 2L);
+        CompletableFuture<Optional<PedidoEntity>> segunda = buscarEmOutraThread(carregador, 3L);
+
+        assertTrue(primeira.get(5, TimeUnit.SECONDS).isPresent());
+        assertTrue(segunda.get(5, TimeUnit.SECONDS).isPresent());
+        verify(pedidoRepository).buscarPorIds(any());
+    }
+
+    @Test
+    void testFalhaDaConsultaChegaATodasAsBuscasDoLote() throws Exception {
+        doThrow(new QueryTimeoutException("timeout")).when(pedidoRepository).buscarPorIds(any());
+        CarregadorPedidos carregador = new CarregadorPedidos(pedidoRepository, 60_000_000, 2, meterRegistry);
+        buscarEmOutraThread(carregador, 1L);
+        verify(pedidoRepository, timeout(5000)).findById(1L);
+
+        CompletableFuture<Optional<PedidoEntity>> primeira = buscarEmOutraThread(carregador, 2L);
+        CompletableFuture<Optional<PedidoEntity>> segunda = buscarEmOutraThread(carregador, 3L);
+
+        for (CompletableFuture<Optional<PedidoEntity>> busca : List.of(primeira, segunda)) {
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> busca.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(QueryTimeoutException.class, erro.getCause());
+        }
+    }
+
+    @Test
+    void testDentroDeTransacaoLeNaConexaoDela() {
+        CarregadorPedidos carregador = new CarregadorPedidos(pedidoRepository, 200, 100, meterRegistry);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        carregador.buscar(2L);
+
+        verify(pedidoRepository).findById(2L);
+        assertEquals(0, meterRegistry.get("pedidos.busca.lote").summary().count());
+    }
+
+    private static CompletableFuture<Optional<PedidoEntity>> buscarEmOutraThread(CarregadorPedidos carregador, long id) {
+        return CompletableFuture.supplyAsync(() -> carregador.buscar(id), runnable -> Thread.ofVirtual().start(runnable));
+    }
+
+    private static PedidoEntity pedido(Long id) {
+        return PedidoEntity.builder().id(id).status("CRIADO").build();
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.ItemPedidoDTO;
+import br.com.loja.pedidos.domain.entities.ItemPedidoEntity;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conta os comandos SQL enviados pelo Hibernate ao banco configurado em {@code application.yml}.
+ * Cada teste roda em uma transação desfeita ao final.
+ *
+ * As estatísticas do Hibernate contam os {@code PreparedStatement}s criados: um lote JDBC reaproveita
+ * o mesmo comando, enquanto sem lotes cada INSERT prepara o seu. O {@link ContadorComandos} registra
+ * o SQL de cada comando distinto.
+ */
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ItemPedidoRepositoryTest {
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ItemPedidoRepository itemPedidoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContadorComandos contador;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        zerarContadores();
+    }
+
+    @Test
+    void testItensDeUmPedidoGrandeSaoInseridosEmLotes() {
+        pedidoRepository.save(pedido(120));
+        entityManager.flush();
+
+        // 1 bloco da pedido_seq + 3 blocos de 50 da item_pedido_seq + 1 INSERT de pedido + 1 INSERT
+        // de item reaproveitado pelos 3 lotes. Sem lotes seriam 125 comandos.
+        assertEquals(121, estatisticas.getEntityInsertCount());
+        assertEquals(6, estatisticas.getPrepareStatementCount(), contador.comandos::toString);
+        assertEquals(3, contador.contar("nextval('item_pedido_seq')"));
+        assertEquals(0, contador.contar("update "), "pedido_id vai no próprio INSERT do item");
+    }
+
+    @Test
+    void testItensDeVariosPedidosSaoCarregadosComUmaConsulta() {
+        List<Long> ids = gravarPedidos(10, 3);
+        zerarContadores();
+
+        List<PedidoEntity> pedidos = pedidoRepository.findAllById(ids);
+        pedidos.forEach(pedido -> assertEquals(3, pedido.getItens().size()));
+
+        assertEquals(10, pedidos.size());
+        assertEquals(2, estatisticas.getPrepareStatementCount(), contador.comandos::toString);
+        assertEquals(1, contador.contar(" from item_pedido "));
+    }
+
+    @Test
+    void testProjecaoDeItensNaoCarregaEntidades() {
+        List<Long> ids = gravarPedidos(5, 2);
+        zerarContadores();
+
+        List<ItemPedidoDTO> itens = itemPedidoRepository.buscarItens(ids);
+
+        assertEquals(10, itens.size());
+        assertEquals(ids.get(0), itens.get(0).getPedidoId());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private void zerarContadores() {
+        estatisticas.clear();
+        contador.comandos.clear();
+    }
+
+    private List<Long> gravarPedidos(int quantidade, int itensPorPedido) {
+        List<PedidoEntity> pedidos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            pedidos.add(pedido(itensPorPedido));
+        }
+        List<Long> ids = pedidoRepository.saveAll(pedidos).stream().map(PedidoEntity::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private static PedidoEntity pedido(int quantidadeItens) {
+        PedidoEntity pedido = PedidoEntity.builder()
+                .status("CRIADO")
+                .dataHoraRealizacaoPedido(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < quantidadeItens; i++) {
+            pedido.getItens().add(ItemPedidoEntity.builder()
+                    .produto("produto-" + i)
+                    .quantidade(1 + i % 3)
+                    .precoUnitario(new BigDecimal("9.90"))
+                    .build());
+        }
+        return pedido;
+    }
+
+    /** Registra o SQL de cada comando gerado pelo Hibernate, em minúsculas. */
+    static class ContadorComandos implements StatementInspector {
+
+        final List<String> comandos = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            comandos.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+
+        long contar(String trecho) {
+            return comandos.stream().filter(sql -> sql.contains(trecho)).count();
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        ContadorComandos contadorComandos() {
+            return new ContadorComandos();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer inspetorComandos(ContadorComandos contador) {
+            return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, contador);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ManutencaoParticoesPedidoTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 3, 10);
+
+    private ParticoesPedidoRepository particoesPedidoRepository;
+
+    @BeforeEach
+    void setUp() {
+        particoesPedidoRepository = mock(ParticoesPedidoRepository.class);
+    }
+
+    @Test
+    void testCriaApenasOsMesesQueFaltam() {
+        when(particoesPedidoRepository.listarMeses()).thenReturn(List.of(YearMonth.of(2025, 3), YearMonth.of(2025, 4)));
+
+        new ManutencaoParticoesPedido(particoesPedidoRepository, 3, 0).manter(HOJE);
+
+        verify(particoesPedidoRepository).criar(YearMonth.of(2025, 5));
+        verify(particoesPedidoRepository).criar(YearMonth.of(2025, 6));
+        verify(particoesPedidoRepository, never()).criar(YearMonth.of(2025, 3));
+        verify(particoesPedidoRepository, never()).desanexar(any());
+    }
+
+    @Test
+    void testDesanexaMesesForaDaRetencao() {
+        when(particoesPedidoRepository.listarMeses()).thenReturn(List.of(
+                YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 3)));
+
+        new ManutencaoParticoesPedido(particoesPedidoRepository, 0, 3).manter(HOJE);
+
+        verify(particoesPedidoRepository).desanexar(YearMonth.of(2024, 11));
+        verify(particoesPedidoRepository, never()).desanexar(YearMonth.of(2024, 12));
+        verify(particoesPedidoRepository, never()).criar(any());
+    }
+
+    @Test
+    void testFalhaEmUmMesNaoInterrompeOsDemais() {
+        when(particoesPedidoRepository.listarMeses()).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("já existe"))
+                .when(particoesPedidoRepository).criar(YearMonth.of(2025, 3));
+
+        new ManutencaoParticoesPedido(particoesPedidoRepository, 1, 0).manter(HOJE);
+
+        verify(particoesPedidoRepository).criar(YearMonth.of(2025, 4));
+    }
+
+    @Test
+    void testNomeDaParticao() {
+        assertEquals("pedido_p2025_03", ParticoesPedidoRepository.nomeParticao(YearMonth.of(2025, 3)));
+        assertEquals(YearMonth.of(2025, 3), ParticoesPedidoRepository.mesDaParticao("pedido_p2025_03"));
+        assertNull(ParticoesPedidoRepository.mesDaParticao("pedido_padrao"));
+    }
+}
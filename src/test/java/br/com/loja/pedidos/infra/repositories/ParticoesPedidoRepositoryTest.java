@@ -0,0 +1,93 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa as migrações e as operações de partição contra um PostgreSQL embarcado, já que
+ * particionamento declarativo não tem equivalente no H2.
+ */
+class ParticoesPedidoRepositoryTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static ParticoesPedidoRepository particoesPedidoRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        particoesPedidoRepository = new ParticoesPedidoRepository(dataSource);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testCriarMoveParaAParticaoOsPedidosFuturosDaPadrao() {
+        YearMonth mes = YearMonth.of(2099, 7);
+        jdbcTemplate.update("INSERT INTO pedido (id, data_hora_realizacao_pedido, status) VALUES (?, ?::timestamp, 'CRIADO')",
+                -1L, "2099-07-15 10:00:00");
+        jdbcTemplate.update("INSERT INTO pedido (id, data_hora_realizacao_pedido, status) VALUES (?, ?::timestamp, 'CRIADO')",
+                -2L, "2099-08-01 00:00:00");
+        assertEquals(2, contar("pedido_padrao"));
+
+        particoesPedidoRepository.criar(mes);
+
+        assertTrue(particoesPedidoRepository.listarMeses().contains(mes));
+        assertEquals(1, contar(ParticoesPedidoRepository.nomeParticao(mes)));
+        assertEquals(1, contar("pedido_padrao"));
+        assertEquals(2, contar("pedido"));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT relispartition FROM pg_class WHERE relname = 'pedido_padrao'", Boolean.class));
+
+        particoesPedidoRepository.criar(mes);
+        assertEquals(1, contar(ParticoesPedidoRepository.nomeParticao(mes)));
+    }
+
+    @Test
+    void testDesanexarArquivaOsItensDosPedidosDoMes() {
+        YearMonth mes = YearMonth.of(2098, 3);
+        particoesPedidoRepository.criar(mes);
+        particoesPedidoRepository.criar(mes.plusMonths(1));
+        jdbcTemplate.update("INSERT INTO pedido (id, data_hora_realizacao_pedido, status) VALUES (?, ?::timestamp, 'CRIADO')",
+                -10L, "2098-03-20 08:00:00");
+        jdbcTemplate.update("INSERT INTO pedido (id, data_hora_realizacao_pedido, status) VALUES (?, ?::timestamp, 'CRIADO')",
+                -11L, "2098-04-02 08:00:00");
+        inserirItem(-100L, -10L);
+        inserirItem(-101L, -10L);
+        inserirItem(-102L, -11L);
+
+        particoesPedidoRepository.desanexar(mes);
+
+        assertFalse(particoesPedidoRepository.listarMeses().contains(mes));
+        assertEquals(1, contar(ParticoesPedidoRepository.SCHEMA_ARQUIVO + "." + ParticoesPedidoRepository.nomeParticao(mes)));
+        assertEquals(List.of(-101L, -100L), jdbcTemplate.queryForList(
+                "SELECT id FROM arquivo_pedido.item_pedido ORDER BY id", Long.class));
+        assertEquals(List.of(-102L), jdbcTemplate.queryForList(
+                "SELECT id FROM item_pedido WHERE pedido_id IN (-10, -11)", Long.class));
+    }
+
+    private static void inserirItem(long id, long pedidoId) {
+        jdbcTemplate.update("INSERT INTO item_pedido (id, pedido_id, produto, quantidade, preco_unitario) VALUES (?, ?, 'produto', 1, 9.90)",
+                id, pedidoId);
+    }
+
+    private static int contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Integer.class);
+    }
+}
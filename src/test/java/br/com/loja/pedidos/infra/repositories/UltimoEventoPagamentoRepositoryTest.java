@@ -0,0 +1,64 @@
+package br.com.loja.pedidos.infra.repositories;
+
+import br.com.loja.pedidos.application.dtos.EventoPagamentoDTO;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UltimoEventoPagamentoRepositoryTest {
+
+    private static final Instant INSTANTE = Instant.parse("2025-03-10T12:00:00Z");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static UltimoEventoPagamentoRepository ultimoEventoPagamentoRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        ultimoEventoPagamentoRepository = new UltimoEventoPagamentoRepository(dataSource);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testEventosDoMesmoInstanteSaoOrdenadosPeloId() {
+        EventoPagamentoDTO a = new EventoPagamentoDTO(10L, "PAGO", "evt-a", INSTANTE);
+        EventoPagamentoDTO b = new EventoPagamentoDTO(10L, "CANCELADO", "evt-b", INSTANTE);
+
+        assertEquals(Set.of(10L), ultimoEventoPagamentoRepository.registrar(List.of(a)));
+        assertEquals(Set.of(10L), ultimoEventoPagamentoRepository.registrar(List.of(b)));
+        assertEquals(Set.of(), ultimoEventoPagamentoRepository.registrar(List.of(a)));
+        assertEquals(Set.of(), ultimoEventoPagamentoRepository.registrar(List.of(b)));
+    }
+
+    @Test
+    void testRemoverAnterioresApagaApenasRegistrosAntigos() {
+        ultimoEventoPagamentoRepository.registrar(List.of(
+                new EventoPagamentoDTO(20L, "PAGO", "evt-1", INSTANTE.minusSeconds(3600)),
+                new EventoPagamentoDTO(21L, "PAGO", "evt-2", INSTANTE.minusSeconds(7200)),
+                new EventoPagamentoDTO(22L, "PAGO", "evt-3", INSTANTE.plusSeconds(60))));
+
+        assertEquals(1, ultimoEventoPagamentoRepository.removerAnteriores(INSTANTE, 1));
+        assertEquals(1, ultimoEventoPagamentoRepository.removerAnteriores(INSTANTE, 1));
+        assertEquals(0, ultimoEventoPagamentoRepository.removerAnteriores(INSTANTE, 1));
+        assertEquals(List.of(22L), jdbcTemplate.queryForList(
+                "SELECT id_pedido FROM ultimo_evento_pagamento WHERE id_pedido BETWEEN 20 AND 29", Long.class));
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.application.dtos.EventoPedidoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedStatusPedidosTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Runnable> enviosAgendados;
+    private FeedStatusPedidos feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        enviosAgendados = new ArrayList<>();
+        // Os envios nunca executam: simula clientes que não leem a conexão.
+        feed = new FeedStatusPedidos(new ObjectMapper().findAndRegisterModules(), meterRegistry, 3,
+                Duration.ofMinutes(1), Duration.ofSeconds(3), enviosAgendados::add);
+    }
+
+    @Test
+    void testAssinantesSaoContados() {
+        feed.assinar(null);
+        feed.assinar(1L);
+        feed.assinar(1L);
+
+        assertEquals(3, feed.quantidadeAssinantes());
+        assertEquals(3.0, meterRegistry.get("pedidos.sse.assinantes").gauge().value());
+    }
+
+    @Test
+    void testAssinanteLentoEDesconectadoQuandoOBufferEnche() {
+        feed.assinar(null);
+
+        feed.aoAlterarStatus(alteracao(1L));
+        feed.aoAlterarStatus(alteracao(2L));
+        assertEquals(1, feed.quantidadeAssinantes());
+
+        feed.aoAlterarStatus(alteracao(3L));
+        assertEquals(0, feed.quantidadeAssinantes());
+        assertEquals(1, meterRegistry.get("pedidos.sse.desconectados").counter().count());
+    }
+
+    @Test
+    void testAssinanteDeUmPedidoSoRecebeOsEventosDele() {
+        feed.assinar(1L);
+        feed.assinar(2L);
+
+        for (int i = 0; i < 3; i++) {
+            feed.aoAlterarStatus(alteracao(1L));
+        }
+
+        assertEquals(1, feed.quantidadeAssinantes());
+    }
+
+    @Test
+    void testEnvioEAgendadoUmaVezPorAssinante() {
+        feed.assinar(null);
+        feed.aoAlterarStatus(alteracao(1L));
+
+        assertEquals(1, enviosAgendados.size());
+    }
+
+    @Test
+    void testEncerrarFechaOExecutorDeEnvio() {
+        ExecutorService envio = Executors.newVirtualThreadPerTaskExecutor();
+        FeedStatusPedidos comExecutor = new FeedStatusPedidos(new ObjectMapper().findAndRegisterModules(), meterRegistry, 3,
+                Duration.ofMinutes(1), Duration.ofSeconds(3), envio);
+        comExecutor.assinar(null);
+
+        comExecutor.encerrar();
+
+        assertTrue(envio.isShutdown());
+    }
+
+    private static EventoPedidoDTO alteracao(Long idPedido) {
+        return EventoPedidoDTO.builder().idPedido(idPedido).status("PAGO").statusAnterior("CRIADO").build();
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia;
+import br.com.loja.pedidos.infra.configurations.LimitesConcorrencia.Classe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LimiteConcorrenciaFilterTest {
+
+    private LimitesConcorrencia limites;
+    private LimiteConcorrenciaFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("pedidos.concorrencia.listagem.limite-inicial", "1")
+                .withProperty("pedidos.concorrencia.listagem.limite-minimo", "1");
+        limites = new LimitesConcorrencia(environment, new SimpleMeterRegistry());
+        filtro = new LimiteConcorrenciaFilter(limites);
+    }
+
+    @Test
+    void testClassificaEndpoints() {
+        assertEquals(Classe.LISTAGEM, LimiteConcorrenciaFilter.classificar(HttpMethod.GET, ""));
+        assertEquals(Classe.LISTAGEM, LimiteConcorrenciaFilter.classificar(HttpMethod.GET, "/exportar"));
+        assertEquals(Classe.LISTAGEM, LimiteConcorrenciaFilter.classificar(HttpMethod.GET, "/contagem"));
+        assertEquals(Classe.CONSULTA, LimiteConcorrenciaFilter.classificar(HttpMethod.GET, "/42"));
+        assertEquals(Classe.CONSULTA, LimiteConcorrenciaFilter.classificar(HttpMethod.GET, "/estatisticas"));
+        assertEquals(Classe.ESCRITA, LimiteConcorrenciaFilter.classificar(HttpMethod.PUT, "/42/status"));
+        assertEquals(Classe.LOTE, LimiteConcorrenciaFilter.classificar(HttpMethod.PUT, "/status"));
+        assertEquals(Classe.LOTE, LimiteConcorrenciaFilter.classificar(HttpMethod.POST, "/lote"));
+    }
+
+    @Test
+    void testRecusaCom429QuandoAClasseEstaNoLimite() throws ServletException, IOException {
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        FilterChain cadeia = (request, response) -> {
+            try {
+                filtro.doFilter(get("/api/pedidos"), recusada, mock(FilterChain.class));
+            } catch (IOException | ServletException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        filtro.doFilter(get("/api/pedidos"), new MockHttpServletResponse(), cadeia);
+
+        assertEquals(429, recusada.getStatus());
+        assertEquals("1", recusada.getHeader("Retry-After"));
+        assertEquals(0, limites.limitador(Classe.LISTAGEM).getEmUso());
+    }
+
+    @Test
+    void testClassesTemOrcamentosSeparados() throws ServletException, IOException {
+        MockHttpServletResponse consulta = new MockHttpServletResponse();
+        FilterChain consultaDuranteListagem = (request, response) -> {
+            try {
+                filtro.doFilter(get("/api/pedidos/42"), consulta, mock(FilterChain.class));
+            } catch (IOException | ServletException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        filtro.doFilter(get("/api/pedidos"), new MockHttpServletResponse(), consultaDuranteListagem);
+
+        assertEquals(200, consulta.getStatus());
+    }
+
+    @Test
+    void testErroDoServidorReduzOLimite() throws ServletException, IOException {
+        int antes = limites.limitador(Classe.CONSULTA).getLimite();
+        FilterChain falha = (request, response) -> ((MockHttpServletResponse) response).setStatus(503);
+
+        filtro.doFilter(get("/api/pedidos/42"), new MockHttpServletResponse(), falha);
+
+        assertTrue(limites.limitador(Classe.CONSULTA).getLimite() < antes);
+        assertEquals(0, limites.limitador(Classe.CONSULTA).getEmUso());
+    }
+
+    @Test
+    void testStreamsSseNaoSaoLimitados() throws ServletException, IOException {
+        FilterChain cadeia = mock(FilterChain.class);
+        MockHttpServletRequest request = get("/api/pedidos/stream");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        verify(cadeia).doFilter(eq(request), any());
+        assertEquals(0, limites.limitador(Classe.CONSULTA).getEmUso());
+    }
+
+    private static MockHttpServletRequest get(String caminho) {
+        return new MockHttpServletRequest("GET", caminho);
+    }
+}
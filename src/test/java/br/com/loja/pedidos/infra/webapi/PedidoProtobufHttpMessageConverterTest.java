@@ -0,0 +1,125 @@
+package br.com.loja.pedidos.infra.webapi;
+
+import br.com.loja.grpc.ItemPedido;
+import br.com.loja.grpc.Pedido;
+import br.com.loja.grpc.PedidoList;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PedidoProtobufHttpMessageConverterTest {
+
+    private final PedidoProtobufHttpMessageConverter converter = new PedidoProtobufHttpMessageConverter();
+
+    @Test
+    void testEscreveERelePedido() throws Exception {
+        LocalDateTime dataHora = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123456000);
+        PedidoEntity pedido = new PedidoEntity(7L, "PAGO", dataHora, 3L, null);
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+
+        converter.write(pedido, PedidoProtobufHttpMessageConverter.PROTOBUF, saida);
+
+        byte[] corpo = saida.getBodyAsBytes();
+        assertEquals(corpo.length, saida.getHeaders().getContentLength());
+        assertEquals(PedidoProtobufHttpMessageConverter.PROTOBUF, saida.getHeaders().getContentType());
+        Pedido mensagem = Pedido.parseFrom(corpo);
+        assertEquals(7L, mensagem.getId());
+        assertEquals("PAGO", mensagem.getStatus());
+        assertEquals(3L, mensagem.getVersao());
+        assertFalse(mensagem.hasAtualizadoEm());
+
+        PedidoEntity lido = (PedidoEntity) converter.read(PedidoEntity.class, new MockHttpInputMessage(corpo));
+        assertEquals(7L, lido.getId());
+        assertEquals("PAGO", lido.getStatus());
+        assertEquals(dataHora, lido.getDataHoraRealizacaoPedido());
+    }
+
+    @Test
+    void testCamposAusentesFicamNulosNaLeitura() throws Exception {
+        byte[] corpo = Pedido.newBuilder().setStatus("CRIADO").build().toByteArray();
+
+        PedidoEntity lido = (PedidoEntity) converter.read(PedidoEntity.class, new MockHttpInputMessage(corpo));
+
+        assertNull(lido.getId());
+        assertNull(lido.getDataHoraRealizacaoPedido());
+        assertEquals("CRIADO", lido.getStatus());
+        assertTrue(lido.getItens().isEmpty());
+    }
+
+    @Test
+    void testLeItensDoPedido() throws Exception {
+        byte[] corpo = Pedido.newBuilder()
+                .addItensPedido(ItemPedido.newBuilder().setProduto("caneta").setQuantidade(3).setPrecoUnitario("2.50"))
+                .build().toByteArray();
+
+        PedidoEntity lido = (PedidoEntity) converter.read(PedidoEntity.class, new MockHttpInputMessage(corpo));
+
+        assertEquals(1, lido.getItens().size());
+        assertEquals("caneta", lido.getItens().get(0).getProduto());
+        assertEquals(3, lido.getItens().get(0).getQuantidade());
+        assertEquals(new BigDecimal("2.50"), lido.getItens().get(0).getPrecoUnitario());
+    }
+
+    @Test
+    void testPrecoInvalidoGeraErroDeLeitura() {
+        byte[] corpo = Pedido.newBuilder()
+                .addItensPedido(ItemPedido.newBuilder().setProduto("caneta").setQuantidade(1).setPrecoUnitario("dois"))
+                .build().toByteArray();
+
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(PedidoEntity.class, new MockHttpInputMessage(corpo)));
+    }
+
+    @Test
+    void testEscrevePagina() throws Exception {
+        PaginaPedidosDTO pagina = new PaginaPedidosDTO(List.of(
+                new PedidoEntity(1L, "CRIADO", LocalDateTime.now(), 0L, null),
+                new PedidoEntity(2L, "PAGO", LocalDateTime.now(), 1L, LocalDateTime.now())), "abc");
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+
+        converter.write(pagina, PedidoProtobufHttpMessageConverter.PROTOBUF, saida);
+
+        PedidoList lista = PedidoList.parseFrom(saida.getBodyAsBytes());
+        assertEquals(2, lista.getItensCount());
+        assertEquals(2L, lista.getItens(1).getId());
+        assertTrue(lista.getItens(1).hasAtualizadoEm());
+        assertEquals("abc", lista.getProximoCursor());
+    }
+
+    @Test
+    void testSoLePedidoESoAtendeProtobuf() {
+        assertTrue(converter.canRead(PedidoEntity.class, PedidoProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canRead(PaginaPedidosDTO.class, PedidoProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(PaginaPedidosDTO.class, PedidoProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(PedidoEntity.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String.class, PedidoProtobufHttpMessageConverter.PROTOBUF));
+    }
+
+    @Test
+    void testCorpoInvalidoGeraErroDeLeitura() {
+        MockHttpInputMessage entrada = new MockHttpInputMessage(new byte[]{(byte) 0xff, 0x01});
+
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(PedidoEntity.class, entrada));
+    }
+
+    @Test
+    void testEscolhidoConformeAPreferenciaDoAccept() {
+        assertTrue(PedidoProtobufHttpMessageConverter.isEscolhido("application/x-protobuf"));
+        assertTrue(PedidoProtobufHttpMessageConverter.isEscolhido("*/*, application/x-protobuf"));
+        assertTrue(PedidoProtobufHttpMessageConverter.isEscolhido("application/json;q=0.5, application/x-protobuf"));
+        assertFalse(PedidoProtobufHttpMessageConverter.isEscolhido(null));
+        assertFalse(PedidoProtobufHttpMessageConverter.isEscolhido("*/*"));
+        assertFalse(PedidoProtobufHttpMessageConverter.isEscolhido("application/json, application/x-protobuf;q=0.9"));
+        assertFalse(PedidoProtobufHttpMessageConverter.isEscolhido("não é um tipo"));
+    }
+}
@@ -1,15 +1,44 @@
 package br.com.loja.pedidos.infra.webapi;
 
+import br.com.loja.pedidos.application.dtos.AlteracaoStatusDTO;
+import br.com.loja.pedidos.application.dtos.AtualizacaoStatusEmMassaDTO;
+import br.com.loja.pedidos.application.dtos.ContagemPedidosDTO;
+import br.com.loja.pedidos.application.dtos.CursorPedidoDTO;
+import br.com.loja.pedidos.application.dtos.EstatisticasPedidosDTO;
+import br.com.loja.pedidos.application.dtos.FiltroPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PaginaPedidosDTO;
+import br.com.loja.pedidos.application.dtos.PedidoDetalheDTO;
+import br.com.loja.pedidos.application.dtos.VersaoPedidoDTO;
 import br.com.loja.pedidos.domain.DomainServices;
+import br.com.loja.pedidos.domain.TransicaoStatusInvalidaException;
 import br.com.loja.pedidos.domain.entities.PedidoEntity;
+import br.com.loja.pedidos.domain.entities.StatusPedido;
+import br.com.loja.pedidos.infra.configurations.ContextoLeitura;
+import br.com.loja.pedidos.infra.repositories.TransicaoStatusProjecao;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,12 +46,14 @@ import static org.mockito.Mockito.*;
 class PedidosControllerTest {
 
     private DomainServices domainServices;
+    private FeedStatusPedidos feedStatusPedidos;
     private PedidosController pedidosController;
 
     @BeforeEach
     void setUp() {
         domainServices = mock(DomainServices.class);
-        pedidosController = new PedidosController(domainServices);
+        feedStatusPedidos = mock(FeedStatusPedidos.class);
+        pedidosController = new PedidosController(domainServices, feedStatusPedidos, new ObjectMapper().findAndRegisterModules(), 2, 30);
     }
 
     @Test
@@ -40,6 +71,58 @@ class PedidosControllerTest {
         assertEquals(salvo, response.getBody());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCriarPedidosEmLoteGravaEmBlocos() throws Exception {
+        when(domainServices.criarPedidosEmLote(anyList()))
+                .thenReturn(List.of(10L, 11L))
+                .thenReturn(List.of(12L));
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.criarPedidosEmLote(corpo("[{\"status\":\"CRIADO\"},{},{\"status\":\"PAGO\"}]"), resposta);
+
+        ArgumentCaptor<List<PedidoEntity>> blocos = ArgumentCaptor.forClass(List.class);
+        verify(domainServices, times(2)).criarPedidosEmLote(blocos.capture());
+        assertEquals("application/x-ndjson", resposta.getContentType());
+        assertEquals("{\"id\":10}\n{\"id\":11}\n{\"id\":12}\n", resposta.getContentAsString());
+    }
+
+    @Test
+    void testCriarPedidosEmLoteAceitaNdjson() throws Exception {
+        when(domainServices.criarPedidosEmLote(anyList())).thenReturn(List.of(1L, 2L));
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.criarPedidosEmLote(corpo("{\"status\":\"CRIADO\"}\n{\"status\":\"PAGO\"}\n"), resposta);
+
+        verify(domainServices).criarPedidosEmLote(argThat(bloco -> bloco.size() == 2));
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", resposta.getContentAsString());
+    }
+
+    @Test
+    void testCriarPedidosEmLoteInvalidoAntesDoPrimeiroBloco() throws Exception {
+        when(domainServices.criarPedidosEmLote(anyList())).thenThrow(new IllegalArgumentException("Status inválido"));
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.criarPedidosEmLote(corpo("[{\"status\":\"QUALQUER\"}]"), resposta);
+
+        assertEquals(400, resposta.getStatus());
+        assertEquals("", resposta.getContentAsString());
+    }
+
+    @Test
+    void testCriarPedidosEmLoteMalformadoAposPrimeiroBloco() throws Exception {
+        when(domainServices.criarPedidosEmLote(anyList())).thenReturn(List.of(1L, 2L));
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.criarPedidosEmLote(corpo("{}\n{}\n{\"status\":"), resposta);
+
+        String[] linhas = resposta.getContentAsString().split("\n");
+        assertEquals(200, resposta.getStatus());
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[2].contains("\"criados\":2"));
+        verify(domainServices, times(1)).criarPedidosEmLote(anyList());
+    }
+
     @Test
     void testListarPedidos() {
         PedidoEntity pedido1 = new PedidoEntity();
@@ -48,12 +131,108 @@ class PedidosControllerTest {
         PedidoEntity pedido2 = new PedidoEntity();
         pedido2.setId(2L);
 
-        when(domainServices.listarPedidos()).thenReturn(List.of(pedido1, pedido2));
+        when(domainServices.listarPedidos(any(FiltroPedidosDTO.class), isNull(), eq(20)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido1, pedido2), "proximo"));
+
+        ResponseEntity<PaginaPedidosDTO> response =
+                pedidosController.listarPedidos(null, null, null, null, PageRequest.of(0, 20), null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().getItens().size());
+        assertEquals("proximo", response.getBody().getProximoCursor());
+    }
+
+    @Test
+    void testObterEstatisticasPadraoUltimosDias() {
+        EstatisticasPedidosDTO estatisticas = new EstatisticasPedidosDTO(0, Map.of(), List.of());
+        when(domainServices.obterEstatisticas(any(), any())).thenReturn(Optional.of(estatisticas));
+
+        ResponseEntity<EstatisticasPedidosDTO> response = pedidosController.obterEstatisticas(null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        LocalDate amanha = LocalDate.now().plusDays(1);
+        verify(domainServices).obterEstatisticas(amanha.minusDays(30), amanha);
+    }
+
+    @Test
+    void testObterEstatisticasAntesDaCarga() {
+        when(domainServices.obterEstatisticas(any(), any())).thenReturn(Optional.empty());
+
+        assertEquals(503, pedidosController.obterEstatisticas(null, null).getStatusCodeValue());
+    }
+
+    @Test
+    void testObterEstatisticasPeriodoInvalido() {
+        LocalDate dia = LocalDate.of(2025, 1, 10);
+
+        assertEquals(400, pedidosController.obterEstatisticas(dia, dia).getStatusCodeValue());
+        verifyNoInteractions(domainServices);
+    }
+
+    @Test
+    void testContarPedidos() {
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2025, 2, 1, 0, 0);
+        when(domainServices.contarPedidos(inicio, fim)).thenReturn(42L);
 
-        ResponseEntity<List<PedidoEntity>> response = pedidosController.listarPedidos();
+        ResponseEntity<ContagemPedidosDTO> response = pedidosController.contarPedidos(inicio, fim);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size());
+        assertEquals(new ContagemPedidosDTO(inicio, fim, 42L), response.getBody());
+    }
+
+    @Test
+    void testContarPedidosPeriodoInvalido() {
+        LocalDateTime instante = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+        assertEquals(400, pedidosController.contarPedidos(instante, instante).getStatusCodeValue());
+        verifyNoInteractions(domainServices);
+    }
+
+    @Test
+    void testAcompanharPedidoInexistente() {
+        when(domainServices.existePedido(9L)).thenReturn(false);
+
+        assertEquals(404, pedidosController.acompanharPedido(9L).getStatusCodeValue());
+        verifyNoInteractions(feedStatusPedidos);
+    }
+
+    @Test
+    void testAcompanharPedidoAssinaApenasOPedido() {
+        SseEmitter emitter = new SseEmitter();
+        when(domainServices.existePedido(1L)).thenReturn(true);
+        when(feedStatusPedidos.assinar(1L)).thenReturn(emitter);
+
+        assertSame(emitter, pedidosController.acompanharPedido(1L).getBody());
+    }
+
+    @Test
+    void testListarPedidosComFiltroInvalido() {
+        ResponseEntity<PaginaPedidosDTO> response =
+                pedidosController.listarPedidos("QUALQUER", null, null, null, PageRequest.of(0, 20), null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(domainServices);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportarPedidosEmNdjson() throws Exception {
+        doAnswer(invocacao -> {
+            Consumer<PedidoEntity> consumidor = invocacao.getArgument(1);
+            consumidor.accept(PedidoEntity.builder().id(1L).status("PAGO").build());
+            consumidor.accept(PedidoEntity.builder().id(2L).status("CRIADO").build());
+            return null;
+        }).when(domainServices).exportarPedidos(any(FiltroPedidosDTO.class), any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = pedidosController.exportarPedidos(null, null, null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].startsWith("{\"id\":1,"));
+        assertTrue(linhas[1].startsWith("{\"id\":2,"));
     }
 
     @Test
@@ -78,7 +257,7 @@ class PedidosControllerTest {
         Long pedidoId = 99L;
         String status = "CANCELADO";
 
-        when(domainServices.atualizarStatus(pedidoId, status)).thenThrow(new RuntimeException("Pedido não encontrado"));
+        when(domainServices.atualizarStatus(pedidoId, status)).thenThrow(new EntityNotFoundException("Pedido não encontrado"));
 
         ResponseEntity<PedidoEntity> response = pedidosController.atualizarStatus(pedidoId, status);
 
@@ -86,6 +265,34 @@ class PedidosControllerTest {
         assertNull(response.getBody());
     }
 
+    @Test
+    void testAtualizarStatusSemConexaoPropagaParaOAdvice() {
+        when(domainServices.atualizarStatus(7L, "PAGO"))
+                .thenThrow(new CannotCreateTransactionException("espera máxima esgotada"));
+
+        assertThrows(CannotCreateTransactionException.class, () -> pedidosController.atualizarStatus(7L, "PAGO"));
+    }
+
+    @Test
+    void testAtualizarStatusTransicaoRejeitada() {
+        when(domainServices.atualizarStatus(7L, "PAGO"))
+                .thenThrow(new TransicaoStatusInvalidaException(7L, "CANCELADO", StatusPedido.PAGO));
+
+        ResponseEntity<PedidoEntity> response = pedidosController.atualizarStatus(7L, "PAGO");
+
+        assertEquals(409, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testAtualizarStatusInvalido() {
+        when(domainServices.atualizarStatus(7L, "XYZ")).thenThrow(new IllegalArgumentException("Status de pedido inválido"));
+
+        ResponseEntity<PedidoEntity> response = pedidosController.atualizarStatus(7L, "XYZ");
+
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
     @Test
     void testBuscarPedidoPorIdComSucesso() {
         Long pedidoId = 1L;
@@ -94,7 +301,7 @@ class PedidosControllerTest {
 
         when(domainServices.buscaPedidoPorId(pedidoId)).thenReturn(pedido);
 
-        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(pedidoId);
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(pedidoId, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(pedido, response.getBody());
@@ -106,9 +313,254 @@ class PedidosControllerTest {
 
         when(domainServices.buscaPedidoPorId(pedidoId)).thenThrow(new EntityNotFoundException("Pedido não encontrado"));
 
-        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(pedidoId);
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(pedidoId, null, null);
 
         assertEquals(404, response.getStatusCodeValue());
         assertTrue(response.getBody().toString().contains("Pedido não encontrado"));
     }
+
+    @Test
+    void testBuscarPedidoPorIdRetornaETagDaVersao() {
+        PedidoEntity pedido = PedidoEntity.builder()
+                .id(1L).status("PAGO").versao(3L)
+                .dataHoraRealizacaoPedido(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .build();
+        when(domainServices.buscaPedidoPorId(1L)).thenReturn(pedido);
+
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(1L, null, null);
+
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getLastModified() > 0);
+        verify(domainServices, never()).buscarVersaoPedido(any());
+    }
+
+    @Test
+    void testBuscarDetalhePedidoRetornaETagDaVersao() {
+        PedidoDetalheDTO detalhe = PedidoDetalheDTO.builder()
+                .id(1L).status("PAGO").versao(3L)
+                .dataHoraRealizacaoPedido(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .itens(List.of())
+                .build();
+        when(domainServices.buscarDetalhePedido(1L)).thenReturn(detalhe);
+
+        ResponseEntity<?> response = pedidosController.buscarDetalhePedido(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(detalhe, response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getLastModified() > 0);
+    }
+
+    @Test
+    void testBuscarDetalhePedidoNaoEncontrado() {
+        when(domainServices.buscarDetalhePedido(2L)).thenThrow(new EntityNotFoundException("Pedido não encontrado"));
+
+        ResponseEntity<?> response = pedidosController.buscarDetalhePedido(2L);
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testBuscarPedidoPorIdNaoModificadoNaoCarregaOPedido() {
+        when(domainServices.buscarVersaoPedido(1L))
+                .thenReturn(Optional.of(new VersaoPedidoDTO(3L, LocalDateTime.of(2025, 3, 10, 12, 0))));
+
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(1L, "\"2\", W/\"3\"", null);
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verify(domainServices, never()).buscaPedidoPorId(any());
+    }
+
+    @Test
+    void testBuscarPedidoPorIdComETagAntigoRetornaOPedido() {
+        PedidoEntity pedido = PedidoEntity.builder().id(1L).versao(4L).build();
+        when(domainServices.buscarVersaoPedido(1L))
+                .thenReturn(Optional.of(new VersaoPedidoDTO(4L, LocalDateTime.of(2025, 3, 10, 12, 0))));
+        when(domainServices.buscaPedidoPorId(1L)).thenReturn(pedido);
+
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(1L, "\"3\"", null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testListarPedidosETagMudaComAVersao() {
+        PedidoEntity pedido = PedidoEntity.builder().id(1L).versao(1L).build();
+        when(domainServices.listarPedidos(any(FiltroPedidosDTO.class), isNull(), eq(20)))
+                .thenReturn(new PaginaPedidosDTO(List.of(pedido), null));
+        String antes = pedidosController.listarPedidos(null, null, null, null, PageRequest.of(0, 20), null).getHeaders().getETag();
+
+        pedido.setVersao(2L);
+        String depois = pedidosController.listarPedidos(null, null, null, null, PageRequest.of(0, 20), null).getHeaders().getETag();
+
+        assertNotNull(antes);
+        assertNotEquals(antes, depois);
+    }
+
+    @Test
+    void testBuscarPedidoPorIdETagDiferePorRepresentacao() {
+        PedidoEntity pedido = PedidoEntity.builder().id(1L).versao(3L).build();
+        when(domainServices.buscaPedidoPorId(1L)).thenReturn(pedido);
+        when(domainServices.buscarVersaoPedido(1L))
+                .thenReturn(Optional.of(new VersaoPedidoDTO(3L, LocalDateTime.of(2025, 3, 10, 12, 0))));
+
+        String etagProtobuf = pedidosController.buscarPedidoPorId(1L, null, "application/x-protobuf").getHeaders().getETag();
+        ResponseEntity<?> comEtagJson = pedidosController.buscarPedidoPorId(1L, "\"3\"", "application/x-protobuf");
+
+        assertEquals("\"3-pb\"", etagProtobuf);
+        assertEquals(200, comEtagJson.getStatusCodeValue());
+        assertEquals(304, pedidosController.buscarPedidoPorId(1L, etagProtobuf, "application/x-protobuf").getStatusCodeValue());
+    }
+
+    @Test
+    void testBuscarPedidoPorIdNaoEncontradoRespondeEmTexto() {
+        when(domainServices.buscaPedidoPorId(2L)).thenThrow(new EntityNotFoundException("Pedido não encontrado"));
+
+        ResponseEntity<?> response = pedidosController.buscarPedidoPorId(2L, null, "application/x-protobuf");
+
+        assertEquals(MediaType.TEXT_PLAIN, response.getHeaders().getContentType());
+    }
+
+    private static ByteArrayInputStream corpo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaPorItensEmBlocos() throws Exception {
+        List<TransicaoStatusProjecao> primeiroBloco = List.of(transicao(1L, TransicaoStatusProjecao.ATUALIZADO),
+                transicao(2L, TransicaoStatusProjecao.REJEITADO));
+        List<TransicaoStatusProjecao> segundoBloco = List.of(transicao(3L, TransicaoStatusProjecao.NAO_ENCONTRADO));
+        when(domainServices.atualizarStatusEmLote(anyMap())).thenReturn(primeiroBloco).thenReturn(segundoBloco);
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .itens(List.of(new AlteracaoStatusDTO(1L, "cancelado"), new AlteracaoStatusDTO(2L, "CANCELADO"),
+                        new AlteracaoStatusDTO(3L, "ENVIADO")))
+                .build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        ArgumentCaptor<Map<Long, StatusPedido>> blocos = ArgumentCaptor.forClass(Map.class);
+        verify(domainServices, times(2)).atualizarStatusEmLote(blocos.capture());
+        assertEquals(Map.of(1L, StatusPedido.CANCELADO, 2L, StatusPedido.CANCELADO), blocos.getAllValues().get(0));
+        assertEquals(Map.of(3L, StatusPedido.ENVIADO), blocos.getAllValues().get(1));
+        String[] linhas = resposta.getContentAsString().split("\n");
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[1].contains("\"id\":2") && linhas[1].contains("\"resultado\":\"REJEITADO\""));
+        assertTrue(linhas[2].contains("\"resultado\":\"NAO_ENCONTRADO\""));
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaComStatusInvalidoNaoAlteraNada() throws Exception {
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .itens(List.of(new AlteracaoStatusDTO(1L, "PAGO"), new AlteracaoStatusDTO(2L, "QUALQUER")))
+                .build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        assertEquals(400, resposta.getStatus());
+        verify(domainServices, never()).atualizarStatusEmLote(any());
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaExigeFiltroComCriterio() throws Exception {
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .filtro(new FiltroPedidosDTO()).status("CANCELADO").build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        assertEquals(400, resposta.getStatus());
+        verify(domainServices, never()).listarPedidos(any(), any(), anyInt());
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaPorFiltroPercorrePaginas() throws Exception {
+        FiltroPedidosDTO filtro = FiltroPedidosDTO.builder().status(StatusPedido.CRIADO).build();
+        LocalDateTime dataHora = LocalDateTime.of(2025, 1, 1, 10, 0);
+        CursorPedidoDTO cursor = new CursorPedidoDTO(dataHora, 2L);
+        when(domainServices.listarPedidos(filtro, null, 2)).thenReturn(new PaginaPedidosDTO(List.of(
+                PedidoEntity.builder().id(1L).build(), PedidoEntity.builder().id(2L).build()), cursor.codificar()));
+        when(domainServices.listarPedidos(filtro, cursor, 2)).thenReturn(new PaginaPedidosDTO(List.of(
+                PedidoEntity.builder().id(3L).build()), null));
+        when(domainServices.atualizarStatusEmLote(anyMap())).thenAnswer(invocacao -> invocacao
+                .<Map<Long, StatusPedido>>getArgument(0).keySet().stream()
+                .map(id -> transicao(id, TransicaoStatusProjecao.ATUALIZADO)).toList());
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .filtro(filtro).status("CANCELADO").build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        verify(domainServices).atualizarStatusEmLote(Map.of(1L, StatusPedido.CANCELADO, 2L, StatusPedido.CANCELADO));
+        verify(domainServices).atualizarStatusEmLote(Map.of(3L, StatusPedido.CANCELADO));
+        assertEquals(3, resposta.getContentAsString().split("\n").length);
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaInterrompidaMantemBlocosGravados() throws Exception {
+        List<TransicaoStatusProjecao> primeiroBloco = List.of(transicao(1L, TransicaoStatusProjecao.ATUALIZADO),
+                transicao(2L, TransicaoStatusProjecao.ATUALIZADO));
+        when(domainServices.atualizarStatusEmLote(anyMap()))
+                .thenReturn(primeiroBloco)
+                .thenThrow(new QueryTimeoutException("tempo esgotado"));
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .itens(List.of(new AlteracaoStatusDTO(1L, "PAGO"), new AlteracaoStatusDTO(2L, "PAGO"),
+                        new AlteracaoStatusDTO(3L, "PAGO")))
+                .build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        String[] linhas = resposta.getContentAsString().split("\n");
+        assertEquals(200, resposta.getStatus());
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[2].contains("\"processados\":2"));
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaSemConexaoTerminaComLinhaDeErro() throws Exception {
+        TransicaoStatusProjecao primeira = transicao(1L, TransicaoStatusProjecao.ATUALIZADO);
+        when(domainServices.atualizarStatusEmLote(anyMap()))
+                .thenReturn(List.of(primeira))
+                .thenThrow(new CannotCreateTransactionException("espera máxima esgotada"));
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .itens(List.of(new AlteracaoStatusDTO(1L, "PAGO"), new AlteracaoStatusDTO(2L, "PAGO"),
+                        new AlteracaoStatusDTO(3L, "PAGO")))
+                .build();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, resposta);
+
+        String[] linhas = resposta.getContentAsString().split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[1].contains("\"processados\":1"));
+    }
+
+    @Test
+    void testAtualizarStatusEmMassaPorFiltroLeDoPrimario() throws Exception {
+        FiltroPedidosDTO filtro = FiltroPedidosDTO.builder().status(StatusPedido.CRIADO).build();
+        List<Boolean> leiturasNoPrimario = new ArrayList<>();
+        when(domainServices.listarPedidos(filtro, null, 2)).thenAnswer(invocacao -> {
+            leiturasNoPrimario.add(ContextoLeitura.isPrimario());
+            return new PaginaPedidosDTO(List.of(), null);
+        });
+        AtualizacaoStatusEmMassaDTO requisicao = AtualizacaoStatusEmMassaDTO.builder()
+                .filtro(filtro).status("CANCELADO").build();
+
+        pedidosController.atualizarStatusEmMassa(requisicao, new MockHttpServletResponse());
+
+        assertEquals(List.of(true), leiturasNoPrimario);
+        assertFalse(ContextoLeitura.isPrimario());
+    }
+
+    private static TransicaoStatusProjecao transicao(Long id, String resultado) {
+        TransicaoStatusProjecao transicao = mock(TransicaoStatusProjecao.class);
+        when(transicao.getId()).thenReturn(id);
+        when(transicao.getResultado()).thenReturn(resultado);
+        return transicao;
+    }
 }